@@ -0,0 +1,77 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
+import com.github.open.discovery.kubernetes.client.KubernetesClientManager;
+import com.github.open.discovery.kubernetes.client.KubernetesClientProperties;
+import com.github.open.discovery.kubernetes.fake.FakeKubernetesApiServer;
+import com.github.open.discovery.kubernetes.fake.Fixtures;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 启动 {@link FakeKubernetesApiServer} 并创建指向它的 {@link KubernetesDiscoveryClient}
+ *
+ * @since 1.0 2026/10/18
+ */
+public class DiscoveryFixture implements Closeable {
+
+    private final FakeKubernetesApiServer server;
+    private final GenericApplicationContext applicationContext;
+    private final List<String> serviceIds = new ArrayList<>();
+    private final KubernetesClientManager clientManager;
+    private final KubernetesDiscoveryClient discoveryClient;
+
+    public DiscoveryFixture(int namespaces, int servicesPerNamespace, int instancesPerService,
+                            KubernetesDiscoveryProperties discoveryProperties) throws IOException {
+        this.server = new FakeKubernetesApiServer();
+
+        KubernetesClientProperties clientProperties = new KubernetesClientProperties();
+        clientProperties.setApiServerUrl(server.getUrl());
+        for (int n = 0; n < namespaces; n++) {
+            String namespace = "ns" + n;
+            server.putNamespace(namespace,
+                    Fixtures.services(namespace, servicesPerNamespace),
+                    Fixtures.endpointsList(namespace, servicesPerNamespace, instancesPerService),
+                    Fixtures.endpointSliceList(namespace, servicesPerNamespace, instancesPerService));
+            clientProperties.getIncludeNamespaces().add(namespace);
+            for (int i = 0; i < servicesPerNamespace; i++) {
+                serviceIds.add(Fixtures.serviceId(namespace, i));
+            }
+        }
+
+        this.applicationContext = new GenericApplicationContext();
+        this.applicationContext.refresh();
+        this.clientManager = new KubernetesClientManager(clientProperties);
+        this.discoveryClient = new KubernetesDiscoveryClient(clientManager,
+                discoveryProperties, Collections.emptySet(), applicationContext);
+        // 首次读取时启动，并等待首次拉取完成
+        this.discoveryClient.getServices();
+    }
+
+    public KubernetesDiscoveryClient getDiscoveryClient() {
+        return discoveryClient;
+    }
+
+    public FakeKubernetesApiServer getServer() {
+        return server;
+    }
+
+    public List<String> getServiceIds() {
+        return serviceIds;
+    }
+
+    @Override
+    public void close() {
+        discoveryClient.stop();
+        clientManager.close();
+        applicationContext.close();
+        server.close();
+    }
+
+}
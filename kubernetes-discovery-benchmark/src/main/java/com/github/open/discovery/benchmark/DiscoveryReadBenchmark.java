@@ -0,0 +1,82 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getInstances / getServices 在多线程下的读性能
+ *
+ * @since 1.0 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class DiscoveryReadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Discovery {
+
+        DiscoveryFixture fixture;
+        KubernetesDiscoveryClient client;
+        String[] serviceIds;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            fixture = new DiscoveryFixture(4, 250, 4, new KubernetesDiscoveryProperties());
+            client = fixture.getDiscoveryClient();
+            serviceIds = fixture.getServiceIds().toArray(new String[0]);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            fixture.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        String serviceId(Discovery discovery) {
+            String[] serviceIds = discovery.serviceIds;
+            return serviceIds[(next++ & Integer.MAX_VALUE) % serviceIds.length];
+        }
+    }
+
+    @Benchmark
+    public List<ServiceInstance> getInstances(Discovery discovery, Cursor cursor) {
+        return discovery.client.getInstances(cursor.serviceId(discovery));
+    }
+
+    @Benchmark
+    public List<ServiceInstance> getInstancesHotService(Discovery discovery) {
+        return discovery.client.getInstances(discovery.serviceIds[0]);
+    }
+
+    @Benchmark
+    public List<String> getServices(Discovery discovery) {
+        return discovery.client.getServices();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一轮完整刷新（服务列表 + 实例列表）的耗时，服务数 100 / 1k / 10k
+ *
+ * @since 1.0 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiscoveryRefreshBenchmark {
+
+    private static final int NAMESPACES = 4;
+
+    @Param({"100", "1000", "10000"})
+    public int services;
+
+    @Param({"BULK", "PER_SERVICE"})
+    public KubernetesDiscoveryProperties.EndpointsFetchMode endpointsFetchMode;
+
+    private DiscoveryFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        KubernetesDiscoveryProperties properties = new KubernetesDiscoveryProperties();
+        properties.setEndpointsFetchMode(endpointsFetchMode);
+        // 只由压测线程触发刷新
+        properties.setFetchServiceIntervalSeconds(3600);
+        properties.setFetchInstanceIntervalSeconds(3600);
+        fixture = new DiscoveryFixture(NAMESPACES, services / NAMESPACES, 3, properties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void refresh() {
+        fixture.getDiscoveryClient().refresh();
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesServiceInstance;
+import com.github.open.discovery.kubernetes.fake.Fixtures;
+import com.github.open.discovery.kubernetes.loadbalancer.InstanceChooser;
+import com.github.open.discovery.kubernetes.loadbalancer.KubernetesLoadBalancerProperties;
+import com.github.open.discovery.kubernetes.loadbalancer.OutstandingRequests;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各负载均衡策略选择一个实例的开销，可配合 -prof gc 查看分配
+ *
+ * @since 1.0 2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class InstanceChooserBenchmark {
+
+    @Param({"ROUND_ROBIN", "WEIGHTED", "LEAST_REQUEST", "CONSISTENT_HASH"})
+    public KubernetesLoadBalancerProperties.Strategy strategy;
+
+    @Param({"3", "100"})
+    public int instances;
+
+    private InstanceChooser chooser;
+    private List<ServiceInstance> instanceList;
+    private Request<DefaultRequestContext> request;
+
+    @Setup
+    public void setUp() {
+        KubernetesLoadBalancerProperties properties = new KubernetesLoadBalancerProperties();
+        properties.setStrategy(strategy);
+        chooser = InstanceChooser.create(properties, new OutstandingRequests());
+
+        KubernetesServiceInstance.Metadata metadata =
+                KubernetesServiceInstance.Metadata.of(Fixtures.endpoints("ns0", 1, 1));
+        List<ServiceInstance> list = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            list.add(new KubernetesServiceInstance("ns0-svc-1", "10.0." + (i / 250) + "." + (i % 250 + 1),
+                    8080, "ns0", metadata));
+        }
+        instanceList = Collections.unmodifiableList(list);
+        request = new DefaultRequest<>(new DefaultRequestContext(null, "user-42"));
+    }
+
+    @Benchmark
+    public ServiceInstance choose() {
+        return chooser.choose(instanceList, request);
+    }
+
+}
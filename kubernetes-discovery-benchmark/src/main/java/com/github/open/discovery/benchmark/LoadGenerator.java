@@ -0,0 +1,374 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
+import com.github.open.discovery.kubernetes.MemoryFootprint;
+import com.github.open.discovery.kubernetes.NamespaceCircuitBreaker;
+import com.github.open.discovery.kubernetes.fake.FakeKubernetesApiServer;
+import com.github.open.discovery.kubernetes.fake.Fixtures;
+import com.github.open.discovery.kubernetes.reactive.KubernetesReactiveDiscoveryClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对 {@link FakeKubernetesApiServer} 持续制造实例变化，同时用阻塞与响应式客户端读取，定期输出：
+ * <ul>
+ *     <li>每轮刷新的 api-server 请求数（按资源类型）及刷新耗时</li>
+ *     <li>实例变化的传播延迟：api-server 数据变化到 {@link KubernetesDiscoveryClient} 监听器、
+ *     {@link KubernetesReactiveDiscoveryClient#watchInstances(String)} 收到变化</li>
+ *     <li>读取吞吐、堆内存与快照的 {@link MemoryFootprint}</li>
+ * </ul>
+ * 参数以 key=value 传入，见 {@link #DEFAULTS}，例如：
+ * <pre>
+ * java -cp kubernetes-discovery-benchmark/target/benchmarks.jar \
+ *     com.github.open.discovery.benchmark.LoadGenerator services=10000 instances=8 churnPerSecond=50
+ * </pre>
+ *
+ * @since 1.0 2026/10/18
+ */
+public class LoadGenerator {
+
+    private static final Map<String, String> DEFAULTS = new HashMap<>();
+
+    static {
+        DEFAULTS.put("namespaces", "4");
+        // 服务总数，平均分到各 namespace
+        DEFAULTS.put("services", "1000");
+        DEFAULTS.put("instances", "4");
+        // 每秒修改的 Endpoints 数
+        DEFAULTS.put("churnPerSecond", "10");
+        DEFAULTS.put("latencyMillis", "0");
+        DEFAULTS.put("errorRate", "0");
+        // 大于 0 时由压测按该间隔调用 refresh()，否则按客户端自己的刷新间隔
+        DEFAULTS.put("refreshMillis", "1000");
+        DEFAULTS.put("instanceIntervalSeconds", "30");
+        DEFAULTS.put("adaptiveRefresh", "false");
+        DEFAULTS.put("compactInstances", "false");
+        DEFAULTS.put("endpointsFetchMode", "BULK");
+        // POLLING 或 WATCH
+        DEFAULTS.put("mode", "POLLING");
+        // ENDPOINTS 或 ENDPOINT_SLICES
+        DEFAULTS.put("endpointsSource", "ENDPOINTS");
+        DEFAULTS.put("notifyDebounceMillis", "100");
+        // 读线程数，一半阻塞客户端，一半响应式客户端
+        DEFAULTS.put("readers", "4");
+        // 用 watchInstances 订阅的服务数
+        DEFAULTS.put("watchedServices", "100");
+        DEFAULTS.put("durationSeconds", "60");
+        DEFAULTS.put("reportSeconds", "10");
+    }
+
+    private final Map<String, String> args;
+    private final int instances;
+    private final boolean endpointSlices;
+    private final DiscoveryFixture fixture;
+    private final KubernetesDiscoveryClient client;
+    private final KubernetesReactiveDiscoveryClient reactiveClient;
+    private final List<String> serviceIds;
+    private final Set<String> watchedServices;
+
+    /**
+     * 尚未被观察到的变化，key - serviceId，value - 首次变化的时间（纳秒）
+     */
+    private final Map<String, Long> pendingListener = new ConcurrentHashMap<>();
+    private final Map<String, Long> pendingReactive = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> generations = new ConcurrentHashMap<>();
+    private final LatencyRecorder listenerLatency = new LatencyRecorder();
+    private final LatencyRecorder reactiveLatency = new LatencyRecorder();
+    private final LatencyRecorder refreshLatency = new LatencyRecorder();
+    private final LongAdder blockingReads = new LongAdder();
+    private final LongAdder reactiveReads = new LongAdder();
+    private final LongAdder changes = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public LoadGenerator(Map<String, String> args) throws IOException {
+        this.args = args;
+        this.instances = intArg("instances");
+        if (instances > Fixtures.MAX_INSTANCES) {
+            throw new IllegalArgumentException("instances must not exceed " + Fixtures.MAX_INSTANCES);
+        }
+
+        this.endpointSlices = KubernetesDiscoveryProperties.EndpointsSource.ENDPOINT_SLICES.name()
+                .equals(args.get("endpointsSource"));
+
+        KubernetesDiscoveryProperties properties = new KubernetesDiscoveryProperties();
+        properties.setEndpointsFetchMode(
+                KubernetesDiscoveryProperties.EndpointsFetchMode.valueOf(args.get("endpointsFetchMode")));
+        properties.setMode(KubernetesDiscoveryProperties.Mode.valueOf(args.get("mode")));
+        properties.setEndpointsSource(
+                KubernetesDiscoveryProperties.EndpointsSource.valueOf(args.get("endpointsSource")));
+        properties.setCompactInstances(Boolean.parseBoolean(args.get("compactInstances")));
+        properties.setAdaptiveRefresh(Boolean.parseBoolean(args.get("adaptiveRefresh")));
+        properties.setNotifyDebounceMillis(intArg("notifyDebounceMillis"));
+        if (intArg("refreshMillis") > 0) {
+            // 只由压测线程触发刷新
+            properties.setFetchServiceIntervalSeconds(3600);
+            properties.setFetchInstanceIntervalSeconds(3600);
+        } else {
+            properties.setFetchInstanceIntervalSeconds(intArg("instanceIntervalSeconds"));
+        }
+
+        int namespaces = intArg("namespaces");
+        this.fixture = new DiscoveryFixture(namespaces, Math.max(1, intArg("services") / namespaces), instances,
+                properties);
+        this.client = fixture.getDiscoveryClient();
+        this.reactiveClient = new KubernetesReactiveDiscoveryClient(client);
+        this.serviceIds = fixture.getServiceIds();
+        this.watchedServices = new HashSet<>(
+                serviceIds.subList(0, Math.min(intArg("watchedServices"), serviceIds.size())));
+
+        // 初始数据加载完成后再注入延迟与错误
+        fixture.getServer().setLatencyMillis(intArg("latencyMillis"));
+        fixture.getServer().setErrorRate(Double.parseDouble(args.get("errorRate")));
+    }
+
+    public static void main(String[] argv) throws Exception {
+        Map<String, String> args = new HashMap<>(DEFAULTS);
+        for (String arg : argv) {
+            int i = arg.indexOf('=');
+            if (i <= 0 || !DEFAULTS.containsKey(arg.substring(0, i))) {
+                throw new IllegalArgumentException("unknown argument: " + arg + ", supported: " + DEFAULTS.keySet());
+            }
+            args.put(arg.substring(0, i), arg.substring(i + 1));
+        }
+        System.out.println("load generator: " + args);
+        new LoadGenerator(args).run();
+    }
+
+    public void run() throws InterruptedException {
+        client.addListener((snapshot, diff) -> {
+            long now = System.nanoTime();
+            diff.getInstanceChanges().keySet().forEach(serviceId -> observe(pendingListener, serviceId, now,
+                    listenerLatency));
+        });
+        Disposable.Composite watches = Disposables.composite();
+        for (String serviceId : watchedServices) {
+            // 订阅时先收到当前值，跳过
+            watches.add(reactiveClient.watchInstances(serviceId).skip(1)
+                    .subscribe(instances -> observe(pendingReactive, serviceId, System.nanoTime(), reactiveLatency)));
+        }
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        int churnPerSecond = intArg("churnPerSecond");
+        if (churnPerSecond > 0) {
+            scheduler.scheduleAtFixedRate(this::churn, 0, TimeUnit.SECONDS.toMicros(1) / churnPerSecond,
+                    TimeUnit.MICROSECONDS);
+        }
+        int refreshMillis = intArg("refreshMillis");
+        if (refreshMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        }
+
+        int readers = intArg("readers");
+        ExecutorService readerPool = Executors.newFixedThreadPool(Math.max(1, readers));
+        for (int i = 0; i < readers; i++) {
+            boolean reactive = i % 2 == 1;
+            readerPool.execute(() -> read(reactive));
+        }
+
+        long durationMillis = TimeUnit.SECONDS.toMillis(intArg("durationSeconds"));
+        long reportMillis = TimeUnit.SECONDS.toMillis(intArg("reportSeconds"));
+        long start = System.currentTimeMillis();
+        Counters last = new Counters();
+        try {
+            while (System.currentTimeMillis() - start < durationMillis) {
+                long remaining = durationMillis - (System.currentTimeMillis() - start);
+                TimeUnit.MILLISECONDS.sleep(Math.max(0, Math.min(reportMillis, remaining)));
+                last = report(last);
+            }
+        } finally {
+            running = false;
+            scheduler.shutdownNow();
+            readerPool.shutdownNow();
+            watches.dispose();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+            readerPool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.out.printf("final: heapUsed=%dMB footprint=%s unobservedChanges=%d%n",
+                memory.getHeapMemoryUsage().getUsed() >> 20, client.getFootprint(), pendingListener.size());
+        fixture.close();
+    }
+
+    /**
+     * 随机修改一个服务的 Endpoints（或 EndpointSlice），替换其中一个实例
+     */
+    private void churn() {
+        String serviceId = serviceIds.get(ThreadLocalRandom.current().nextInt(serviceIds.size()));
+        // serviceId 形如 ns0-svc-12
+        int split = serviceId.lastIndexOf("-svc-");
+        String namespace = serviceId.substring(0, split);
+        int index = Integer.parseInt(serviceId.substring(split + 5));
+        int generation = generations.computeIfAbsent(serviceId, k -> new AtomicInteger()).incrementAndGet();
+
+        long now = System.nanoTime();
+        pendingListener.putIfAbsent(serviceId, now);
+        if (watchedServices.contains(serviceId)) {
+            pendingReactive.putIfAbsent(serviceId, now);
+        }
+        if (endpointSlices) {
+            fixture.getServer().updateEndpointSlice(namespace,
+                    Fixtures.endpointSlice(namespace, index, instances, generation, "0"));
+        } else {
+            fixture.getServer().updateEndpoints(namespace, Fixtures.endpoints(namespace, index, instances, generation));
+        }
+        changes.increment();
+    }
+
+    private void refresh() {
+        long start = System.nanoTime();
+        try {
+            client.refresh();
+            refreshLatency.record(System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            System.out.println("refresh failed: " + e.getMessage());
+        }
+    }
+
+    private void read(boolean reactive) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running && !Thread.currentThread().isInterrupted()) {
+            String serviceId = serviceIds.get(random.nextInt(serviceIds.size()));
+            if (reactive) {
+                reactiveClient.getInstances(serviceId).collectList().block();
+                reactiveReads.increment();
+            } else {
+                client.getInstances(serviceId);
+                blockingReads.increment();
+            }
+        }
+    }
+
+    private static void observe(Map<String, Long> pending, String serviceId, long now, LatencyRecorder recorder) {
+        Long changedAt = pending.remove(serviceId);
+        if (null != changedAt) {
+            recorder.record(now - changedAt);
+        }
+    }
+
+    private Counters report(Counters last) {
+        FakeKubernetesApiServer server = fixture.getServer();
+        Counters current = new Counters();
+        current.time = System.nanoTime();
+        current.services = server.getRequestCount(FakeKubernetesApiServer.SERVICES);
+        current.endpoints = server.getRequestCount(endpointSlices
+                ? FakeKubernetesApiServer.ENDPOINT_SLICES
+                : FakeKubernetesApiServer.ENDPOINTS);
+        current.errors = server.getErrorCount();
+        current.blockingReads = blockingReads.sum();
+        current.reactiveReads = reactiveReads.sum();
+        current.changes = changes.sum();
+
+        double seconds = (current.time - last.time) / 1e9;
+        LatencyRecorder.Summary refreshes = refreshLatency.drain();
+        long calls = current.services - last.services + current.endpoints - last.endpoints;
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("api calls: services=%d endpoints=%d errors=%d (%.1f/s",
+                current.services - last.services, current.endpoints - last.endpoints,
+                current.errors - last.errors, calls / seconds));
+        if (refreshes.count > 0) {
+            builder.append(String.format(", %.1f per refresh", (double) calls / refreshes.count));
+        }
+        builder.append(")\n");
+        if (refreshes.count > 0) {
+            builder.append("  refresh: ").append(refreshes).append('\n');
+        }
+        builder.append(String.format("  changes=%d  reads/s: blocking=%.0f reactive=%.0f%n",
+                current.changes - last.changes,
+                (current.blockingReads - last.blockingReads) / seconds,
+                (current.reactiveReads - last.reactiveReads) / seconds));
+        builder.append("  propagation listener: ").append(listenerLatency.drain()).append('\n');
+        builder.append("  propagation reactive: ").append(reactiveLatency.drain()).append('\n');
+        builder.append(String.format("  heapUsed=%dMB services=%d unhealthyNamespaces=%d",
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20,
+                client.getServices().size(),
+                client.getNamespaceStatus().values().stream()
+                        .filter(status -> status.getState() != NamespaceCircuitBreaker.State.CLOSED)
+                        .count()));
+        System.out.println(builder);
+        return current;
+    }
+
+    private int intArg(String key) {
+        return Integer.parseInt(args.get(key));
+    }
+
+    private static final class Counters {
+        private long time = System.nanoTime();
+        private long services;
+        private long endpoints;
+        private long errors;
+        private long blockingReads;
+        private long reactiveReads;
+        private long changes;
+    }
+
+    /**
+     * 记录一个报告周期内的耗时，报告时清空
+     */
+    private static final class LatencyRecorder {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        private synchronized void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        private synchronized Summary drain() {
+            long[] sorted = Arrays.copyOf(values, size);
+            size = 0;
+            Arrays.sort(sorted);
+            return new Summary(sorted);
+        }
+
+        private static final class Summary {
+
+            private final int count;
+            private final long[] sorted;
+
+            private Summary(long[] sorted) {
+                this.count = sorted.length;
+                this.sorted = sorted;
+            }
+
+            private double percentileMillis(double percentile) {
+                return sorted[Math.min(count - 1, (int) (count * percentile))] / 1e6;
+            }
+
+            @Override
+            public String toString() {
+                if (count == 0) {
+                    return "n=0";
+                }
+                return String.format("n=%d p50=%.1fms p99=%.1fms max=%.1fms",
+                        count, percentileMillis(0.5), percentileMillis(0.99), sorted[count - 1] / 1e6);
+            }
+        }
+    }
+
+}
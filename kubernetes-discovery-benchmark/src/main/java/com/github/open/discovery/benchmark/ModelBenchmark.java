@@ -0,0 +1,78 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesService;
+import com.github.open.discovery.kubernetes.KubernetesServiceInstance;
+import com.github.open.discovery.kubernetes.fake.Fixtures;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KubernetesService / KubernetesServiceInstance 的构造及常用方法开销
+ *
+ * @since 1.0 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelBenchmark {
+
+    private Service service;
+    private Endpoints endpoints;
+    private KubernetesServiceInstance.Metadata metadata;
+    private KubernetesServiceInstance instance;
+
+    @Setup
+    public void setUp() {
+        service = Fixtures.service("ns0", 1);
+        endpoints = Fixtures.endpoints("ns0", 1, 1);
+        metadata = KubernetesServiceInstance.Metadata.of(endpoints);
+        instance = newInstance();
+    }
+
+    @Benchmark
+    public KubernetesService newKubernetesService() {
+        return new KubernetesService(service);
+    }
+
+    @Benchmark
+    public KubernetesServiceInstance newKubernetesServiceInstance() {
+        return newInstance();
+    }
+
+    @Benchmark
+    public KubernetesServiceInstance.Metadata newMetadata() {
+        return KubernetesServiceInstance.Metadata.of(endpoints);
+    }
+
+    @Benchmark
+    public Map<String, String> getMetadata() {
+        return instance.getMetadata();
+    }
+
+    @Benchmark
+    public URI getUri() {
+        return instance.getUri();
+    }
+
+    private KubernetesServiceInstance newInstance() {
+        return new KubernetesServiceInstance("ns0-svc-1", "10.0.0.1", 8080, "ns0", metadata);
+    }
+
+}
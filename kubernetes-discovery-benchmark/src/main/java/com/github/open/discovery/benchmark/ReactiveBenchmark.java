@@ -0,0 +1,65 @@
+package com.github.open.discovery.benchmark;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
+import com.github.open.discovery.kubernetes.reactive.KubernetesReactiveDiscoveryClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应式封装相对阻塞接口的额外开销
+ *
+ * @since 1.0 2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactiveBenchmark {
+
+    private DiscoveryFixture fixture;
+    private KubernetesDiscoveryClient client;
+    private KubernetesReactiveDiscoveryClient reactiveClient;
+    private String serviceId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fixture = new DiscoveryFixture(1, 100, 4, new KubernetesDiscoveryProperties());
+        client = fixture.getDiscoveryClient();
+        reactiveClient = new KubernetesReactiveDiscoveryClient(client);
+        serviceId = fixture.getServiceIds().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<ServiceInstance> blocking() {
+        return client.getInstances(serviceId);
+    }
+
+    @Benchmark
+    public List<ServiceInstance> reactive() {
+        return reactiveClient.getInstances(serviceId).collectList().block();
+    }
+
+}
@@ -1,11 +1,15 @@
 package com.github.open.discovery.autoconfig;
 
+import com.github.open.discovery.kubernetes.DiscoveryExecutors;
 import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
 import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
 import com.github.open.discovery.kubernetes.client.ClientManager;
 import com.github.open.discovery.kubernetes.client.KubernetesClientManager;
 import com.github.open.discovery.kubernetes.client.KubernetesClientProperties;
+import com.github.open.discovery.kubernetes.metrics.DiscoveryMetrics;
 import com.google.common.collect.Sets;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -21,21 +25,33 @@ import java.util.Set;
 @EnableConfigurationProperties({KubernetesClientProperties.class, KubernetesDiscoveryProperties.class})
 public class DiscoveryClientAutoConfiguration {
 
-    @Bean
+    @Bean(destroyMethod = "close")
     public ClientManager kubernetesClientManager(KubernetesClientProperties kubernetesClientProperties) {
         return new KubernetesClientManager(kubernetesClientProperties);
     }
 
+    /**
+     * 可自定义线程池，scheduler 必须是单线程的
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public DiscoveryExecutors discoveryExecutors(KubernetesDiscoveryProperties kubernetesDiscoveryProperties) {
+        return DiscoveryExecutors.create(kubernetesDiscoveryProperties);
+    }
+
     @Bean
     public KubernetesDiscoveryClient kubernetesDiscoveryClient(KubernetesDiscoveryProperties kubernetesDiscoveryProperties,
                                                                ClientManager clientManager,
                                                                KubernetesClientProperties kubernetesClientProperties,
-                                                               ApplicationContext applicationContext) {
+                                                               ApplicationContext applicationContext,
+                                                               ObjectProvider<DiscoveryMetrics> discoveryMetrics,
+                                                               DiscoveryExecutors discoveryExecutors) {
         Set<String> excludeServiceList = Sets.newHashSet();
         excludeServiceList.addAll(kubernetesClientProperties.getExcludeServices());
 
         return new KubernetesDiscoveryClient(clientManager, kubernetesDiscoveryProperties, excludeServiceList,
-                applicationContext);
+                applicationContext, discoveryMetrics.getIfAvailable(() -> DiscoveryMetrics.NOOP),
+                discoveryExecutors, false);
     }
 
 }
@@ -0,0 +1,33 @@
+package com.github.open.discovery.autoconfig;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryHealthIndicator;
+import org.springframework.boot.actuate.autoconfigure.health.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * classpath 中有 actuator 时注册服务发现健康检查，可通过 management.health.kubernetesDiscovery.enabled=false 关闭
+ *
+ * @since 1.0 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({HealthIndicator.class, ConditionalOnEnabledHealthIndicator.class})
+@AutoConfigureAfter(DiscoveryClientAutoConfiguration.class)
+public class DiscoveryHealthAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(KubernetesDiscoveryClient.class)
+    @ConditionalOnMissingBean(name = "kubernetesDiscoveryHealthIndicator")
+    @ConditionalOnEnabledHealthIndicator("kubernetesDiscovery")
+    public KubernetesDiscoveryHealthIndicator kubernetesDiscoveryHealthIndicator(
+            KubernetesDiscoveryClient kubernetesDiscoveryClient) {
+        return new KubernetesDiscoveryHealthIndicator(kubernetesDiscoveryClient);
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.github.open.discovery.autoconfig;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryProperties;
+import com.github.open.discovery.kubernetes.metrics.DiscoveryMetrics;
+import com.github.open.discovery.kubernetes.metrics.MicrometerDiscoveryMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * classpath 中有 micrometer 且存在 MeterRegistry 时开启服务发现埋点
+ *
+ * @since 1.0 2026/10/18
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@AutoConfigureBefore(DiscoveryClientAutoConfiguration.class)
+@EnableConfigurationProperties(KubernetesDiscoveryProperties.class)
+public class DiscoveryMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnMissingBean(DiscoveryMetrics.class)
+    public DiscoveryMetrics discoveryMetrics(MeterRegistry meterRegistry,
+                                             KubernetesDiscoveryProperties kubernetesDiscoveryProperties) {
+        return new MicrometerDiscoveryMetrics(meterRegistry, kubernetesDiscoveryProperties.isPerServiceMetrics());
+    }
+
+}
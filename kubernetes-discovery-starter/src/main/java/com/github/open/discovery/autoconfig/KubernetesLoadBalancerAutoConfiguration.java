@@ -0,0 +1,38 @@
+package com.github.open.discovery.autoconfig;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.loadbalancer.KubernetesLoadBalancerClientConfiguration;
+import com.github.open.discovery.kubernetes.loadbalancer.KubernetesLoadBalancerProperties;
+import com.github.open.discovery.kubernetes.loadbalancer.OutstandingRequests;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 开启 icloud.kubernetes.loadbalancer.enabled 后，所有服务使用 {@link KubernetesLoadBalancerClientConfiguration} 中的负载均衡器
+ *
+ * @since 1.0 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(ReactorServiceInstanceLoadBalancer.class)
+@ConditionalOnProperty(value = "icloud.kubernetes.loadbalancer.enabled", havingValue = "true")
+@AutoConfigureAfter(DiscoveryClientAutoConfiguration.class)
+@EnableConfigurationProperties(KubernetesLoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = KubernetesLoadBalancerClientConfiguration.class)
+public class KubernetesLoadBalancerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutstandingRequests outstandingRequests(KubernetesDiscoveryClient kubernetesDiscoveryClient) {
+        OutstandingRequests outstandingRequests = new OutstandingRequests();
+        kubernetesDiscoveryClient.addListener(outstandingRequests);
+        return outstandingRequests;
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 快照变化通知：防抖合并后在通知线程池上异步回调 {@link DiscoveryListener}
+ * <p>
+ * 快照变化后等待 debounceMillis 内没有新的变化再通知，持续变化时最多等待 maxDelayMillis；
+ * 通知时只传递最新快照及与该 listener 上次收到的快照之间的差异，同一服务的多次变化合并为一次。
+ * <p>
+ * 每个 listener 串行回调，执行期间的变化在回调结束后合并为一次通知，慢 listener 只会收到更粗粒度的变化，
+ * 不会阻塞刷新线程和其他 listener。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class ChangeNotifier {
+
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final long debounceMillis;
+    private final long maxDelayMillis;
+    private final long slowListenerMillis;
+
+    private final List<Lane> lanes = new CopyOnWriteArrayList<>();
+    /**
+     * 最近一次提交的快照
+     */
+    private volatile DiscoverySnapshot latest = DiscoverySnapshot.EMPTY;
+    /**
+     * 最近一次计算的差异，多个 listener 收到的快照相同时复用
+     */
+    private volatile CachedDiff cachedDiff;
+
+    /**
+     * 以下由 this 保护，0 表示没有未通知的变化
+     */
+    private long firstChangeTime;
+    private long lastChangeTime;
+    private boolean flushScheduled;
+
+    /**
+     * @param scheduler 执行防抖计时
+     * @param executor  执行 listener 回调
+     */
+    public ChangeNotifier(ScheduledExecutorService scheduler, Executor executor,
+                          long debounceMillis, long maxDelayMillis, long slowListenerMillis) {
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.debounceMillis = debounceMillis;
+        this.maxDelayMillis = Math.max(maxDelayMillis, debounceMillis);
+        this.slowListenerMillis = slowListenerMillis;
+    }
+
+    /**
+     * 之后的变化才会通知到该 listener
+     */
+    public void addListener(DiscoveryListener listener) {
+        lanes.add(new Lane(listener, latest));
+    }
+
+    public void removeListener(DiscoveryListener listener) {
+        lanes.removeIf(lane -> lane.listener == listener);
+    }
+
+    /**
+     * 发布新快照后调用
+     */
+    public void submit(DiscoverySnapshot snapshot) {
+        latest = snapshot;
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (firstChangeTime == 0) {
+                firstChangeTime = now;
+            }
+            lastChangeTime = now;
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        schedule(this::flush, debounceMillis);
+    }
+
+    private void flush() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            long quietAt = lastChangeTime + debounceMillis;
+            long deadline = firstChangeTime + maxDelayMillis;
+            if (now < quietAt && now < deadline) {
+                // 窗口内又有变化，顺延
+                schedule(this::flush, Math.min(quietAt, deadline) - now);
+                return;
+            }
+            firstChangeTime = 0;
+            flushScheduled = false;
+        }
+        DiscoverySnapshot target = latest;
+        lanes.forEach(lane -> lane.offer(target));
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        try {
+            scheduler.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("discovery scheduler shut down, drop change notification");
+        }
+    }
+
+    private SnapshotDiff diff(DiscoverySnapshot from, DiscoverySnapshot to) {
+        CachedDiff cached = cachedDiff;
+        if (null != cached && cached.from == from && cached.to == to) {
+            return cached.diff;
+        }
+        SnapshotDiff diff = SnapshotDiff.between(from, to);
+        cachedDiff = new CachedDiff(from, to, diff);
+        return diff;
+    }
+
+    /**
+     * 单个 listener 的通知队列，最多一个待通知快照
+     */
+    private final class Lane implements Runnable {
+
+        private final DiscoveryListener listener;
+        private final AtomicReference<DiscoverySnapshot> pending = new AtomicReference<>();
+        private final AtomicBoolean running = new AtomicBoolean();
+        /**
+         * 上次通知的快照，只在回调任务中读写
+         */
+        private DiscoverySnapshot delivered;
+
+        private Lane(DiscoveryListener listener, DiscoverySnapshot delivered) {
+            this.listener = listener;
+            this.delivered = delivered;
+        }
+
+        private void offer(DiscoverySnapshot snapshot) {
+            pending.set(snapshot);
+            trySchedule();
+        }
+
+        private void trySchedule() {
+            if (null == pending.get() || !running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+                log.warn("notify executor is full, retry DiscoveryListener {} later", listener);
+                schedule(this::trySchedule, Math.max(debounceMillis, 100));
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                DiscoverySnapshot target = pending.getAndSet(null);
+                if (null != target && target != delivered && lanes.contains(this)) {
+                    deliver(target);
+                }
+            } finally {
+                running.set(false);
+            }
+            // 回调期间又有变化
+            trySchedule();
+        }
+
+        private void deliver(DiscoverySnapshot target) {
+            SnapshotDiff diff = diff(delivered, target);
+            DiscoverySnapshot previous = delivered;
+            delivered = target;
+            if (previous.getVersion() != 0 && diff.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                listener.onChange(target, diff);
+            } catch (Exception e) {
+                log.warn("DiscoveryListener failed: {}", listener, e);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsedMillis >= slowListenerMillis) {
+                log.warn("DiscoveryListener {} took {}ms, later changes are merged until it returns",
+                        listener, elapsedMillis);
+            }
+        }
+    }
+
+    private static final class CachedDiff {
+
+        private final DiscoverySnapshot from;
+        private final DiscoverySnapshot to;
+        private final SnapshotDiff diff;
+
+        private CachedDiff(DiscoverySnapshot from, DiscoverySnapshot to, SnapshotDiff diff) {
+            this.from = from;
+            this.to = to;
+            this.diff = diff;
+        }
+    }
+
+}
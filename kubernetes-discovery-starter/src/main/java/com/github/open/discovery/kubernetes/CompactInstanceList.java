@@ -0,0 +1,189 @@
+package com.github.open.discovery.kubernetes;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * 紧凑存储的实例列表，用于超大集群
+ * <p>
+ * 同一服务的实例共享 serviceId、namespace、端口与 {@link KubernetesServiceInstance.Metadata}，
+ * IPv4 地址存为一个 int 数组，节点名、可用区字符串全局复用；
+ * {@link #get(int)} 时才创建 {@link KubernetesServiceInstance} 视图，不缓存。
+ * 以每次访问多一次小对象分配换取常驻内存，只有实例数很多时才值得开启。
+ *
+ * @since 1.0 2026/10/18
+ */
+public final class CompactInstanceList extends AbstractList<ServiceInstance> implements RandomAccess {
+
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    private final String serviceId;
+    private final String namespace;
+    private final KubernetesServiceInstance.Metadata metadata;
+    private final KubernetesServiceInstance.NamedPort primaryPort;
+    private final List<KubernetesServiceInstance.NamedPort> ports;
+    /**
+     * IPv4 地址
+     */
+    private final int[] addresses;
+    /**
+     * 未就绪的下标，全部就绪时为 null
+     */
+    private final BitSet notReady;
+    /**
+     * 全部为 null 时数组本身为 null
+     */
+    private final String[] nodeNames;
+    private final String[] zones;
+
+    private CompactInstanceList(String serviceId, String namespace, KubernetesServiceInstance.Metadata metadata,
+                                KubernetesServiceInstance.NamedPort primaryPort,
+                                List<KubernetesServiceInstance.NamedPort> ports,
+                                int[] addresses, BitSet notReady, String[] nodeNames, String[] zones) {
+        this.serviceId = serviceId;
+        this.namespace = namespace;
+        this.metadata = metadata;
+        this.primaryPort = primaryPort;
+        this.ports = ports;
+        this.addresses = addresses;
+        this.notReady = notReady;
+        this.nodeNames = nodeNames;
+        this.zones = zones;
+    }
+
+    /**
+     * 转换为紧凑存储；有非 IPv4 地址，或实例不属于同一服务、端口不同时无法压缩，返回原列表的只读视图
+     */
+    public static List<ServiceInstance> compact(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (instances instanceof CompactInstanceList) {
+            return instances;
+        }
+        if (!(instances.get(0) instanceof KubernetesServiceInstance)) {
+            return Collections.unmodifiableList(instances);
+        }
+        KubernetesServiceInstance first = (KubernetesServiceInstance) instances.get(0);
+
+        int size = instances.size();
+        int[] addresses = new int[size];
+        BitSet notReady = null;
+        String[] nodeNames = null;
+        String[] zones = null;
+        for (int i = 0; i < size; i++) {
+            ServiceInstance instance = instances.get(i);
+            if (!(instance instanceof KubernetesServiceInstance)) {
+                return Collections.unmodifiableList(instances);
+            }
+            KubernetesServiceInstance kubernetesInstance = (KubernetesServiceInstance) instance;
+            long ip = parseIpv4(kubernetesInstance.getHost());
+            if (ip < 0
+                    || !Objects.equals(first.getServiceId(), kubernetesInstance.getServiceId())
+                    || !Objects.equals(first.getNamespace(), kubernetesInstance.getNamespace())
+                    || first.getSharedMetadata() != kubernetesInstance.getSharedMetadata()
+                    || !first.getPrimaryPort().equals(kubernetesInstance.getPrimaryPort())
+                    || !first.getPorts().equals(kubernetesInstance.getPorts())) {
+                return Collections.unmodifiableList(instances);
+            }
+            addresses[i] = (int) ip;
+            if (!kubernetesInstance.isReady()) {
+                if (null == notReady) {
+                    notReady = new BitSet(size);
+                }
+                notReady.set(i);
+            }
+            if (null != kubernetesInstance.getNodeName()) {
+                if (null == nodeNames) {
+                    nodeNames = new String[size];
+                }
+                nodeNames[i] = INTERNER.intern(kubernetesInstance.getNodeName());
+            }
+            if (null != kubernetesInstance.getZone()) {
+                if (null == zones) {
+                    zones = new String[size];
+                }
+                zones[i] = INTERNER.intern(kubernetesInstance.getZone());
+            }
+        }
+        return new CompactInstanceList(INTERNER.intern(first.getServiceId()), INTERNER.intern(first.getNamespace()),
+                first.getSharedMetadata(), first.getPrimaryPort(), first.getPorts(),
+                addresses, notReady, nodeNames, zones);
+    }
+
+    @Override
+    public ServiceInstance get(int index) {
+        return new KubernetesServiceInstance(serviceId, formatIpv4(addresses[index] & 0xFFFFFFFFL),
+                primaryPort, ports, namespace, metadata,
+                null == notReady || !notReady.get(index),
+                null != nodeNames ? nodeNames[index] : null,
+                null != zones ? zones[index] : null);
+    }
+
+    @Override
+    public int size() {
+        return addresses.length;
+    }
+
+    /**
+     * 估算占用的字节数，不含共享的字符串与 metadata
+     */
+    long estimateBytes() {
+        long bytes = MemoryFootprint.OBJECT_HEADER + 8 * MemoryFootprint.REFERENCE
+                + MemoryFootprint.ARRAY_HEADER + 4L * addresses.length;
+        if (null != notReady) {
+            bytes += MemoryFootprint.OBJECT_HEADER + MemoryFootprint.ARRAY_HEADER + notReady.size() / 8;
+        }
+        if (null != nodeNames) {
+            bytes += MemoryFootprint.ARRAY_HEADER + (long) MemoryFootprint.REFERENCE * nodeNames.length;
+        }
+        if (null != zones) {
+            bytes += MemoryFootprint.ARRAY_HEADER + (long) MemoryFootprint.REFERENCE * zones.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 非 IPv4 地址时返回 -1
+     */
+    private static long parseIpv4(String host) {
+        if (null == host) {
+            return -1;
+        }
+        long ip = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < host.length(); i++) {
+            char c = host.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                ip = ip << 8 | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (octet < 0 || dots != 3) {
+            return -1;
+        }
+        return ip << 8 | octet;
+    }
+
+    private static String formatIpv4(long ip) {
+        return ((ip >>> 24) & 0xFF) + "." + ((ip >>> 16) & 0xFF) + "." + ((ip >>> 8) & 0xFF) + "." + (ip & 0xFF);
+    }
+
+}
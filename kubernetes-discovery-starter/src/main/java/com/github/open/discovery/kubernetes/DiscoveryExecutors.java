@@ -0,0 +1,123 @@
+package com.github.open.discovery.kubernetes;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务发现使用的线程池
+ * <p>
+ * scheduler 执行定时刷新并发布快照，必须是单线程的；fetchExecutor 并发拉取各 namespace，JDK 21+ 可使用虚拟线程；
+ * notifyExecutor 回调 {@link DiscoveryListener} 及发布 {@link ServicesUpdateEvent}。
+ * 关闭时先等待已提交的任务执行完，超过 shutdownTimeoutMillis 后中断。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+@Getter
+public class DiscoveryExecutors implements AutoCloseable {
+
+    private static final int NOTIFY_QUEUE_CAPACITY = 1024;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService fetchExecutor;
+    private final ExecutorService notifyExecutor;
+    private final long shutdownTimeoutMillis;
+
+    public DiscoveryExecutors(ScheduledExecutorService scheduler, ExecutorService fetchExecutor,
+                              ExecutorService notifyExecutor, long shutdownTimeoutMillis) {
+        this.scheduler = scheduler;
+        this.fetchExecutor = fetchExecutor;
+        this.notifyExecutor = notifyExecutor;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    public static DiscoveryExecutors create(KubernetesDiscoveryProperties properties) {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Kubernetes-ServiceRefreshExecutor-%d")
+                        .setDaemon(true)
+                        .build());
+        // 停止后不再执行已排期的刷新
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return new DiscoveryExecutors(scheduler,
+                createFetchExecutor(properties.getFetchParallelism(), properties.isPreferVirtualThreads()),
+                createNotifyExecutor(properties.getNotifyThreads()),
+                TimeUnit.SECONDS.toMillis(properties.getShutdownTimeoutSeconds()));
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        fetchExecutor.shutdown();
+        notifyExecutor.shutdown();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        try {
+            if (!scheduler.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.warn("discovery scheduler not terminated in {}ms, interrupt", shutdownTimeoutMillis);
+            }
+            if (!fetchExecutor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.warn("discovery fetch executor not terminated in {}ms, interrupt", shutdownTimeoutMillis);
+            }
+            if (!notifyExecutor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.warn("discovery notify executor not terminated in {}ms, interrupt", shutdownTimeoutMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scheduler.shutdownNow();
+            fetchExecutor.shutdownNow();
+            notifyExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * JDK 21+ 优先使用虚拟线程，否则使用有界线程池
+     */
+    private static ExecutorService createFetchExecutor(int parallelism, boolean preferVirtualThreads) {
+        if (preferVirtualThreads) {
+            try {
+                Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.debug("virtual threads unavailable, use platform threads");
+            }
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Kubernetes-NamespaceFetcher-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 每个 listener 同时最多一个回调任务，队列长度只需覆盖 listener 数
+     */
+    private static ExecutorService createNotifyExecutor(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(NOTIFY_QUEUE_CAPACITY),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("Kubernetes-DiscoveryNotifier-%d")
+                        .setDaemon(true)
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.github.open.discovery.kubernetes;
+
+/**
+ * 服务发现快照变化回调，防抖合并后在通知线程上异步执行，同一个 listener 串行回调
+ * <p>
+ * 多次变化可能合并为一次回调，diff 为与该 listener 上次收到的快照之间的差异
+ *
+ * @since 1.0 2026/10/18
+ */
+@FunctionalInterface
+public interface DiscoveryListener {
+
+    /**
+     * @param snapshot 最新快照
+     * @param diff     与上一个快照的差异
+     */
+    void onChange(DiscoverySnapshot snapshot, SnapshotDiff diff);
+
+}
@@ -0,0 +1,92 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.Getter;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务发现快照
+ * <p>
+ * 不可变对象，整体通过一个 volatile 引用发布，读取方无需加锁；实例列表在构建时就已是不可修改的 List，读取时不再复制
+ *
+ * @since 1.0 2026/10/18
+ */
+@Getter
+public final class DiscoverySnapshot {
+
+    public static final DiscoverySnapshot EMPTY = new DiscoverySnapshot(0,
+            Collections.emptyMap(), Collections.emptyList(), Collections.emptyMap());
+
+    private final long version;
+    private final long timestamp;
+    /**
+     * key - serviceId
+     */
+    private final Map<String, KubernetesService> services;
+    private final List<String> serviceIds;
+    /**
+     * key - serviceId
+     */
+    private final Map<String, List<ServiceInstance>> instances;
+
+    private DiscoverySnapshot(long version,
+                              Map<String, KubernetesService> services,
+                              List<String> serviceIds,
+                              Map<String, List<ServiceInstance>> instances) {
+        this.version = version;
+        this.timestamp = System.currentTimeMillis();
+        this.services = services;
+        this.serviceIds = serviceIds;
+        this.instances = instances;
+    }
+
+    public KubernetesService getService(String serviceId) {
+        return services.get(serviceId);
+    }
+
+    /**
+     * @return 不可修改的实例列表，服务不存在或实例列表已被淘汰时返回 null
+     */
+    public List<ServiceInstance> getInstances(String serviceId) {
+        return instances.get(serviceId);
+    }
+
+    /**
+     * 用新的服务列表和实例列表生成下一个版本，传入的 Map 之后不能再被修改
+     */
+    public DiscoverySnapshot next(Map<String, KubernetesService> services,
+                                  Map<String, List<ServiceInstance>> instances) {
+        return new DiscoverySnapshot(version + 1,
+                Collections.unmodifiableMap(services),
+                Collections.unmodifiableList(new ArrayList<>(services.keySet())),
+                Collections.unmodifiableMap(instances));
+    }
+
+    /**
+     * 替换部分服务的实例列表，服务列表沿用当前版本，不在当前服务列表中的 serviceId 会被忽略
+     */
+    public DiscoverySnapshot withInstances(Map<String, List<ServiceInstance>> changed) {
+        return withInstances(changed, Collections.emptyList());
+    }
+
+    /**
+     * 替换部分服务的实例列表，并淘汰部分服务的实例列表；被淘汰的服务仍在服务列表中，{@link #getInstances(String)} 返回 null
+     */
+    public DiscoverySnapshot withInstances(Map<String, List<ServiceInstance>> changed, Collection<String> evicted) {
+        Map<String, List<ServiceInstance>> copy = new HashMap<>(instances);
+        changed.forEach((serviceId, serviceInstances) -> {
+            if (services.containsKey(serviceId)) {
+                copy.put(serviceId, serviceInstances);
+            }
+        });
+        evicted.forEach(copy::remove);
+        return new DiscoverySnapshot(version + 1, services, serviceIds, Collections.unmodifiableMap(copy));
+    }
+
+}
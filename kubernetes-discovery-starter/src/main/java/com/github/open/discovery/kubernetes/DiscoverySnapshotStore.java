@@ -0,0 +1,286 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 把服务发现快照保存到本地文件，启动时先从文件恢复，不依赖 api-server
+ * <p>
+ * 二进制格式：文件头（magic、格式版本、快照时间），metadata 表与端口表（同一个 Metadata、端口列表只写一次），
+ * 然后是每个服务及其实例。写入先写临时文件再原子替换，进程中途退出也不会留下损坏的文件。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class DiscoverySnapshotStore {
+
+    private static final int MAGIC = 0x4B445331;
+    private static final int FORMAT_VERSION = 3;
+
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+    private final long writeIntervalMillis;
+
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    private volatile DiscoverySnapshot latest;
+
+    public DiscoverySnapshotStore(Path file, ScheduledExecutorService scheduler, long writeIntervalMillis) {
+        this.file = file;
+        this.scheduler = scheduler;
+        this.writeIntervalMillis = writeIntervalMillis;
+    }
+
+    /**
+     * @return 文件不存在或无法解析时返回 null
+     */
+    public DiscoverySnapshot load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("unrecognized discovery snapshot file, ignored: {}", file);
+                return null;
+            }
+            long timestamp = in.readLong();
+
+            int metadataCount = in.readInt();
+            List<KubernetesServiceInstance.Metadata> metadataTable = new ArrayList<>(metadataCount);
+            for (int i = 0; i < metadataCount; i++) {
+                metadataTable.add(KubernetesServiceInstance.Metadata.of(readMap(in), readMap(in)));
+            }
+
+            int portsCount = in.readInt();
+            List<List<KubernetesServiceInstance.NamedPort>> portsTable = new ArrayList<>(portsCount);
+            for (int i = 0; i < portsCount; i++) {
+                int size = in.readInt();
+                List<KubernetesServiceInstance.NamedPort> ports = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) {
+                    String name = readString(in);
+                    int port = in.readInt();
+                    ports.add(KubernetesServiceInstance.NamedPort.of(name, port, readString(in)));
+                }
+                portsTable.add(Collections.unmodifiableList(ports));
+            }
+
+            int serviceCount = in.readInt();
+            Map<String, KubernetesService> services = new LinkedHashMap<>(serviceCount * 2);
+            Map<String, List<ServiceInstance>> instances = new HashMap<>(serviceCount * 2);
+            for (int i = 0; i < serviceCount; i++) {
+                KubernetesService service = new KubernetesService(readString(in), readString(in), readString(in),
+                        readString(in));
+                services.put(service.getId(), service);
+                int instanceCount = in.readInt();
+                if (instanceCount < 0) {
+                    // 保存时已被淘汰
+                    continue;
+                }
+                List<ServiceInstance> serviceInstances = new ArrayList<>(instanceCount);
+                for (int j = 0; j < instanceCount; j++) {
+                    String host = readString(in);
+                    List<KubernetesServiceInstance.NamedPort> ports = portsTable.get(in.readInt());
+                    KubernetesServiceInstance.NamedPort primaryPort = ports.get(in.readInt());
+                    boolean ready = in.readBoolean();
+                    String nodeName = readString(in);
+                    String zone = readString(in);
+                    KubernetesServiceInstance.Metadata metadata = metadataTable.get(in.readInt());
+                    serviceInstances.add(new KubernetesServiceInstance(service.getId(), host, primaryPort, ports,
+                            service.getNamespace(), metadata, ready, nodeName, zone));
+                }
+                instances.put(service.getId(), Collections.unmodifiableList(serviceInstances));
+            }
+
+            log.info("discovery snapshot loaded from {}, services: {}, age: {}s", file, services.size(),
+                    TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - timestamp));
+            return DiscoverySnapshot.EMPTY.next(services, instances);
+        } catch (Exception e) {
+            log.warn("load discovery snapshot failed, ignored: {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 异步保存，writeIntervalMillis 内的多次调用只写最后一个版本
+     */
+    public void save(DiscoverySnapshot snapshot) {
+        this.latest = snapshot;
+        if (savePending.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                savePending.set(false);
+                try {
+                    write(latest);
+                } catch (Exception e) {
+                    log.warn("save discovery snapshot failed: {}", file, e);
+                }
+            }, writeIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 立即写入还未保存的快照，停止服务发现时调用
+     */
+    public void flush() {
+        if (savePending.compareAndSet(true, false)) {
+            try {
+                write(latest);
+            } catch (Exception e) {
+                log.warn("save discovery snapshot failed: {}", file, e);
+            }
+        }
+    }
+
+    void write(DiscoverySnapshot snapshot) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (null != parent) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(temp)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+                writeSnapshot(out, snapshot);
+                out.flush();
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("discovery snapshot saved to {}, version: {}", file, snapshot.getVersion());
+    }
+
+    private static void writeSnapshot(DataOutputStream out, DiscoverySnapshot snapshot) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshot.getTimestamp());
+
+        // 同一服务的实例共享 Metadata，按引用去重
+        Map<KubernetesServiceInstance.Metadata, Integer> metadataIndex = new IdentityHashMap<>();
+        // 同一 subset 的实例共享端口列表，按引用去重
+        Map<List<KubernetesServiceInstance.NamedPort>, Integer> portsIndex = new IdentityHashMap<>();
+        for (List<ServiceInstance> serviceInstances : snapshot.getInstances().values()) {
+            for (ServiceInstance instance : serviceInstances) {
+                if (instance instanceof KubernetesServiceInstance) {
+                    KubernetesServiceInstance kubernetesInstance = (KubernetesServiceInstance) instance;
+                    metadataIndex.putIfAbsent(kubernetesInstance.getSharedMetadata(), metadataIndex.size());
+                    portsIndex.putIfAbsent(kubernetesInstance.getPorts(), portsIndex.size());
+                }
+            }
+        }
+        KubernetesServiceInstance.Metadata[] metadataTable = new KubernetesServiceInstance.Metadata[metadataIndex.size()];
+        metadataIndex.forEach((metadata, index) -> metadataTable[index] = metadata);
+        out.writeInt(metadataTable.length);
+        for (KubernetesServiceInstance.Metadata metadata : metadataTable) {
+            writeMap(out, metadata.getLabels());
+            writeMap(out, metadata.getAnnotations());
+        }
+
+        List<List<KubernetesServiceInstance.NamedPort>> portsTable =
+                new ArrayList<>(Collections.nCopies(portsIndex.size(), null));
+        portsIndex.forEach((ports, index) -> portsTable.set(index, ports));
+        out.writeInt(portsTable.size());
+        for (List<KubernetesServiceInstance.NamedPort> ports : portsTable) {
+            out.writeInt(ports.size());
+            for (KubernetesServiceInstance.NamedPort namedPort : ports) {
+                writeString(out, namedPort.getName());
+                out.writeInt(namedPort.getPort());
+                writeString(out, namedPort.getAppProtocol());
+            }
+        }
+
+        out.writeInt(snapshot.getServices().size());
+        for (KubernetesService service : snapshot.getServices().values()) {
+            writeString(out, service.getId());
+            writeString(out, service.getName());
+            writeString(out, service.getNamespace());
+            writeString(out, service.getCluster());
+            List<ServiceInstance> serviceInstances = snapshot.getInstances(service.getId());
+            if (null == serviceInstances) {
+                out.writeInt(-1);
+                continue;
+            }
+            List<KubernetesServiceInstance> kubernetesInstances = new ArrayList<>(serviceInstances.size());
+            for (ServiceInstance instance : serviceInstances) {
+                if (instance instanceof KubernetesServiceInstance) {
+                    kubernetesInstances.add((KubernetesServiceInstance) instance);
+                }
+            }
+            out.writeInt(kubernetesInstances.size());
+            for (KubernetesServiceInstance instance : kubernetesInstances) {
+                writeString(out, instance.getHost());
+                out.writeInt(portsIndex.get(instance.getPorts()));
+                out.writeInt(Math.max(0, instance.getPorts().indexOf(instance.getPrimaryPort())));
+                out.writeBoolean(instance.isReady());
+                writeString(out, instance.getNodeName());
+                writeString(out, instance.getZone());
+                out.writeInt(metadataIndex.get(instance.getSharedMetadata()));
+            }
+        }
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    private static Map<String, String> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, String> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    /**
+     * writeUTF 限制 64KB，annotations 可能超过，这里用 int 长度 + UTF-8，-1 表示 null
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (null == value) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
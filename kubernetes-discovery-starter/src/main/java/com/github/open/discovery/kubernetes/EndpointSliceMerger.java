@@ -0,0 +1,199 @@
+package com.github.open.discovery.kubernetes;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.discovery.v1.Endpoint;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointPort;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 把一个服务的多个 EndpointSlice 合并为实例列表。
+ * <p>
+ * 按分片缓存转换结果，分片 resourceVersion 未变化时直接复用，只有变化的分片需要重新转换。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class EndpointSliceMerger {
+
+    /**
+     * EndpointSlice 上标识所属 Service 的标签
+     */
+    public static final String SERVICE_NAME_LABEL = "kubernetes.io/service-name";
+
+    private final String primaryPortName;
+    private final boolean includeNotReady;
+    private final boolean compact;
+
+    /**
+     * key - namespace/Service 名，value - key 为分片名
+     */
+    private final Map<String, Map<String, Converted>> cache = new ConcurrentHashMap<>();
+
+    public EndpointSliceMerger(String primaryPortName, boolean includeNotReady) {
+        this(primaryPortName, includeNotReady, false);
+    }
+
+    /**
+     * @param compact 缓存与合并结果使用 {@link CompactInstanceList}
+     */
+    public EndpointSliceMerger(String primaryPortName, boolean includeNotReady, boolean compact) {
+        this.primaryPortName = primaryPortName;
+        this.includeNotReady = includeNotReady;
+        this.compact = compact;
+    }
+
+    /**
+     * @return 分片所属的 Service 名，没有标签时返回 null
+     */
+    public static String serviceNameOf(EndpointSlice slice) {
+        ObjectMeta metadata = slice.getMetadata();
+        if (null == metadata || null == metadata.getLabels()) {
+            return null;
+        }
+        return metadata.getLabels().get(SERVICE_NAME_LABEL);
+    }
+
+    /**
+     * 按所属 Service 分组
+     *
+     * @return key - Service 名
+     */
+    public static Map<String, List<EndpointSlice>> groupByService(Collection<EndpointSlice> slices) {
+        Map<String, List<EndpointSlice>> result = new HashMap<>();
+        for (EndpointSlice slice : slices) {
+            String serviceName = serviceNameOf(slice);
+            if (null != serviceName) {
+                result.computeIfAbsent(serviceName, k -> new ArrayList<>()).add(slice);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 合并一个服务的全部分片，同一地址出现在多个分片时（pod 在分片间迁移）只保留一个
+     *
+     * @param slices 服务当前的全部分片，null 或空表示没有实例
+     */
+    public List<ServiceInstance> merge(KubernetesService kubernetesService, Collection<EndpointSlice> slices) {
+        String key = kubernetesService.getNamespaceKey() + "/" + kubernetesService.getName();
+        if (null == slices || slices.isEmpty()) {
+            cache.remove(key);
+            return Collections.emptyList();
+        }
+
+        Map<String, Converted> previous = cache.getOrDefault(key, Collections.emptyMap());
+        Map<String, Converted> current = new HashMap<>(slices.size() * 2);
+        Map<String, ServiceInstance> instances = new LinkedHashMap<>();
+        for (EndpointSlice slice : slices) {
+            String sliceName = slice.getMetadata().getName();
+            String resourceVersion = slice.getMetadata().getResourceVersion();
+            Converted converted = previous.get(sliceName);
+            if (null == converted
+                    || !Objects.equals(converted.resourceVersion, resourceVersion)
+                    || !converted.serviceId.equals(kubernetesService.getId())) {
+                converted = new Converted(kubernetesService.getId(), resourceVersion,
+                        convert(kubernetesService, slice));
+            }
+            current.put(sliceName, converted);
+            for (ServiceInstance instance : converted.instances) {
+                instances.putIfAbsent(instance.getInstanceId(), instance);
+            }
+        }
+        cache.put(key, current);
+        List<ServiceInstance> result = new ArrayList<>(instances.values());
+        return compact ? CompactInstanceList.compact(result) : result;
+    }
+
+    /**
+     * 清理已不存在的服务的缓存
+     *
+     * @param services 当前全部服务
+     */
+    public void retain(Collection<KubernetesService> services) {
+        Set<String> keys = services.stream()
+                .map(s -> s.getNamespaceKey() + "/" + s.getName())
+                .collect(Collectors.toSet());
+        cache.keySet().retainAll(keys);
+    }
+
+    private List<ServiceInstance> convert(KubernetesService kubernetesService, EndpointSlice slice) {
+        if (!"IPv4".equals(slice.getAddressType()) && !"IPv6".equals(slice.getAddressType())) {
+            // FQDN 类型的分片不是 pod 地址
+            return Collections.emptyList();
+        }
+        List<KubernetesServiceInstance.NamedPort> ports = toNamedPorts(slice.getPorts());
+        KubernetesServiceInstance.NamedPort primaryPort =
+                KubernetesServiceInstance.NamedPort.primaryOf(ports, primaryPortName);
+        if (null == primaryPort) {
+            log.warn("no port in EndpointSlice '{}', serviceId: '{}'",
+                    slice.getMetadata().getName(), kubernetesService.getId());
+            return Collections.emptyList();
+        }
+        List<Endpoint> endpoints = slice.getEndpoints();
+        if (null == endpoints || endpoints.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        KubernetesServiceInstance.Metadata metadata = KubernetesServiceInstance.Metadata.of(
+                slice.getMetadata().getLabels(), slice.getMetadata().getAnnotations());
+        List<ServiceInstance> instances = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            // ready 为空时按就绪处理
+            boolean ready = null == endpoint.getConditions()
+                    || !Boolean.FALSE.equals(endpoint.getConditions().getReady());
+            if (!ready && !includeNotReady) {
+                continue;
+            }
+            if (null == endpoint.getAddresses() || endpoint.getAddresses().isEmpty()) {
+                continue;
+            }
+            // 同一个 endpoint 的多个地址指向同一个 pod，取第一个
+            instances.add(new KubernetesServiceInstance(kubernetesService.getId(), endpoint.getAddresses().get(0),
+                    primaryPort, ports, kubernetesService.getNamespace(), metadata,
+                    ready, endpoint.getNodeName(), endpoint.getZone()));
+        }
+        return compact ? CompactInstanceList.compact(instances) : Collections.unmodifiableList(instances);
+    }
+
+    private static List<KubernetesServiceInstance.NamedPort> toNamedPorts(List<EndpointPort> endpointPorts) {
+        if (null == endpointPorts || endpointPorts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<KubernetesServiceInstance.NamedPort> ports = new ArrayList<>(endpointPorts.size());
+        for (EndpointPort endpointPort : endpointPorts) {
+            if (null != endpointPort.getPort()) {
+                ports.add(KubernetesServiceInstance.NamedPort.of(endpointPort.getName(), endpointPort.getPort(),
+                        endpointPort.getAppProtocol()));
+            }
+        }
+        return Collections.unmodifiableList(ports);
+    }
+
+    private static final class Converted {
+
+        private final String serviceId;
+        private final String resourceVersion;
+        private final List<ServiceInstance> instances;
+
+        private Converted(String serviceId, String resourceVersion, List<ServiceInstance> instances) {
+            this.serviceId = serviceId;
+            this.resourceVersion = resourceVersion;
+            this.instances = instances;
+        }
+    }
+
+}
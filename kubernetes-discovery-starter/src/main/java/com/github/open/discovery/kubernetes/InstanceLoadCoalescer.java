@@ -0,0 +1,96 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 合并一个时间窗口内的实例加载请求
+ * <p>
+ * 窗口内提交的服务攒成一批，在 scheduler 线程上一次加载（按 namespace 分组拉取），同一批的调用方一起完成；
+ * 同一个服务在一批中只加载一次。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class InstanceLoadCoalescer {
+
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final Consumer<Set<String>> batchLoader;
+
+    private final Object lock = new Object();
+    /**
+     * 等待加载的服务，key - serviceId
+     */
+    private Map<String, CompletableFuture<Void>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param batchLoader 加载一批服务的实例，在 scheduler 线程上调用
+     */
+    public InstanceLoadCoalescer(ScheduledExecutorService scheduler, long windowMillis,
+                                 Consumer<Set<String>> batchLoader) {
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.batchLoader = batchLoader;
+    }
+
+    /**
+     * @return 所在批次加载完成时完成；scheduler 已关闭时以失败结束，调用方按未加载处理
+     */
+    public CompletableFuture<Void> submit(String serviceId) {
+        CompletableFuture<Void> future;
+        boolean first;
+        synchronized (lock) {
+            future = pending.get(serviceId);
+            if (null != future) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            first = pending.isEmpty();
+            pending.put(serviceId, future);
+        }
+        if (first) {
+            // 每个窗口只调度一次
+            try {
+                scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 本批次不会再执行，不能留在 pending 中，否则之后的调用都拿到永远不完成的 future
+                log.debug("discovery scheduler shut down, skip loading instances of '{}'", serviceId);
+                takeBatch().values().forEach(batchFuture -> batchFuture.completeExceptionally(e));
+            }
+        }
+        return future;
+    }
+
+    private Map<String, CompletableFuture<Void>> takeBatch() {
+        synchronized (lock) {
+            Map<String, CompletableFuture<Void>> batch = pending;
+            pending = new LinkedHashMap<>();
+            return batch;
+        }
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<Void>> batch = takeBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+        log.debug("load instances of {} services in one batch", batch.size());
+        try {
+            batchLoader.accept(batch.keySet());
+            batch.values().forEach(future -> future.complete(null));
+        } catch (Exception e) {
+            log.warn("load instances failed, serviceIds: {}", batch.keySet(), e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+}
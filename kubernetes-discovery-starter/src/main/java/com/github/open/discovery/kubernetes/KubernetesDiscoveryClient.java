@@ -1,30 +1,42 @@
 package com.github.open.discovery.kubernetes;
 
 import com.github.open.discovery.kubernetes.client.ClientManager;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.open.discovery.kubernetes.metrics.DiscoveryMetrics;
+import com.github.open.discovery.kubernetes.watch.InformerEventListener;
+import com.github.open.discovery.kubernetes.watch.NamespaceInformer;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.fabric8.kubernetes.api.model.EndpointAddress;
 import io.fabric8.kubernetes.api.model.EndpointPort;
 import io.fabric8.kubernetes.api.model.EndpointSubset;
 import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.jetbrains.annotations.NotNull;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
 
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -32,54 +44,342 @@ import java.util.stream.Collectors;
  * @author <a href="https://github.com/studeyang">studeyang</a>
  */
 @Slf4j
-public class KubernetesDiscoveryClient implements DiscoveryClient {
+public class KubernetesDiscoveryClient implements DiscoveryClient, InformerEventListener, SmartLifecycle {
+
+    /**
+     * SmartLifecycle 的 phase，web 服务器为 Integer.MAX_VALUE - 1
+     */
+    public static final int PHASE = Integer.MIN_VALUE + 1000;
 
     private final ClientManager clientManager;
     private final KubernetesDiscoveryProperties properties;
-    private final Set<String> excludeServices;
     /**
-     * 服务名列表
+     * 服务名列表及服务实例列表，只在 scheduler 线程上替换，读取无锁
      */
-    private Map<String, KubernetesService> serviceMap;
+    private volatile DiscoverySnapshot snapshot = DiscoverySnapshot.EMPTY;
+
+    private ApplicationContext applicationContext;
+
+    private final ScheduledExecutorService scheduler;
+    private final DiscoveryExecutors executors;
+    private final boolean ownsExecutors;
+    private final AtomicBoolean running = new AtomicBoolean();
     /**
-     * 服务实例列表
+     * stop() 后读取不再自动启动
      */
-    private LoadingCache<String, List<ServiceInstance>> instanceCache;
+    private volatile boolean stopped;
+    /**
+     * 首次拉取结束（无论成功与否）或从本地快照恢复后完成
+     */
+    private final CompletableFuture<Void> initialSync = new CompletableFuture<>();
+    /**
+     * 阻塞读取等待首次拉取的截止时间
+     */
+    private volatile long initialSyncDeadline;
+    /**
+     * 已排期的定时刷新，key - 任务名
+     */
+    private final Map<String, ScheduledFuture<?>> scheduledTasks = Maps.newConcurrentMap();
+    /**
+     * key - namespace，WATCH 模式下才有值
+     */
+    private final Map<String, NamespaceInformer> informers = Maps.newLinkedHashMap();
+    private final AtomicBoolean serviceMapRefreshPending = new AtomicBoolean();
 
-    private ApplicationContext applicationContext;
+    private final NamespaceFetcher namespaceFetcher;
+    /**
+     * 每个 namespace 上一次成功拉取的服务，拉取失败或超时时沿用；key - namespace
+     */
+    private final Map<String, List<KubernetesService>> lastKnownServices = Maps.newConcurrentMap();
+    /**
+     * 每个服务实例列表最近一次加载成功的时间；key - serviceId
+     */
+    private final Map<String, Long> instanceRefreshTimes = Maps.newConcurrentMap();
+    /**
+     * 每个服务最近一次被访问的时间，开启 expireAfterAccessSeconds 时才记录；key - serviceId
+     */
+    private final Map<String, AtomicLong> accessTimes = Maps.newConcurrentMap();
+    /**
+     * 合并后台刷新及被淘汰服务的加载
+     */
+    private final InstanceLoadCoalescer loadCoalescer;
+    /**
+     * 开启 adaptiveRefresh 时才有值
+     */
+    private final RefreshPlanner refreshPlanner;
+    /**
+     * scheduler 的线程，在该线程上访问被淘汰的服务时不等待加载
+     */
+    private volatile Thread schedulerThread;
+    private final long expireAfterAccessMillis;
+    private final long maxStalenessMillis;
+    private final long coldMissMaxWaitMillis;
+    private final ChangeNotifier changeNotifier;
+    private final DiscoveryMetrics metrics;
+    /**
+     * 实例来源为 EndpointSlice 时才有值
+     */
+    private final EndpointSliceMerger endpointSliceMerger;
+    private final NamespaceCircuitBreaker circuitBreaker;
+    /**
+     * 开启 resolveNodeZones 且实例来源为 Endpoints 时才有值
+     */
+    private final NodeZoneResolver nodeZoneResolver;
+    /**
+     * 配置了 localZone 时才有值
+     */
+    private final ZonePreference zonePreference;
+    private final NamedPortViews namedPortViews = new NamedPortViews();
+    private final ServiceIndex serviceIndex;
+    /**
+     * 当前快照的服务列表是否来自 serviceIndex（从本地快照恢复时不是），只在 scheduler 线程上读写
+     */
+    private boolean servicesIndexed;
+    /**
+     * 配置了 snapshotFile 时才有值
+     */
+    private final DiscoverySnapshotStore snapshotStore;
 
+    /**
+     * 不由 Spring 容器管理时无需调用 {@link #start()}，首次读取时自动启动（autoStartup 为 false 时除外）
+     */
     public KubernetesDiscoveryClient(ClientManager clientManager,
                                      KubernetesDiscoveryProperties properties,
                                      Set<String> excludeServices,
                                      ApplicationContext applicationContext) {
+        this(clientManager, properties, excludeServices, applicationContext, DiscoveryMetrics.NOOP);
+    }
+
+    public KubernetesDiscoveryClient(ClientManager clientManager,
+                                     KubernetesDiscoveryProperties properties,
+                                     Set<String> excludeServices,
+                                     ApplicationContext applicationContext,
+                                     DiscoveryMetrics metrics) {
+        this(clientManager, properties, excludeServices, applicationContext, metrics,
+                DiscoveryExecutors.create(properties), true);
+    }
+
+    /**
+     * 只初始化，不访问 api-server；{@link #start()} 或首次读取后才开始服务发现
+     *
+     * @param executors     执行刷新与拉取的线程池
+     * @param ownsExecutors 为 true 时 {@link #stop()} 一并关闭线程池，否则由调用方关闭
+     */
+    public KubernetesDiscoveryClient(ClientManager clientManager,
+                                     KubernetesDiscoveryProperties properties,
+                                     Set<String> excludeServices,
+                                     ApplicationContext applicationContext,
+                                     DiscoveryMetrics metrics,
+                                     DiscoveryExecutors executors,
+                                     boolean ownsExecutors) {
         this.clientManager = clientManager;
         this.properties = properties;
-        this.excludeServices = excludeServices;
+        this.serviceIndex = new ServiceIndex(excludeServices);
         this.applicationContext = applicationContext;
+        this.metrics = metrics;
+        this.expireAfterAccessMillis = TimeUnit.SECONDS.toMillis(properties.getExpireAfterAccessSeconds());
+        this.maxStalenessMillis = TimeUnit.SECONDS.toMillis(properties.getMaxStalenessSeconds());
+        this.coldMissMaxWaitMillis = properties.getColdMissMaxWaitMillis();
+        this.refreshPlanner = properties.isAdaptiveRefresh() ? createRefreshPlanner(properties) : null;
+        this.endpointSliceMerger = properties.getEndpointsSource() == KubernetesDiscoveryProperties.EndpointsSource.ENDPOINT_SLICES
+                ? new EndpointSliceMerger(properties.getPrimaryPortName(), properties.isIncludeNotReadyAddresses(),
+                properties.isCompactInstances())
+                : null;
+        this.nodeZoneResolver = null == endpointSliceMerger && properties.isResolveNodeZones()
+                ? new NodeZoneResolver(executors.getFetchExecutor(),
+                TimeUnit.SECONDS.toMillis(properties.getFetchInstanceIntervalSeconds()),
+                TimeUnit.SECONDS.toMillis(properties.getFetchNamespaceTimeoutSeconds()))
+                : null;
+        this.zonePreference = StringUtils.isNotBlank(properties.getLocalZone())
+                ? new ZonePreference(properties.getLocalZone(), properties.getZoneInstanceThreshold())
+                : null;
 
-        serviceMap = getServiceMap();
+        this.executors = executors;
+        this.ownsExecutors = ownsExecutors;
+        this.scheduler = executors.getScheduler();
+        this.loadCoalescer = new InstanceLoadCoalescer(scheduler, properties.getColdMissWindowMillis(),
+                this::loadServices);
 
-        ScheduledExecutorService fetchServiceScheduler = new ScheduledThreadPoolExecutor(1,
-                new ThreadFactoryBuilder()
-                        .setNameFormat("Kubernetes-ServiceRefreshExecutor-%d")
-                        .setDaemon(true)
-                        .build());
-        fetchServiceScheduler.scheduleAtFixedRate(
-                () -> serviceMap = getServiceMap(),
-                properties.getFetchServiceIntervalSeconds(),
-                properties.getFetchServiceIntervalSeconds(),
-                TimeUnit.SECONDS);
+        this.circuitBreaker = new NamespaceCircuitBreaker(properties.getCircuitBreakerFailureThreshold(),
+                TimeUnit.SECONDS.toMillis(properties.getCircuitBreakerInitialBackoffSeconds()),
+                TimeUnit.SECONDS.toMillis(properties.getCircuitBreakerMaxBackoffSeconds()));
+        this.namespaceFetcher = new NamespaceFetcher(executors.getFetchExecutor(), properties.getFetchParallelism(),
+                TimeUnit.SECONDS.toMillis(properties.getFetchNamespaceTimeoutSeconds()),
+                metrics,
+                circuitBreaker,
+                new RetryBudget(properties.getRetryBudgetRatio(), Math.max(1, properties.getFetchParallelism())),
+                properties.getRetryBackoffMillis());
 
-        this.instanceCache = CacheBuilder.newBuilder()
-                // 缓存失效时间
-                .refreshAfterWrite(properties.getFetchInstanceIntervalSeconds(), TimeUnit.SECONDS)
-                .build(new CacheLoader<String, List<ServiceInstance>>() {
-                    @Override
-                    public List<ServiceInstance> load(@NotNull String serviceId) {
-                        return getInstances(serviceMap.get(serviceId));
-                    }
-                });
+        this.changeNotifier = new ChangeNotifier(scheduler, executors.getNotifyExecutor(),
+                properties.getNotifyDebounceMillis(), properties.getNotifyMaxDelayMillis(),
+                properties.getSlowListenerThresholdMillis());
+        // Spring 事件监听器同样异步、合并后执行，不阻塞刷新线程
+        changeNotifier.addListener((next, diff) -> applicationContext.publishEvent(
+                new ServicesUpdateEvent(new HashSet<>(next.getServiceIds()), diff)));
 
+        this.snapshotStore = StringUtils.isNotBlank(properties.getSnapshotFile())
+                ? new DiscoverySnapshotStore(Paths.get(properties.getSnapshotFile()), scheduler,
+                TimeUnit.SECONDS.toMillis(properties.getSnapshotWriteIntervalSeconds()))
+                : null;
+    }
+
+    /**
+     * 开始服务发现：先从本地快照恢复（如有），然后在 scheduler 线程上首次拉取，不等待拉取完成；
+     * 首次拉取完成前的 {@link #getServices()}、{@link #getInstances(String)} 最多等到启动后 initialSyncTimeoutSeconds
+     */
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        initialSyncDeadline = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(properties.getInitialSyncTimeoutSeconds());
+        scheduler.execute(() -> schedulerThread = Thread.currentThread());
+
+        DiscoverySnapshot restored = null != snapshotStore ? snapshotStore.load() : null;
+        if (null != restored) {
+            // 先用本地快照提供服务，后台再与 api-server 对账；拉取失败的 namespace 沿用快照中的服务
+            restored.getServices().values().forEach(kubernetesService -> lastKnownServices
+                    .computeIfAbsent(kubernetesService.getNamespaceKey(), k -> Lists.newArrayList())
+                    .add(kubernetesService));
+            publish(restored);
+            initialSync.complete(null);
+            scheduler.execute(() -> {
+                try {
+                    bootstrap();
+                    refreshInstances(true);
+                } catch (Exception e) {
+                    log.warn("reconcile with api-server failed, keep serving the local snapshot", e);
+                }
+            });
+        } else {
+            scheduler.execute(() -> {
+                try {
+                    bootstrap();
+                } catch (Exception e) {
+                    log.warn("initial discovery failed, retry in background", e);
+                } finally {
+                    initialSync.complete(null);
+                }
+            });
+        }
+
+        // WATCH 模式下 informer 所在 namespace 只读内存，定时任务作为兜底；启动失败的 namespace 退回轮询
+        scheduleWithJitter("services", this::refreshServices, properties.getFetchServiceIntervalSeconds());
+        scheduleWithJitter("instances", () -> refreshInstances(false), null != refreshPlanner
+                ? refreshTickSeconds(properties)
+                : properties.getFetchInstanceIntervalSeconds());
+    }
+
+    /**
+     * 停止定时刷新与 watch，等待正在执行的刷新结束（最多 shutdownTimeoutSeconds），保存未写入的快照
+     */
+    @Override
+    public void stop() {
+        stopped = true;
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        scheduledTasks.values().forEach(task -> task.cancel(false));
+        scheduledTasks.clear();
+
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(properties.getShutdownTimeoutSeconds());
+        try {
+            scheduler.submit(() -> {
+                informers.values().forEach(NamespaceInformer::stop);
+                informers.clear();
+                if (null != snapshotStore) {
+                    snapshotStore.flush();
+                }
+            }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("discovery refresh not finished in {}ms, stop anyway", timeoutMillis);
+        } catch (ExecutionException e) {
+            log.warn("stop discovery failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RejectedExecutionException e) {
+            log.debug("discovery scheduler already shut down");
+        }
+
+        if (ownsExecutors) {
+            executors.close();
+        }
+        log.info("kubernetes discovery stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isAutoStartup();
+    }
+
+    /**
+     * 在 web 服务器及其他 Lifecycle bean 之前启动，在它们之后停止；需要更早启动的 bean 可使用更小的 phase
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * 未启动时随首次读取启动；阻塞读取在首次拉取完成前等待，最多等到启动后 initialSyncTimeoutSeconds
+     */
+    private void awaitStarted(boolean waitForSync) {
+        if (!running.get() && !stopped && properties.isAutoStartup()) {
+            start();
+        }
+        if (!waitForSync || initialSync.isDone() || Thread.currentThread() == schedulerThread) {
+            return;
+        }
+        long remaining = initialSyncDeadline - System.currentTimeMillis();
+        if (remaining <= 0 || !running.get()) {
+            return;
+        }
+        try {
+            initialSync.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("initial discovery not finished in {}s, continue in background",
+                    properties.getInitialSyncTimeoutSeconds());
+        } catch (ExecutionException e) {
+            log.debug("initial discovery failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RefreshPlanner createRefreshPlanner(KubernetesDiscoveryProperties properties) {
+        Map<String, Long> overrides = Maps.newHashMap();
+        properties.getServiceRefreshIntervals()
+                .forEach((serviceId, seconds) -> overrides.put(serviceId, TimeUnit.SECONDS.toMillis(seconds)));
+        return new RefreshPlanner(TimeUnit.SECONDS.toMillis(properties.getFetchInstanceIntervalSeconds()),
+                TimeUnit.SECONDS.toMillis(properties.getMinInstanceIntervalSeconds()),
+                TimeUnit.SECONDS.toMillis(properties.getMaxInstanceIntervalSeconds()),
+                properties.getRefreshJitterRatio(),
+                properties.getHotServiceRequestsPerMinute(),
+                overrides);
+    }
+
+    /**
+     * 自适应刷新时按最短的间隔检查哪些服务到期
+     */
+    private static long refreshTickSeconds(KubernetesDiscoveryProperties properties) {
+        int tick = Math.min(properties.getMinInstanceIntervalSeconds(), properties.getFetchInstanceIntervalSeconds());
+        for (Integer seconds : properties.getServiceRefreshIntervals().values()) {
+            tick = Math.min(tick, seconds);
+        }
+        return Math.max(1, tick);
+    }
+
+    private void bootstrap() {
+        if (properties.getMode() == KubernetesDiscoveryProperties.Mode.WATCH) {
+            startInformers();
+        }
+        refreshServices();
     }
 
     @Override
@@ -89,100 +389,585 @@ public class KubernetesDiscoveryClient implements DiscoveryClient {
 
     @Override
     public List<String> getServices() {
-        return Lists.newArrayList(serviceMap.keySet());
+        awaitStarted(true);
+        return snapshot.getServiceIds();
     }
 
     @Override
     public List<ServiceInstance> getInstances(String serviceId) {
+        return getInstances(serviceId, true);
+    }
+
+    /**
+     * 只读当前快照，不等待加载：被淘汰的服务返回空列表并在后台重新加载，供事件循环等不能阻塞的线程调用
+     */
+    public List<ServiceInstance> getCachedInstances(String serviceId) {
+        return getInstances(serviceId, false);
+    }
+
+    private List<ServiceInstance> getInstances(String serviceId, boolean waitForLoad) {
         if (StringUtils.isBlank(serviceId)) {
             log.warn("no serviceId");
             return Collections.emptyList();
         }
+        awaitStarted(waitForLoad);
 
-        if (!serviceMap.containsKey(serviceId)) {
-            log.warn("no KubernetesService, serviceId: '{}'", serviceId);
+        DiscoverySnapshot current = this.snapshot;
+        List<ServiceInstance> instances = current.getInstances(serviceId);
+        if (null == instances) {
+            if (null != current.getService(serviceId)) {
+                // 长时间未访问被淘汰，重新加载
+                metrics.recordLookup(DiscoveryMetrics.Lookup.EVICTED);
+                touch(serviceId);
+                if (waitForLoad) {
+                    return awaitLoad(serviceId);
+                }
+                revalidate(serviceId);
+                return Collections.emptyList();
+            } else {
+                metrics.recordLookup(DiscoveryMetrics.Lookup.MISS);
+                log.warn("no KubernetesService, serviceId: '{}'", serviceId);
+            }
             return Collections.emptyList();
         }
 
+        metrics.recordLookup(DiscoveryMetrics.Lookup.HIT);
+
+        if (null != refreshPlanner) {
+            refreshPlanner.onAccess(serviceId);
+        }
+        if (expireAfterAccessMillis > 0) {
+            touch(serviceId);
+        }
+        if (maxStalenessMillis > 0 && isStale(serviceId)) {
+            // 先返回旧值，后台刷新
+            revalidate(serviceId);
+        }
+        return null != zonePreference ? zonePreference.apply(serviceId, instances) : instances;
+    }
+
+    /**
+     * 以指定名称的端口返回实例（{@link ServiceInstance#getPort()}、{@link ServiceInstance#getUri()} 均为该端口），
+     * 没有该端口的实例不返回
+     *
+     * @param portName Service 中的端口名，为空时等同于 {@link #getInstances(String)}
+     */
+    public List<ServiceInstance> getInstances(String serviceId, String portName) {
+        List<ServiceInstance> instances = getInstances(serviceId);
+        if (StringUtils.isBlank(portName) || instances.isEmpty()) {
+            return instances;
+        }
+        return namedPortViews.apply(serviceId, portName, instances);
+    }
+
+    public DiscoverySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return 当前快照中实例列表的内存占用估算
+     */
+    public MemoryFootprint getFootprint() {
+        return MemoryFootprint.of(snapshot);
+    }
+
+    /**
+     * @return 存在冲突的 serviceId 及生效、被忽略的 Service，key - serviceId
+     */
+    public Map<String, ServiceIndex.Conflict> getServiceConflicts() {
+        return serviceIndex.getConflicts();
+    }
+
+    /**
+     * @return 各 namespace 的熔断状态，key - namespace
+     */
+    public Map<String, NamespaceCircuitBreaker.Status> getNamespaceStatus() {
+        return circuitBreaker.getStatus();
+    }
+
+    /**
+     * 立即刷新一次服务及实例列表，刷新完成后返回
+     */
+    public void refresh() {
         try {
-            return instanceCache.get(serviceId);
+            scheduler.submit(() -> {
+                refreshServices();
+                refreshInstances(true);
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         } catch (ExecutionException e) {
-            log.warn("从缓存中获取", e);
+            throw new IllegalStateException("refresh failed", e.getCause());
+        }
+    }
+
+    /**
+     * 快照变化时在通知线程上异步回调，见 {@link ChangeNotifier}
+     */
+    public void addListener(DiscoveryListener listener) {
+        changeNotifier.addListener(listener);
+    }
+
+    public void removeListener(DiscoveryListener listener) {
+        changeNotifier.removeListener(listener);
+    }
+
+    /**
+     * 刷新服务名列表，新增或变更的服务同时加载实例，其余沿用当前实例列表
+     */
+    private void refreshServices() {
+        long start = System.nanoTime();
+        try {
+            // 按标签或全部发现 namespace 时，新增的 namespace 从这一轮开始拉取
+            clientManager.refresh();
+        } catch (Exception e) {
+            log.warn("refresh namespaces failed", e);
+        }
+        DiscoverySnapshot current = this.snapshot;
+        if (!updateServiceIndex() && servicesIndexed) {
+            // 服务没有变化，实例列表由 refreshInstances 维护
+            metrics.recordRefresh("services", System.nanoTime() - start);
+            return;
+        }
+        Map<String, KubernetesService> services = serviceIndex.getServices();
+
+        Map<String, List<ServiceInstance>> instances = Maps.newHashMapWithExpectedSize(services.size());
+        List<KubernetesService> toLoad = Lists.newArrayList();
+        services.forEach((serviceId, kubernetesService) -> {
+            if (isSameService(current.getService(serviceId), kubernetesService)) {
+                // 已被淘汰的服务保持淘汰状态
+                List<ServiceInstance> oldInstances = current.getInstances(serviceId);
+                if (null != oldInstances) {
+                    instances.put(serviceId, oldInstances);
+                }
+            } else {
+                toLoad.add(kubernetesService);
+                if (expireAfterAccessMillis > 0) {
+                    // 新服务从发现时开始计算访问过期时间
+                    accessTimes.put(serviceId, new AtomicLong(System.currentTimeMillis()));
+                }
+            }
+        });
+        Map<String, List<ServiceInstance>> loaded = loadInstances(toLoad, current);
+        for (KubernetesService kubernetesService : toLoad) {
+            String serviceId = kubernetesService.getId();
+            List<ServiceInstance> serviceInstances = loaded.get(serviceId);
+            instances.put(serviceId, null != serviceInstances ? serviceInstances : fallbackInstances(current, serviceId));
+        }
+
+        accessTimes.keySet().retainAll(services.keySet());
+        instanceRefreshTimes.keySet().retainAll(services.keySet());
+        if (null != endpointSliceMerger) {
+            endpointSliceMerger.retain(services.values());
+        }
+        if (null != zonePreference) {
+            zonePreference.retain(services.keySet());
+        }
+        namedPortViews.retain(services.keySet());
+
+        publish(current.next(services, instances));
+        servicesIndexed = true;
+        metrics.recordRefresh("services", System.nanoTime() - start);
+    }
+
+    /**
+     * 刷新服务的实例列表，开启 expireAfterAccessSeconds 时只刷新近期被访问过的服务，其余服务的实例列表被淘汰
+     *
+     * @param all 为 false 且开启 adaptiveRefresh 时只刷新到期的服务
+     */
+    private void refreshInstances(boolean all) {
+        long start = System.nanoTime();
+        DiscoverySnapshot current = this.snapshot;
+
+        List<KubernetesService> active = Lists.newArrayList();
+        List<String> expired = Lists.newArrayList();
+        long now = System.currentTimeMillis();
+        current.getServices().forEach((serviceId, kubernetesService) -> {
+            if (null == current.getInstances(serviceId)) {
+                return;
+            }
+            AtomicLong accessTime = accessTimes.get(serviceId);
+            if (expireAfterAccessMillis > 0 && null != accessTime && now - accessTime.get() > expireAfterAccessMillis) {
+                expired.add(serviceId);
+            } else {
+                active.add(kubernetesService);
+            }
+        });
+        if (!expired.isEmpty()) {
+            log.debug("instances expired after access: {}", expired);
+        }
+
+        List<KubernetesService> toRefresh = null != refreshPlanner && !all ? dueServices(active, now) : active;
+        Map<String, List<ServiceInstance>> loaded = loadInstances(toRefresh, current);
+        if (null != refreshPlanner) {
+            loaded.forEach((serviceId, serviceInstances) -> refreshPlanner.onRefreshed(serviceId,
+                    !SnapshotDiff.InstanceChange.between(fallbackInstances(current, serviceId), serviceInstances).isEmpty(),
+                    now));
+        }
+
+        if (!loaded.isEmpty() || !expired.isEmpty()) {
+            publish(current.withInstances(loaded, expired));
+        }
+        metrics.recordRefresh("instances", System.nanoTime() - start);
+    }
+
+    /**
+     * 选出到期的服务；BULK 模式下 namespace 本来就要整体拉取一次，该 namespace 的其他服务一并刷新
+     */
+    private List<KubernetesService> dueServices(List<KubernetesService> active, long now) {
+        Set<String> due = refreshPlanner.due(active.stream().map(KubernetesService::getId).collect(Collectors.toList()), now);
+        if (properties.getEndpointsFetchMode() == KubernetesDiscoveryProperties.EndpointsFetchMode.BULK) {
+            Set<String> dueNamespaces = active.stream()
+                    .filter(kubernetesService -> due.contains(kubernetesService.getId()))
+                    .map(KubernetesService::getNamespaceKey)
+                    .collect(Collectors.toSet());
+            return active.stream()
+                    .filter(kubernetesService -> dueNamespaces.contains(kubernetesService.getNamespaceKey()))
+                    .collect(Collectors.toList());
+        }
+        return active.stream()
+                .filter(kubernetesService -> due.contains(kubernetesService.getId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 后台刷新单个服务，与窗口内的其他刷新合并
+     */
+    private void revalidate(String serviceId) {
+        loadCoalescer.submit(serviceId);
+    }
+
+    /**
+     * 加载被淘汰服务的实例，最多等待 coldMissMaxWaitMillis，超时返回空列表，加载完成后再访问即可命中
+     */
+    private List<ServiceInstance> awaitLoad(String serviceId) {
+        CompletableFuture<Void> loading = loadCoalescer.submit(serviceId);
+        if (coldMissMaxWaitMillis <= 0 || Thread.currentThread() == schedulerThread) {
+            return Collections.emptyList();
+        }
+        try {
+            loading.get(coldMissMaxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("load instances timeout after {}ms, serviceId: '{}'", coldMissMaxWaitMillis, serviceId);
+        } catch (ExecutionException e) {
+            log.debug("load instances failed, serviceId: '{}'", serviceId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<ServiceInstance> instances = this.snapshot.getInstances(serviceId);
+        if (null == instances) {
             return Collections.emptyList();
         }
+        return null != zonePreference ? zonePreference.apply(serviceId, instances) : instances;
+    }
+
+    /**
+     * 加载一批服务的实例，在 scheduler 线程上执行
+     */
+    private void loadServices(Set<String> serviceIds) {
+        DiscoverySnapshot current = this.snapshot;
+        List<KubernetesService> services = serviceIds.stream()
+                .map(current::getService)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!services.isEmpty()) {
+            publish(current.withInstances(loadInstances(services, current)));
+        }
+    }
+
+    private void touch(String serviceId) {
+        long now = System.currentTimeMillis();
+        AtomicLong accessTime = accessTimes.get(serviceId);
+        if (null == accessTime) {
+            accessTimes.putIfAbsent(serviceId, new AtomicLong(now));
+        } else if (now - accessTime.get() > 1000) {
+            // 精度到秒即可，避免热点服务每次访问都写
+            accessTime.lazySet(now);
+        }
     }
 
-    private Map<String, KubernetesService> getServiceMap() {
+    private boolean isStale(String serviceId) {
+        Long refreshTime = instanceRefreshTimes.get(serviceId);
+        return null != refreshTime && System.currentTimeMillis() - refreshTime > maxStalenessMillis;
+    }
 
+    /**
+     * 按 interval 上下浮动 refreshJitterRatio 调度，避免多个实例同时刷新
+     */
+    private void scheduleWithJitter(String name, Runnable task, long intervalSeconds) {
+        long interval = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        long jitter = (long) (interval * properties.getRefreshJitterRatio());
+        long delay = jitter > 0
+                ? interval - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1)
+                : interval;
+        if (!running.get()) {
+            return;
+        }
+        try {
+            scheduledTasks.put(name, scheduler.schedule(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("refresh {} failed", name, e);
+                } finally {
+                    scheduleWithJitter(name, task, intervalSeconds);
+                }
+            }, delay, TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) {
+            log.debug("discovery scheduler shut down, stop refreshing {}", name);
+        }
+    }
+
+    private void publish(DiscoverySnapshot next) {
+        this.snapshot = next;
+        metrics.onSnapshot(next);
+        if (null != snapshotStore) {
+            snapshotStore.save(next);
+        }
+        // 差异在通知时计算，防抖窗口内的多次发布只计算一次
+        changeNotifier.submit(next);
+    }
+
+    private static boolean isSameService(KubernetesService a, KubernetesService b) {
+        return null != a && null != b
+                && Objects.equals(a.getNamespaceKey(), b.getNamespaceKey())
+                && Objects.equals(a.getName(), b.getName());
+    }
+
+    /**
+     * 拉取服务并更新索引
+     *
+     * @return 索引是否有变化
+     */
+    private boolean updateServiceIndex() {
         log.debug("------ Fetching Services From Kubernetes");
+        boolean changed = serviceIndex.update(fetchServices());
+        int conflicts = 0;
+        for (ServiceIndex.Conflict conflict : serviceIndex.getConflicts().values()) {
+            conflicts += conflict.getShadowed().size();
+        }
+        metrics.recordConflicts(conflicts);
+        return changed;
+    }
 
-        // serviceMap 指的就是 Kubernetes 的 service
-        Map<String, KubernetesService> kubernetesServiceMap = Maps.newHashMap();
+    /**
+     * 并发拉取所有 namespace 的服务，失败或超时的 namespace 沿用上一次成功的结果
+     *
+     * @return key - namespace 标识，顺序与 clientManager 中的一致，靠前的 namespace 优先
+     */
+    private Map<String, List<KubernetesService>> fetchServices() {
+        List<String> namespaces = new ArrayList<>(clientManager.getClientMap().keySet());
 
-        List<KubernetesService> addFailServiceList = new ArrayList<>();
-        clientManager.getClients()
-                .stream()
-                .flatMap(client -> client.services().list().getItems().stream()
-                        .map(KubernetesService::new)
+        Map<String, List<KubernetesService>> fetched = namespaceFetcher.fetch(DiscoveryMetrics.RESOURCE_SERVICES, namespaces,
+                namespace -> listServices(namespace).stream()
+                        .map(service -> new KubernetesService(service, properties.getServiceIdLabel(),
+                                clientManager.getCluster(namespace)))
                         .filter(KubernetesService::isEffective)
-                )
-                .collect(Collectors.toList())
-                .forEach(kubernetesService -> {
+                        .collect(Collectors.toList()));
 
-                    if (kubernetesServiceMap.containsKey(kubernetesService.getId())) {
-                        addFailServiceList.add(kubernetesService);
-                    }
+        Map<String, List<KubernetesService>> result = Maps.newLinkedHashMap();
+        for (String namespace : namespaces) {
+            List<KubernetesService> services = fetched.get(namespace);
+            if (null != services) {
+                lastKnownServices.put(namespace, services);
+            } else {
+                services = lastKnownServices.get(namespace);
+                log.warn("use last known services, namespace: '{}', size: {}",
+                        namespace, null != services ? services.size() : 0);
+            }
+            if (null != services) {
+                result.put(namespace, services);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 加载一批服务的实例，只返回加载成功的服务
+     * <p>
+     * BULK 模式下每个 namespace 只 LIST 一次 Endpoints，PER_SERVICE 模式下每个服务 GET 一次；informer 所在 namespace 只读内存
+     *
+     * @return key - serviceId
+     */
+    private Map<String, List<ServiceInstance>> loadInstances(Collection<KubernetesService> kubernetesServices,
+                                                             DiscoverySnapshot current) {
+        Map<String, List<ServiceInstance>> result = Maps.newHashMapWithExpectedSize(kubernetesServices.size());
+        if (kubernetesServices.isEmpty()) {
+            return result;
+        }
+
+        Map<String, List<KubernetesService>> servicesByNamespace = kubernetesServices.stream()
+                .collect(Collectors.groupingBy(KubernetesService::getNamespaceKey));
 
-                    // 如果该 serviceId 没被排除
-                    else if (!excludeServices.contains(kubernetesService.getId())) {
-                        kubernetesServiceMap.put(kubernetesService.getId(), kubernetesService);
-                    }
-                });
+        if (null != nodeZoneResolver) {
+            // 在拉取 namespace 之前加载节点可用区，不占用 namespace 的超时时间
+            nodeZoneResolver.refresh(servicesByNamespace.keySet().stream()
+                    .map(clientManager::getClient)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+        }
+
+        // 各 namespace 并发加载，失败或超时的 namespace 不在结果中，由调用方沿用当前实例列表
+        namespaceFetcher.fetch(null != endpointSliceMerger
+                        ? DiscoveryMetrics.RESOURCE_ENDPOINT_SLICES
+                        : DiscoveryMetrics.RESOURCE_ENDPOINTS,
+                servicesByNamespace.keySet(),
+                namespace -> loadInstances(namespace, servicesByNamespace.get(namespace)))
+                .values()
+                .forEach(result::putAll);
 
-        List<String> logs = Lists.newArrayList();
-        for (KubernetesService kubernetesService : addFailServiceList) {
-            String serviceIdAddFailLog = String.format("Services: [%s](%s) 添加失败，存在同名 serviceId: [%s](%s)",
-                    kubernetesService.getNamespace(),
-                    kubernetesService.getName(),
-                    kubernetesServiceMap.get(kubernetesService.getId()).getNamespace(),
-                    kubernetesService.getId());
-            log.debug(serviceIdAddFailLog);
-            logs.add(serviceIdAddFailLog);
+        return result;
+    }
+
+    private Map<String, List<ServiceInstance>> loadInstances(String namespace, List<KubernetesService> services) {
+        if (null != endpointSliceMerger) {
+            return loadInstancesFromSlices(namespace, services);
         }
-        log.debug("{}", logs);
-        log.debug("service map: {}", kubernetesServiceMap);
 
-        if (this.serviceMap == null || this.serviceMap.size() != kubernetesServiceMap.size()) {
-            applicationContext.publishEvent(new ServicesUpdateEvent(kubernetesServiceMap.keySet()));
+        Map<String, Endpoints> endpointsMap = null;
+        if (properties.getEndpointsFetchMode() == KubernetesDiscoveryProperties.EndpointsFetchMode.BULK
+                && !informers.containsKey(namespace)) {
+            endpointsMap = listEndpoints(namespace);
         }
 
-        return kubernetesServiceMap;
+        Map<String, Endpoints> bulk = endpointsMap;
+        return loadEach(namespace, DiscoveryMetrics.RESOURCE_ENDPOINTS, services, kubernetesService -> {
+            Endpoints endpoints = null != bulk
+                    ? bulk.get(kubernetesService.getName())
+                    : getEndpoints(kubernetesService);
+            List<ServiceInstance> instances = toInstances(kubernetesService, endpoints);
+            return properties.isCompactInstances()
+                    ? CompactInstanceList.compact(instances)
+                    : Collections.unmodifiableList(instances);
+        });
     }
 
-    private List<ServiceInstance> getInstances(KubernetesService kubernetesService) {
+    private Map<String, List<ServiceInstance>> loadInstancesFromSlices(String namespace,
+                                                                       List<KubernetesService> services) {
+        NamespaceInformer informer = informers.get(namespace);
+        Map<String, List<EndpointSlice>> slicesMap = null;
+        if (null != informer) {
+            slicesMap = informer.getEndpointSlices();
+        } else if (properties.getEndpointsFetchMode() == KubernetesDiscoveryProperties.EndpointsFetchMode.BULK) {
+            slicesMap = listEndpointSlices(namespace);
+        }
 
-        String serviceId = kubernetesService.getId();
-        log.debug("------ Fetching Instances From Kubernetes, serviceId: '{}'", serviceId);
+        Map<String, List<EndpointSlice>> bulk = slicesMap;
+        return loadEach(namespace, DiscoveryMetrics.RESOURCE_ENDPOINT_SLICES, services, kubernetesService -> {
+            List<EndpointSlice> slices = null != bulk
+                    ? bulk.get(kubernetesService.getName())
+                    : getEndpointSlices(kubernetesService);
+            List<ServiceInstance> instances = endpointSliceMerger.merge(kubernetesService, slices);
+            return instances instanceof CompactInstanceList ? instances : Collections.unmodifiableList(instances);
+        });
+    }
 
-        List<ServiceInstance> instances = Lists.newArrayList();
+    /**
+     * 逐个加载 namespace 下服务的实例，单个服务失败时跳过，由调用方沿用当前实例列表
+     *
+     * @param loader 返回服务的不可变实例列表
+     * @return key - serviceId
+     * @throws IllegalStateException 全部失败，视为 namespace 拉取失败，计入熔断
+     */
+    private Map<String, List<ServiceInstance>> loadEach(String namespace, String resource,
+                                                        List<KubernetesService> services,
+                                                        Function<KubernetesService, List<ServiceInstance>> loader) {
+        Map<String, List<ServiceInstance>> result = Maps.newHashMapWithExpectedSize(services.size());
+        Exception lastError = null;
+        for (KubernetesService kubernetesService : services) {
+            String serviceId = kubernetesService.getId();
+            try {
+                result.put(serviceId, loader.apply(kubernetesService));
+                instanceRefreshTimes.put(serviceId, System.currentTimeMillis());
+                metrics.recordInstancesLoaded(serviceId);
+            } catch (Exception e) {
+                lastError = e;
+                metrics.recordRefreshFailure(namespace, resource);
+                log.warn("Fetching Instances failed, serviceId: '{}'", serviceId, e);
+            }
+        }
+        if (result.isEmpty() && null != lastError) {
+            throw new IllegalStateException("Fetching Instances failed, namespace: '" + namespace + "'", lastError);
+        }
+        return result;
+    }
 
-        if (!kubernetesService.isEffective()) {
-            log.warn("kubernetesService is invalid, serviceId: {}", serviceId);
-            this.serviceMap.remove(serviceId);
-            return instances;
+    private static List<ServiceInstance> fallbackInstances(DiscoverySnapshot current, String serviceId) {
+        List<ServiceInstance> instances = current.getInstances(serviceId);
+        return null != instances ? instances : Collections.emptyList();
+    }
+
+    /**
+     * 一次拉取 namespace 下所有 Endpoints
+     *
+     * @return key - Endpoints 名，即 Service 名
+     */
+    private Map<String, Endpoints> listEndpoints(String namespace) {
+        KubernetesClient client = requireClient(namespace);
+
+        log.debug("------ Fetching Endpoints From Kubernetes, namespace: '{}'", namespace);
+
+        List<Endpoints> items = timed(namespace, DiscoveryMetrics.RESOURCE_ENDPOINTS,
+                () -> properties.isEndpointsServiceIdLabelSelector()
+                        ? client.endpoints().withLabel(properties.getServiceIdLabel()).list()
+                        : client.endpoints().list())
+                .getItems();
+
+        Map<String, Endpoints> endpointsMap = Maps.newHashMapWithExpectedSize(items.size());
+        for (Endpoints endpoints : items) {
+            endpointsMap.put(endpoints.getMetadata().getName(), endpoints);
         }
+        return endpointsMap;
+    }
 
-        String namespace = kubernetesService.getNamespace();
-        KubernetesClient client = clientManager.getClient(namespace);
-        if (null == client) {
-            log.warn("--- no KubernetesClient, namespace: '{}'", namespace);
-            return instances;
+    /**
+     * 一次拉取 namespace 下所有 EndpointSlice
+     *
+     * @return key - Service 名
+     */
+    private Map<String, List<EndpointSlice>> listEndpointSlices(String namespace) {
+        KubernetesClient client = requireClient(namespace);
+
+        log.debug("------ Fetching EndpointSlices From Kubernetes, namespace: '{}'", namespace);
+
+        return EndpointSliceMerger.groupByService(timed(namespace, DiscoveryMetrics.RESOURCE_ENDPOINT_SLICES,
+                () -> client.discovery().v1().endpointSlices().list())
+                .getItems());
+    }
+
+    private List<EndpointSlice> getEndpointSlices(KubernetesService kubernetesService) {
+        String namespace = kubernetesService.getNamespaceKey();
+        KubernetesClient client = requireClient(namespace);
+
+        log.debug("------ Fetching EndpointSlices From Kubernetes, serviceId: '{}'", kubernetesService.getId());
+
+        return timed(namespace, DiscoveryMetrics.RESOURCE_ENDPOINT_SLICES, () -> client.discovery().v1()
+                .endpointSlices()
+                .withLabel(EndpointSliceMerger.SERVICE_NAME_LABEL, kubernetesService.getName())
+                .list())
+                .getItems();
+    }
+
+    private Endpoints getEndpoints(KubernetesService kubernetesService) {
+        String namespace = kubernetesService.getNamespaceKey();
+        NamespaceInformer informer = informers.get(namespace);
+        if (null != informer) {
+            return informer.getEndpoints(kubernetesService.getName());
         }
 
-        Endpoints endpoints = client.endpoints()
-                .inNamespace(namespace)
+        KubernetesClient client = requireClient(namespace);
+
+        log.debug("------ Fetching Instances From Kubernetes, serviceId: '{}'", kubernetesService.getId());
+
+        return timed(namespace, DiscoveryMetrics.RESOURCE_ENDPOINTS, () -> client.endpoints()
                 .withName(kubernetesService.getName())
-                .get();
+                .get());
+    }
+
+    private List<ServiceInstance> toInstances(KubernetesService kubernetesService, Endpoints endpoints) {
+
+        String serviceId = kubernetesService.getId();
+        List<ServiceInstance> instances = Lists.newArrayList();
 
         if (null == endpoints) {
             log.warn("No Endpoints Found, serviceId: {}", serviceId);
@@ -190,19 +975,28 @@ public class KubernetesDiscoveryClient implements DiscoveryClient {
         }
 
         List<EndpointSubset> subsets = getSubsetsFromEndpoints(endpoints);
+        // 同一服务的实例共享 metadata，不再引用 Endpoints
+        KubernetesServiceInstance.Metadata metadata = KubernetesServiceInstance.Metadata.of(endpoints);
+
+        KubernetesClient client = null != nodeZoneResolver
+                ? clientManager.getClient(kubernetesService.getNamespaceKey())
+                : null;
 
         if (!subsets.isEmpty()) {
             for (EndpointSubset subset : subsets) {
-                List<EndpointAddress> addresses = subset.getAddresses();
-                EndpointPort endpointPort = findEndpointPort(subset);
-                for (EndpointAddress endpointAddress : addresses) {
-                    instances.add(
-                            new KubernetesServiceInstance(
-                                    serviceId,
-                                    endpointAddress.getIp(),
-                                    endpointPort.getPort(),
-                                    namespace,
-                                    endpoints));
+                // 同一 subset 的实例共享端口列表
+                List<KubernetesServiceInstance.NamedPort> ports = toNamedPorts(subset.getPorts());
+                KubernetesServiceInstance.NamedPort primaryPort =
+                        KubernetesServiceInstance.NamedPort.primaryOf(ports, properties.getPrimaryPortName());
+                if (null == primaryPort) {
+                    log.warn("no port in Endpoints subset, serviceId: '{}'", serviceId);
+                    continue;
+                }
+                addInstances(instances, kubernetesService, subset.getAddresses(), primaryPort, ports, metadata,
+                        true, client);
+                if (properties.isIncludeNotReadyAddresses()) {
+                    addInstances(instances, kubernetesService, subset.getNotReadyAddresses(), primaryPort, ports,
+                            metadata, false, client);
                 }
             }
         }
@@ -210,6 +1004,142 @@ public class KubernetesDiscoveryClient implements DiscoveryClient {
         return instances;
     }
 
+    private void addInstances(List<ServiceInstance> instances,
+                              KubernetesService kubernetesService,
+                              List<EndpointAddress> addresses,
+                              KubernetesServiceInstance.NamedPort primaryPort,
+                              List<KubernetesServiceInstance.NamedPort> ports,
+                              KubernetesServiceInstance.Metadata metadata,
+                              boolean ready,
+                              KubernetesClient client) {
+        if (null == addresses) {
+            return;
+        }
+        for (EndpointAddress endpointAddress : addresses) {
+            String nodeName = endpointAddress.getNodeName();
+            instances.add(
+                    new KubernetesServiceInstance(
+                            kubernetesService.getId(),
+                            endpointAddress.getIp(),
+                            primaryPort,
+                            ports,
+                            kubernetesService.getNamespace(),
+                            metadata,
+                            ready,
+                            nodeName,
+                            null != nodeZoneResolver ? nodeZoneResolver.zoneOf(client, nodeName) : null));
+        }
+    }
+
+    private void startInformers() {
+        for (Map.Entry<String, KubernetesClient> entry : clientManager.getClientMap().entrySet()) {
+            NamespaceInformer informer = new NamespaceInformer(entry.getKey(), entry.getValue(), scheduler,
+                    properties.getWatchReconnectIntervalSeconds(), null != endpointSliceMerger,
+                    this::selectServices, this::selectEndpoints, this);
+            try {
+                informer.start();
+                informers.put(informer.getNamespace(), informer);
+            } catch (Exception e) {
+                informer.stop();
+                log.warn("informer start failed, fall back to polling, namespace: '{}'", informer.getNamespace(), e);
+            }
+        }
+    }
+
+    private Collection<Service> listServices(String namespace) {
+        NamespaceInformer informer = informers.get(namespace);
+        if (null != informer) {
+            return informer.getServices();
+        }
+        KubernetesClient client = requireClient(namespace);
+        return timed(namespace, DiscoveryMetrics.RESOURCE_SERVICES, () -> selectServices(client).list()).getItems();
+    }
+
+    /**
+     * 在 api-server 端过滤掉不参与服务发现的 Service，客户端仍会再校验一次
+     */
+    private FilterWatchListDeletable<Service, ServiceList> selectServices(KubernetesClient client) {
+        FilterWatchListDeletable<Service, ServiceList> services = client.services();
+        if (properties.isServiceLabelSelector()) {
+            services = services.withLabel(properties.getServiceIdLabel())
+                    .withoutLabel(KubernetesService.LABEL_DISABLED, "true");
+        }
+        if (!properties.getServiceLabels().isEmpty()) {
+            services = services.withLabels(properties.getServiceLabels());
+        }
+        return services;
+    }
+
+    /**
+     * Endpoints 继承 Service 的标签，informer 按同样的条件过滤，不缓存不参与服务发现的 Endpoints
+     */
+    private FilterWatchListDeletable<Endpoints, EndpointsList> selectEndpoints(KubernetesClient client) {
+        FilterWatchListDeletable<Endpoints, EndpointsList> endpoints = client.endpoints();
+        if (properties.isServiceLabelSelector()) {
+            endpoints = endpoints.withLabel(properties.getServiceIdLabel())
+                    .withoutLabel(KubernetesService.LABEL_DISABLED, "true");
+        } else if (properties.isEndpointsServiceIdLabelSelector()) {
+            endpoints = endpoints.withLabel(properties.getServiceIdLabel());
+        }
+        if (!properties.getServiceLabels().isEmpty()) {
+            endpoints = endpoints.withLabels(properties.getServiceLabels());
+        }
+        return endpoints;
+    }
+
+    /**
+     * 没有 client 时抛异常，按拉取失败处理，不能当作没有数据
+     */
+    private KubernetesClient requireClient(String namespace) {
+        KubernetesClient client = clientManager.getClient(namespace);
+        if (null == client) {
+            throw new IllegalStateException("no KubernetesClient, namespace: '" + namespace + "'");
+        }
+        return client;
+    }
+
+    private <T> T timed(String namespace, String resource, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.get();
+            success = true;
+            return result;
+        } finally {
+            metrics.recordApiCall(namespace, resource, System.nanoTime() - start, success);
+        }
+    }
+
+    @Override
+    public void onServicesChanged(String namespace) {
+        // 合并短时间内的多次变更，只重建一次
+        if (serviceMapRefreshPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                serviceMapRefreshPending.set(false);
+                refreshServices();
+            });
+        }
+    }
+
+    @Override
+    public void onEndpointsChanged(String namespace, String name) {
+        // 快照只在 scheduler 线程上替换
+        scheduler.execute(() -> {
+            String serviceId = serviceIndex.getServiceId(namespace, name);
+            if (null == serviceId) {
+                return;
+            }
+            DiscoverySnapshot current = this.snapshot;
+            KubernetesService kubernetesService = current.getService(serviceId);
+            if (null == kubernetesService || null == current.getInstances(serviceId)) {
+                // 已被淘汰，下次访问时再加载
+                return;
+            }
+            this.publish(current.withInstances(
+                    loadInstances(Collections.singletonList(kubernetesService), current)));
+        });
+    }
+
     private List<EndpointSubset> getSubsetsFromEndpoints(Endpoints endpoints) {
         if (endpoints == null) {
             return new ArrayList<>();
@@ -221,23 +1151,18 @@ public class KubernetesDiscoveryClient implements DiscoveryClient {
         return endpoints.getSubsets();
     }
 
-    private EndpointPort findEndpointPort(EndpointSubset s) {
-        List<EndpointPort> ports = s.getPorts();
-        EndpointPort endpointPort;
-        if (ports.size() == 1) {
-            endpointPort = ports.get(0);
-        } else {
-            Predicate<EndpointPort> portPredicate;
-            if (!StringUtils.isEmpty(properties.getPrimaryPortName())) {
-                portPredicate = port -> properties.getPrimaryPortName()
-                        .equalsIgnoreCase(port.getName());
-            } else {
-                portPredicate = port -> true;
+    private static List<KubernetesServiceInstance.NamedPort> toNamedPorts(List<EndpointPort> endpointPorts) {
+        if (null == endpointPorts || endpointPorts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<KubernetesServiceInstance.NamedPort> ports = new ArrayList<>(endpointPorts.size());
+        for (EndpointPort endpointPort : endpointPorts) {
+            if (null != endpointPort.getPort()) {
+                ports.add(KubernetesServiceInstance.NamedPort.of(endpointPort.getName(), endpointPort.getPort(),
+                        endpointPort.getAppProtocol()));
             }
-            endpointPort = ports.stream().filter(portPredicate).findAny()
-                    .orElseThrow(IllegalStateException::new);
         }
-        return endpointPort;
+        return Collections.unmodifiableList(ports);
     }
 
 }
@@ -0,0 +1,74 @@
+package com.github.open.discovery.kubernetes;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 服务发现健康检查
+ * <p>
+ * 所有 namespace 都处于熔断状态时为 DOWN，此时读取的是最后一次成功拉取的数据；否则为 UP，并给出各 namespace 的熔断状态
+ *
+ * @since 1.0 2026/10/18
+ */
+public class KubernetesDiscoveryHealthIndicator extends AbstractHealthIndicator {
+
+    private final KubernetesDiscoveryClient kubernetesDiscoveryClient;
+
+    public KubernetesDiscoveryHealthIndicator(KubernetesDiscoveryClient kubernetesDiscoveryClient) {
+        super("Kubernetes discovery health check failed");
+        this.kubernetesDiscoveryClient = kubernetesDiscoveryClient;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        DiscoverySnapshot snapshot = kubernetesDiscoveryClient.getSnapshot();
+        Map<String, NamespaceCircuitBreaker.Status> statusMap = kubernetesDiscoveryClient.getNamespaceStatus();
+
+        boolean allOpen = !statusMap.isEmpty() && statusMap.values().stream()
+                .allMatch(status -> status.getState() == NamespaceCircuitBreaker.State.OPEN);
+        if (allOpen) {
+            builder.down();
+        } else {
+            builder.up();
+        }
+
+        Map<String, Object> namespaces = new LinkedHashMap<>();
+        statusMap.forEach((namespace, status) -> {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("state", status.getState());
+            detail.put("consecutiveFailures", status.getConsecutiveFailures());
+            if (status.getState() != NamespaceCircuitBreaker.State.CLOSED) {
+                detail.put("openUntil", status.getOpenUntil());
+            }
+            if (null != status.getLastError()) {
+                detail.put("lastError", status.getLastError());
+            }
+            detail.put("lastSuccessTime", status.getLastSuccessTime());
+            namespaces.put(namespace, detail);
+        });
+
+        builder.withDetail("snapshotVersion", snapshot.getVersion())
+                .withDetail("snapshotAgeMillis", System.currentTimeMillis() - snapshot.getTimestamp())
+                .withDetail("services", snapshot.getServiceIds().size())
+                .withDetail("footprint", MemoryFootprint.of(snapshot))
+                .withDetail("conflicts", conflicts(kubernetesDiscoveryClient.getServiceConflicts()))
+                .withDetail("namespaces", namespaces);
+    }
+
+    /**
+     * @return key - serviceId，value - 被忽略的 Service（namespace/名称）
+     */
+    private static Map<String, Object> conflicts(Map<String, ServiceIndex.Conflict> conflicts) {
+        Map<String, Object> result = new TreeMap<>();
+        conflicts.forEach((serviceId, conflict) -> result.put(serviceId, conflict.getShadowed().stream()
+                .map(service -> service.getNamespaceKey() + "/" + service.getName())
+                .collect(Collectors.toList())));
+        return result;
+    }
+
+}
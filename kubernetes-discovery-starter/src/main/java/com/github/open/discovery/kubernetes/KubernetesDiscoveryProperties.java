@@ -3,6 +3,9 @@ package com.github.open.discovery.kubernetes;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * @author jian.xu
  * @author <a href="https://github.com/studeyang">studeyang</a>
@@ -11,6 +14,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties("icloud.kubernetes.discovery")
 public class KubernetesDiscoveryProperties {
 
+    /**
+     * Service 有多个端口时作为主端口的端口名，没有该端口时取第一个端口；其余端口可通过
+     * {@link KubernetesDiscoveryClient#getInstances(String, String)} 按名称获取
+     */
     private String primaryPortName = "service-port";
     /**
      * 多久获取一次服务名列表
@@ -20,5 +27,201 @@ public class KubernetesDiscoveryProperties {
      * 多久获取一次服务实例列表（即 ip, port 等信息）
      */
     private int fetchInstanceIntervalSeconds = 30;
+    /**
+     * 是否随 Spring 容器或首次读取自动开始服务发现，为 false 时需手动调用 {@link KubernetesDiscoveryClient#start()}
+     */
+    private boolean autoStartup = true;
+    /**
+     * 首次拉取完成前，getServices、getInstances 最多等到启动后多久，超时后在后台继续；0 表示不等待，从本地快照恢复时也不等待
+     */
+    private int initialSyncTimeoutSeconds = 10;
+    /**
+     * 停止时最多等待正在执行的刷新多久
+     */
+    private int shutdownTimeoutSeconds = 10;
+    /**
+     * 按服务自适应刷新实例列表：热点服务刷新更频繁，没有变化的服务逐步退避，见 {@link RefreshPlanner}
+     */
+    private boolean adaptiveRefresh = false;
+    /**
+     * 热点服务的刷新间隔（adaptiveRefresh 生效）
+     */
+    private int minInstanceIntervalSeconds = 5;
+    /**
+     * 非热点服务退避的最大间隔（adaptiveRefresh 生效）
+     */
+    private int maxInstanceIntervalSeconds = 300;
+    /**
+     * 每分钟 getInstances 次数达到多少视为热点服务（adaptiveRefresh 生效）
+     */
+    private int hotServiceRequestsPerMinute = 60;
+    /**
+     * 单独指定服务的刷新间隔（秒），不参与自适应（adaptiveRefresh 生效）；key - serviceId
+     */
+    private Map<String, Integer> serviceRefreshIntervals = new LinkedHashMap<>();
+    /**
+     * Endpoints 拉取方式，默认每个 namespace 批量拉取一次
+     */
+    private EndpointsFetchMode endpointsFetchMode = EndpointsFetchMode.BULK;
+    /**
+     * 实例来源，大服务（几百个 pod）建议使用 ENDPOINT_SLICES，配合 WATCH 模式只同步变化的分片
+     */
+    private EndpointsSource endpointsSource = EndpointsSource.ENDPOINTS;
+    /**
+     * 批量拉取 Endpoints 时只拉取带 serviceId 标签的（Endpoints 会继承 Service 的标签）
+     */
+    private boolean endpointsServiceIdLabelSelector = false;
+    /**
+     * 服务名所在的标签，按 key 精确匹配
+     */
+    private String serviceIdLabel = KubernetesService.SERVICE_ID_KEY;
+    /**
+     * 拉取 Service 时在 api-server 端过滤：必须带 serviceIdLabel 标签，且不带 discovery.disabled=true 标签
+     */
+    private boolean serviceLabelSelector = true;
+    /**
+     * 拉取 Service 时额外要求的标签，在 api-server 端过滤
+     */
+    private Map<String, String> serviceLabels = new LinkedHashMap<>();
+    /**
+     * 同时拉取的 namespace 数上限
+     */
+    private int fetchParallelism = 8;
+    /**
+     * 单个 namespace 拉取超时时间，从开始拉取计时，不含等待 fetchParallelism 许可的时间；超时后沿用该 namespace 上一次的结果
+     */
+    private int fetchNamespaceTimeoutSeconds = 10;
+    /**
+     * 运行在 JDK 21+ 时使用虚拟线程拉取
+     */
+    private boolean preferVirtualThreads = true;
+    /**
+     * 定时刷新的间隔在 [interval * (1 - ratio), interval * (1 + ratio)] 内随机，避免多个实例同时请求 api-server
+     */
+    private double refreshJitterRatio = 0.1;
+    /**
+     * 服务多久没被访问就淘汰其实例列表、不再刷新，下次访问时后台重新加载；0 表示不淘汰
+     */
+    private int expireAfterAccessSeconds = 0;
+    /**
+     * 实例列表超过多久没有刷新成功就视为过期，访问时仍返回旧值，同时触发后台刷新；0 表示不检查
+     */
+    private int maxStalenessSeconds = 0;
+    /**
+     * 实例列表需要加载时（被淘汰或过期），窗口内的请求合并为一批，按 namespace 拉取
+     */
+    private int coldMissWindowMillis = 10;
+    /**
+     * 访问被淘汰的服务时，调用方最多等待加载多久，超时返回空列表；0 表示不等待
+     */
+    private int coldMissMaxWaitMillis = 300;
+    /**
+     * 服务发现模式，默认轮询
+     */
+    private Mode mode = Mode.POLLING;
+    /**
+     * watch 断开后多久重连（WATCH 模式生效）
+     */
+    private int watchReconnectIntervalSeconds = 1;
+    /**
+     * 是否按 serviceId 输出实例列表年龄指标，服务较多时会产生大量时间序列，默认关闭
+     */
+    private boolean perServiceMetrics = false;
+    /**
+     * 是否包含未就绪的实例（Endpoints 的 notReadyAddresses、EndpointSlice 中 ready=false 的 endpoint），
+     * 包含时通过 {@link KubernetesServiceInstance#isReady()} 区分
+     */
+    private boolean includeNotReadyAddresses = false;
+    /**
+     * Endpoints 不带可用区，开启后通过 Node 的 topology.kubernetes.io/zone 标签补全，需要 nodes 的 list 权限
+     */
+    private boolean resolveNodeZones = false;
+    /**
+     * 本实例所在可用区，配置后 getInstances 只返回就绪实例并优先返回同可用区实例
+     */
+    private String localZone;
+    /**
+     * 同可用区就绪实例占比不低于该值时只返回同可用区实例，否则返回全部就绪实例（同可用区在前）
+     */
+    private double zoneInstanceThreshold = 0.3;
+    /**
+     * 本地快照文件路径，配置后启动时先从文件恢复、后台再与 api-server 对账，api-server 不可用时也能提供服务
+     */
+    private String snapshotFile;
+    /**
+     * 快照变化后多久写一次文件，期间的多次变化只写最后一次
+     */
+    private int snapshotWriteIntervalSeconds = 10;
+    /**
+     * 实例列表使用紧凑存储（IPv4 地址存为 int 数组，同一服务的实例共享端口），实例数达到数万时可减少常驻内存；
+     * 代价是每次 get 实例（包括负载均衡每次选择）都会新建一个实例对象
+     */
+    private boolean compactInstances = false;
+    /**
+     * namespace 连续失败多少次后熔断，熔断期间不请求 api-server，沿用上一次成功的数据
+     */
+    private int circuitBreakerFailureThreshold = 3;
+    /**
+     * 熔断时长，从 initial 开始每次失败翻倍，不超过 max，并加 ±50% 随机抖动
+     */
+    private int circuitBreakerInitialBackoffSeconds = 1;
+    private int circuitBreakerMaxBackoffSeconds = 60;
+    /**
+     * 重试预算：重试次数不超过请求数的该比例
+     */
+    private double retryBudgetRatio = 0.2;
+    /**
+     * 失败后隔多久重试
+     */
+    private int retryBackoffMillis = 200;
+    /**
+     * 快照变化后等待多久没有新的变化再通知 DiscoveryListener 及发布 ServicesUpdateEvent，期间的变化合并为一次
+     */
+    private int notifyDebounceMillis = 100;
+    /**
+     * 持续变化时最多等待多久通知一次
+     */
+    private int notifyMaxDelayMillis = 1000;
+    /**
+     * 执行通知回调的线程数，每个 listener 串行回调
+     */
+    private int notifyThreads = 2;
+    /**
+     * 回调超过该耗时打印告警
+     */
+    private int slowListenerThresholdMillis = 1000;
+
+    public enum Mode {
+        /**
+         * 定时全量拉取 Service，按需拉取 Endpoints
+         */
+        POLLING,
+        /**
+         * 每个 namespace LIST 一次，之后通过 WATCH 增量更新
+         */
+        WATCH
+    }
+
+    public enum EndpointsSource {
+        /**
+         * core/v1 Endpoints，一个服务一个对象
+         */
+        ENDPOINTS,
+        /**
+         * discovery.k8s.io/v1 EndpointSlice，一个服务多个分片，需要 Kubernetes 1.21+
+         */
+        ENDPOINT_SLICES
+    }
+
+    public enum EndpointsFetchMode {
+        /**
+         * 每个服务 GET 一次 Endpoints
+         */
+        PER_SERVICE,
+        /**
+         * 每个 namespace LIST 一次 Endpoints
+         */
+        BULK
+    }
 
 }
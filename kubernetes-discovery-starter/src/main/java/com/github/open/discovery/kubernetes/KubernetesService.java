@@ -1,5 +1,7 @@
 package com.github.open.discovery.kubernetes;
 
+import com.github.open.discovery.kubernetes.client.ClientManager;
+import com.github.open.discovery.support.Constants;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.Service;
 import lombok.Getter;
@@ -8,7 +10,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.core.style.ToStringCreator;
 
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author jian.xu
@@ -16,8 +17,8 @@ import java.util.concurrent.atomic.AtomicReference;
 @Slf4j
 public class KubernetesService {
 
-    private static final String LABEL_DISABLED = "discovery.disabled";
-    private static final String SERVICE_ID_KEY = "serviceId";
+    public static final String LABEL_DISABLED = "discovery.disabled";
+    public static final String SERVICE_ID_KEY = "serviceId";
 
     @Getter
     private String id;
@@ -25,25 +26,66 @@ public class KubernetesService {
     private String name;
     @Getter
     private String namespace;
+    /**
+     * 所在集群，默认集群为 {@link Constants#DEFAULT_CLUSTER}
+     */
+    @Getter
+    private final String cluster;
+    /**
+     * 集群内唯一的 namespace 标识，见 {@link ClientManager#namespaceKey(String, String)}
+     */
+    @Getter
+    private String namespaceKey;
     private final boolean effective;
 
     public KubernetesService(Service service) {
+        this(service, SERVICE_ID_KEY);
+    }
+
+    /**
+     * @param serviceIdLabel 服务名所在的标签
+     */
+    public KubernetesService(Service service, String serviceIdLabel) {
+        this(service, serviceIdLabel, Constants.DEFAULT_CLUSTER);
+    }
 
-        this.effective = checkKubernetesService(service);
+    /**
+     * @param serviceIdLabel 服务名所在的标签
+     * @param cluster        所在集群
+     */
+    public KubernetesService(Service service, String serviceIdLabel, String cluster) {
+
+        this.cluster = cluster;
+        this.effective = checkKubernetesService(service, serviceIdLabel);
 
         if (this.effective) {
             ObjectMeta metadata = service.getMetadata();
-            Map<String, String> labels = service.getMetadata().getLabels();
-            labels.forEach((k, v) -> {
-                if (k.contains(SERVICE_ID_KEY) && StringUtils.isNotEmpty(labels.get(k))) {
-                    this.id = labels.get(k);
-                }
-            });
+            this.id = metadata.getLabels().get(serviceIdLabel);
             this.name = metadata.getName();
             this.namespace = metadata.getNamespace();
+            this.namespaceKey = ClientManager.namespaceKey(cluster, namespace);
         }
     }
 
+    /**
+     * 从本地快照恢复
+     */
+    public KubernetesService(String id, String name, String namespace) {
+        this(id, name, namespace, Constants.DEFAULT_CLUSTER);
+    }
+
+    /**
+     * 从本地快照恢复
+     */
+    public KubernetesService(String id, String name, String namespace, String cluster) {
+        this.id = id;
+        this.name = name;
+        this.namespace = namespace;
+        this.cluster = cluster;
+        this.namespaceKey = ClientManager.namespaceKey(cluster, namespace);
+        this.effective = true;
+    }
+
     public KubernetesService self() {
         return this;
     }
@@ -55,10 +97,11 @@ public class KubernetesService {
     /**
      * 检查必要的标签信息
      *
-     * @param service 服务
+     * @param service        服务
+     * @param serviceIdLabel 服务名所在的标签
      * @return 检查结果
      */
-    private boolean checkKubernetesService(Service service) {
+    private boolean checkKubernetesService(Service service, String serviceIdLabel) {
         try {
             ObjectMeta metadata = service.getMetadata();
 
@@ -85,13 +128,7 @@ public class KubernetesService {
                 return false;
             }
 
-            AtomicReference<String> serviceIdKey = new AtomicReference<>("");
-            labels.forEach((key, value) -> {
-                if (key.contains(SERVICE_ID_KEY)) {
-                    serviceIdKey.set(key);
-                }
-            });
-            if (serviceIdKey.get().isEmpty()) {
+            if (StringUtils.isEmpty(labels.get(serviceIdLabel))) {
                 log.warn("no serviceId label, service is invalid: '{}'", serviceName);
                 return false;
             }
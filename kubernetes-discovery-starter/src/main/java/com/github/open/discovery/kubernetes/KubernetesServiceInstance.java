@@ -1,21 +1,26 @@
 package com.github.open.discovery.kubernetes;
 
-import com.google.common.collect.Maps;
 import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.core.style.ToStringCreator;
 
 import java.net.URI;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
+ * 不可变的服务实例，metadata 构造时计算好，uri 首次访问时计算并缓存，负载均衡每次请求调用时不再分配对象
+ *
  * @author <a href="https://github.com/studeyang">studeyang</a>
  * @since 1.0 2022/3/22
  */
-@ToString
+@ToString(exclude = {"uri", "ports"})
 public class KubernetesServiceInstance implements ServiceInstance {
 
     @Getter
@@ -24,59 +29,269 @@ public class KubernetesServiceInstance implements ServiceInstance {
     private final String serviceId;
     @Getter
     private final String host;
+    /**
+     * 主端口，{@link #getPort()}、{@link #getScheme()} 由它决定
+     */
     @Getter
-    private final int port;
+    private final NamedPort primaryPort;
+    /**
+     * 实例的全部端口，同一 subset（分片）的实例共享同一个 List
+     */
+    @Getter
+    private final List<NamedPort> ports;
     @Getter
     private final String namespace;
+    /**
+     * 首次访问时计算，并发计算结果相同，无需同步
+     */
+    private URI uri;
+    /**
+     * 未开启 includeNotReadyAddresses 时总是 true
+     */
+    @Getter
+    private final boolean ready;
+    /**
+     * 所在节点，可能为 null
+     */
+    @Getter
+    private final String nodeName;
+    /**
+     * 所在可用区，可能为 null
+     */
+    @Getter
+    private final String zone;
 
-    private final Endpoints endpoints;
+    private final Metadata metadata;
 
     public KubernetesServiceInstance(String serviceId, String host, int port, String namespace, Endpoints endpoints) {
-        this.instanceId = host + "-" + port;
+        this(serviceId, host, port, namespace, Metadata.of(endpoints));
+    }
+
+    /**
+     * @param metadata 同一服务的实例共享同一个 {@link Metadata}
+     */
+    public KubernetesServiceInstance(String serviceId, String host, int port, String namespace, Metadata metadata) {
+        this(serviceId, host, port, namespace, metadata, true, null, null);
+    }
+
+    public KubernetesServiceInstance(String serviceId, String host, int port, String namespace, Metadata metadata,
+                                     boolean ready, String nodeName, String zone) {
+        this(serviceId, host, NamedPort.of(null, port, null), null, namespace, metadata, ready, nodeName, zone);
+    }
+
+    /**
+     * @param primaryPort 主端口
+     * @param ports       全部端口，为 null 时只有主端口
+     */
+    public KubernetesServiceInstance(String serviceId, String host, NamedPort primaryPort, List<NamedPort> ports,
+                                     String namespace, Metadata metadata,
+                                     boolean ready, String nodeName, String zone) {
+        this.instanceId = host + "-" + primaryPort.getPort();
         this.serviceId = serviceId;
         this.host = host;
-        this.port = port;
-        this.endpoints = endpoints;
+        this.primaryPort = primaryPort;
+        this.ports = null != ports ? ports : Collections.singletonList(primaryPort);
         this.namespace = namespace;
+        this.metadata = metadata;
+        this.ready = ready;
+        this.nodeName = nodeName;
+        this.zone = zone;
+    }
+
+    @Override
+    public URI getUri() {
+        URI result = uri;
+        if (null == result) {
+            result = URI.create(getScheme() + "://" + (host.indexOf(':') >= 0 ? "[" + host + "]" : host) + ":"
+                    + primaryPort.getPort());
+            uri = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int getPort() {
+        return primaryPort.getPort();
     }
 
     @Override
     public boolean isSecure() {
-        return false;
+        return primaryPort.isSecure();
     }
 
     @Override
     public String getScheme() {
-        return "http";
+        return primaryPort.isSecure() ? "https" : "http";
     }
 
-    @Override
-    public URI getUri() {
-        return URI.create(getUrl());
+    /**
+     * @return 指定名称的端口，没有时返回 null
+     */
+    public NamedPort getPort(String portName) {
+        for (NamedPort namedPort : ports) {
+            if (portName.equalsIgnoreCase(namedPort.getName())) {
+                return namedPort;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 以指定端口为主端口的同一实例，instanceId 随端口变化
+     *
+     * @return 没有该端口时返回 null
+     */
+    public KubernetesServiceInstance withPort(String portName) {
+        NamedPort namedPort = getPort(portName);
+        if (null == namedPort) {
+            return null;
+        }
+        if (namedPort == primaryPort) {
+            return this;
+        }
+        return new KubernetesServiceInstance(serviceId, host, namedPort, ports, namespace, metadata,
+                ready, nodeName, zone);
     }
 
     @Override
     public Map<String, String> getMetadata() {
-        Map<String, String> metadata = Maps.newHashMap();
-        metadata.putAll(getLabels());
-        metadata.putAll(getAnnotations());
-        return metadata;
+        return metadata.getMerged();
     }
 
     public Map<String, String> getLabels() {
-        return null != endpoints.getMetadata().getLabels()
-                ? endpoints.getMetadata().getLabels()
-                : Collections.emptyMap();
+        return metadata.getLabels();
     }
 
     public Map<String, String> getAnnotations() {
-        return null != endpoints.getMetadata().getAnnotations()
-                ? endpoints.getMetadata().getAnnotations()
-                : Collections.emptyMap();
+        return metadata.getAnnotations();
+    }
+
+    /**
+     * 同一服务的实例共享的 {@link Metadata}
+     */
+    Metadata getSharedMetadata() {
+        return metadata;
+    }
+
+    /**
+     * 命名端口，scheme 优先按 appProtocol 推断，没有时按端口名推断（https、tls、grpcs、h2 及以其加 "-" 开头的名称视为加密）
+     */
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    public static final class NamedPort {
+
+        /**
+         * 可能为 null（Service 只有一个端口时可以不命名）
+         */
+        private final String name;
+        private final int port;
+        /**
+         * 可能为 null
+         */
+        private final String appProtocol;
+        @EqualsAndHashCode.Exclude
+        private final boolean secure;
+
+        private NamedPort(String name, int port, String appProtocol) {
+            this.name = name;
+            this.port = port;
+            this.appProtocol = appProtocol;
+            this.secure = isSecureProtocol(null != appProtocol ? appProtocol : name);
+        }
+
+        public static NamedPort of(String name, int port, String appProtocol) {
+            return new NamedPort(name, port, appProtocol);
+        }
+
+        /**
+         * 选出主端口：只有一个端口时取该端口，否则取名为 primaryPortName 的端口，没有时取第一个
+         *
+         * @return ports 为空时返回 null
+         */
+        public static NamedPort primaryOf(List<NamedPort> ports, String primaryPortName) {
+            if (ports.isEmpty()) {
+                return null;
+            }
+            if (ports.size() > 1 && null != primaryPortName && !primaryPortName.isEmpty()) {
+                for (NamedPort namedPort : ports) {
+                    if (primaryPortName.equalsIgnoreCase(namedPort.getName())) {
+                        return namedPort;
+                    }
+                }
+            }
+            return ports.get(0);
+        }
+
+        private static boolean isSecureProtocol(String protocol) {
+            if (null == protocol) {
+                return false;
+            }
+            // kubernetes.io/h2c 这类带前缀的 appProtocol 只看最后一段
+            String value = protocol.substring(protocol.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+            int dash = value.indexOf('-');
+            if (dash > 0) {
+                value = value.substring(0, dash);
+            }
+            return "https".equals(value) || "tls".equals(value) || "grpcs".equals(value) || "h2".equals(value);
+        }
     }
 
-    private String getUrl() {
-        return getScheme() + getHost() + ":" + getPort();
+    /**
+     * Endpoints 的 labels、annotations 只读副本，转换后不再持有 fabric8 对象
+     */
+    @Getter
+    @ToString(of = "merged")
+    public static final class Metadata {
+
+        public static final Metadata EMPTY =
+                new Metadata(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+        private final Map<String, String> labels;
+        private final Map<String, String> annotations;
+        /**
+         * labels 与 annotations 合并结果，同名时 annotations 优先
+         */
+        private final Map<String, String> merged;
+
+        private Metadata(Map<String, String> labels, Map<String, String> annotations, Map<String, String> merged) {
+            this.labels = labels;
+            this.annotations = annotations;
+            this.merged = merged;
+        }
+
+        public static Metadata of(Endpoints endpoints) {
+            ObjectMeta objectMeta = null != endpoints ? endpoints.getMetadata() : null;
+            if (null == objectMeta) {
+                return EMPTY;
+            }
+            return of(objectMeta.getLabels(), objectMeta.getAnnotations());
+        }
+
+        public static Metadata of(Map<String, String> labels, Map<String, String> annotations) {
+            Map<String, String> labelsCopy = copyOf(labels);
+            Map<String, String> annotationsCopy = copyOf(annotations);
+            if (labelsCopy.isEmpty() && annotationsCopy.isEmpty()) {
+                return EMPTY;
+            }
+            Map<String, String> merged;
+            if (annotationsCopy.isEmpty()) {
+                merged = labelsCopy;
+            } else if (labelsCopy.isEmpty()) {
+                merged = annotationsCopy;
+            } else {
+                Map<String, String> all = new HashMap<>(labelsCopy);
+                all.putAll(annotationsCopy);
+                merged = Collections.unmodifiableMap(all);
+            }
+            return new Metadata(labelsCopy, annotationsCopy, merged);
+        }
+
+        private static Map<String, String> copyOf(Map<String, String> source) {
+            return null == source || source.isEmpty()
+                    ? Collections.emptyMap()
+                    : Collections.unmodifiableMap(new HashMap<>(source));
+        }
     }
 
 }
@@ -0,0 +1,76 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+
+/**
+ * 快照中实例列表的内存占用估算，按 64 位 JVM、开启压缩指针计算
+ * <p>
+ * 只计算实例列表本身，不含共享的 metadata 与 serviceId、namespace 等字符串，也不含已解析的 uri；用于对比开启 compactInstances 前后的差异
+ *
+ * @since 1.0 2026/10/18
+ */
+@Getter
+@ToString
+public final class MemoryFootprint {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+
+    /**
+     * KubernetesServiceInstance 对象本身：对象头 + 10 个引用 + boolean，按 8 字节对齐
+     */
+    private static final int INSTANCE_OBJECT = 56;
+    /**
+     * String 对象本身，不含 byte[]
+     */
+    private static final int STRING_OBJECT = 24;
+
+    private final int services;
+    private final int instances;
+    /**
+     * 紧凑存储的实例数
+     */
+    private final int compactInstances;
+    private final long estimatedBytes;
+
+    private MemoryFootprint(int services, int instances, int compactInstances, long estimatedBytes) {
+        this.services = services;
+        this.instances = instances;
+        this.compactInstances = compactInstances;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public static MemoryFootprint of(DiscoverySnapshot snapshot) {
+        int instances = 0;
+        int compactInstances = 0;
+        long bytes = 0;
+        for (List<ServiceInstance> serviceInstances : snapshot.getInstances().values()) {
+            instances += serviceInstances.size();
+            if (serviceInstances instanceof CompactInstanceList) {
+                compactInstances += serviceInstances.size();
+                bytes += ((CompactInstanceList) serviceInstances).estimateBytes();
+                continue;
+            }
+            // 只读包装 + ArrayList + 数组
+            bytes += 16 + 24 + align(ARRAY_HEADER + (long) REFERENCE * serviceInstances.size());
+            for (ServiceInstance instance : serviceInstances) {
+                bytes += INSTANCE_OBJECT + string(instance.getHost()) + string(instance.getInstanceId());
+            }
+        }
+        return new MemoryFootprint(snapshot.getServiceIds().size(), instances, compactInstances, bytes);
+    }
+
+    private static long string(String value) {
+        return null == value ? 0 : STRING_OBJECT + align(ARRAY_HEADER + value.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
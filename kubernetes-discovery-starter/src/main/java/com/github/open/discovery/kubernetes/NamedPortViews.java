@@ -0,0 +1,71 @@
+package com.github.open.discovery.kubernetes;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按端口名查看实例：以该端口为主端口，没有该端口的实例被过滤
+ * <p>
+ * 视图按服务、端口名缓存，实例列表没有替换时直接返回上次的结果，不需要重新拉取
+ *
+ * @since 1.0 2026/10/18
+ */
+public class NamedPortViews {
+
+    /**
+     * key - serviceId，value - key 为小写的端口名
+     */
+    private final Map<String, Map<String, View>> views = new ConcurrentHashMap<>();
+
+    public List<ServiceInstance> apply(String serviceId, String portName, List<ServiceInstance> instances) {
+        Map<String, View> serviceViews = views.computeIfAbsent(serviceId, k -> new ConcurrentHashMap<>());
+        String key = portName.toLowerCase(Locale.ROOT);
+        View view = serviceViews.get(key);
+        if (null != view && view.source == instances) {
+            return view.instances;
+        }
+        List<ServiceInstance> result = withPort(portName, instances);
+        serviceViews.put(key, new View(instances, result));
+        return result;
+    }
+
+    /**
+     * 清理已不存在的服务的视图
+     */
+    public void retain(Collection<String> serviceIds) {
+        views.keySet().retainAll(serviceIds);
+    }
+
+    private static List<ServiceInstance> withPort(String portName, List<ServiceInstance> instances) {
+        List<ServiceInstance> result = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!(instance instanceof KubernetesServiceInstance)) {
+                continue;
+            }
+            KubernetesServiceInstance view = ((KubernetesServiceInstance) instance).withPort(portName);
+            if (null != view) {
+                result.add(view);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static final class View {
+
+        private final List<ServiceInstance> source;
+        private final List<ServiceInstance> instances;
+
+        private View(List<ServiceInstance> source, List<ServiceInstance> instances) {
+            this.source = source;
+            this.instances = instances;
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 每个 namespace 一个熔断器：连续失败 failureThreshold 次后打开，打开时长按指数退避并加随机抖动；
+ * 到期后放行一次探测请求（半开），成功则关闭，失败则继续退避。
+ * <p>
+ * 熔断期间不请求 api-server，调用方沿用上一次成功的数据
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class NamespaceCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    /**
+     * key - namespace
+     */
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>();
+
+    public NamespaceCircuitBreaker(int failureThreshold, long initialBackoffMillis, long maxBackoffMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * @return false - 熔断中，本次不要请求 api-server
+     */
+    public boolean allowRequest(String namespace) {
+        return breaker(namespace).allowRequest();
+    }
+
+    public void onSuccess(String namespace) {
+        breaker(namespace).onSuccess(namespace);
+    }
+
+    public void onFailure(String namespace, Throwable cause) {
+        breaker(namespace).onFailure(namespace, cause);
+    }
+
+    /**
+     * 请求没有结果就被取消（如刷新线程被中断）时调用：不计入失败，半开状态的探测请求作废，下次立即重新探测
+     */
+    public void onCancelled(String namespace) {
+        breaker(namespace).onCancelled();
+    }
+
+    /**
+     * @return key - namespace，按 namespace 排序
+     */
+    public Map<String, Status> getStatus() {
+        Map<String, Status> result = new LinkedHashMap<>();
+        breakers.keySet().stream().sorted().forEach(namespace -> result.put(namespace, breakers.get(namespace).status()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private Breaker breaker(String namespace) {
+        return breakers.computeIfAbsent(namespace, k -> new Breaker());
+    }
+
+    private final class Breaker {
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+        private String lastError;
+        private long lastSuccessTime;
+
+        synchronized boolean allowRequest() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (System.currentTimeMillis() >= openUntil) {
+                        state = State.HALF_OPEN;
+                        return true;
+                    }
+                    return false;
+                case HALF_OPEN:
+                default:
+                    // 探测请求还没有结果
+                    return false;
+            }
+        }
+
+        synchronized void onSuccess(String namespace) {
+            if (state != State.CLOSED) {
+                log.info("circuit closed, namespace: '{}'", namespace);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            lastSuccessTime = System.currentTimeMillis();
+        }
+
+        synchronized void onFailure(String namespace, Throwable cause) {
+            consecutiveFailures++;
+            lastError = null != cause ? cause.toString() : null;
+            if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                long backoff = backoffMillis(consecutiveFailures - failureThreshold);
+                openUntil = System.currentTimeMillis() + backoff;
+                if (state != State.OPEN) {
+                    log.warn("circuit open for {}ms, namespace: '{}', consecutive failures: {}",
+                            backoff, namespace, consecutiveFailures);
+                }
+                state = State.OPEN;
+            }
+        }
+
+        synchronized void onCancelled() {
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+                openUntil = System.currentTimeMillis();
+            }
+        }
+
+        /**
+         * initial * 2^attempt，不超过 max，再乘以 [0.5, 1.5) 的随机系数
+         */
+        private long backoffMillis(int attempt) {
+            long backoff = initialBackoffMillis << Math.min(Math.max(attempt, 0), 20);
+            backoff = Math.min(backoff, maxBackoffMillis);
+            return (long) (backoff * (0.5 + ThreadLocalRandom.current().nextDouble()));
+        }
+
+        synchronized Status status() {
+            return new Status(state, consecutiveFailures, state == State.OPEN ? openUntil : 0,
+                    lastError, lastSuccessTime);
+        }
+    }
+
+    @Getter
+    public static final class Status {
+
+        private final State state;
+        private final int consecutiveFailures;
+        /**
+         * OPEN 状态下熔断结束时间
+         */
+        private final long openUntil;
+        private final String lastError;
+        private final long lastSuccessTime;
+
+        private Status(State state, int consecutiveFailures, long openUntil, String lastError, long lastSuccessTime) {
+            this.state = state;
+            this.consecutiveFailures = consecutiveFailures;
+            this.openUntil = openUntil;
+            this.lastError = lastError;
+            this.lastSuccessTime = lastSuccessTime;
+        }
+    }
+
+}
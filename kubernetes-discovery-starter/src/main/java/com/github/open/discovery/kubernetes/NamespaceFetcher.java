@@ -0,0 +1,191 @@
+package com.github.open.discovery.kubernetes;
+
+import com.github.open.discovery.kubernetes.metrics.DiscoveryMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 并发拉取多个 namespace 的资源，并发数有上限，每个 namespace 单独超时，从拿到并发许可开始计时
+ * <p>
+ * 整轮耗时取决于最慢的那个 namespace，而不是所有 namespace 耗时之和。
+ * 失败时在重试预算内重试一次；namespace 熔断期间直接跳过，按失败处理
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class NamespaceFetcher {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long timeoutMillis;
+    private final DiscoveryMetrics metrics;
+    private final NamespaceCircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final long retryBackoffMillis;
+
+    /**
+     * @param executor 执行拉取的线程池，由调用方管理生命周期
+     */
+    public NamespaceFetcher(ExecutorService executor, int parallelism, long timeoutMillis,
+                            DiscoveryMetrics metrics,
+                            NamespaceCircuitBreaker circuitBreaker,
+                            RetryBudget retryBudget,
+                            long retryBackoffMillis) {
+        this.executor = executor;
+        this.permits = new Semaphore(parallelism);
+        this.timeoutMillis = timeoutMillis;
+        this.metrics = metrics;
+        this.circuitBreaker = circuitBreaker;
+        this.retryBudget = retryBudget;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * @param resource {@link DiscoveryMetrics#RESOURCE_SERVICES} 或 {@link DiscoveryMetrics#RESOURCE_ENDPOINTS}
+     * @return key - namespace，顺序与入参一致；失败或超时的 namespace 不在结果中，由调用方决定如何兜底
+     */
+    public <T> Map<String, T> fetch(String resource, Collection<String> namespaces, Function<String, T> fetcher) {
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<T>, Task<T>> pending = new HashMap<>();
+        for (String namespace : namespaces) {
+            if (!circuitBreaker.allowRequest(namespace)) {
+                log.debug("Fetching {} skipped, circuit open, namespace: '{}'", resource, namespace);
+                continue;
+            }
+            Task<T> task = new Task<>(namespace);
+            try {
+                task.future = completionService.submit(() -> {
+                    permits.acquire();
+                    try {
+                        // 拿到许可后才开始计时，排队时间不计入超时
+                        task.startNanos = System.nanoTime();
+                        return fetchWithRetry(resource, namespace, fetcher);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 线程池已关闭
+                circuitBreaker.onCancelled(namespace);
+                log.debug("Fetching {} rejected, namespace: '{}'", resource, namespace);
+                continue;
+            }
+            pending.put(task.future, task);
+        }
+
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Map<String, T> fetched = new HashMap<>();
+        try {
+            while (!pending.isEmpty()) {
+                long now = System.nanoTime();
+                long wakeUp = now + timeoutNanos;
+                for (Iterator<Task<T>> iterator = pending.values().iterator(); iterator.hasNext(); ) {
+                    Task<T> task = iterator.next();
+                    long start = task.startNanos;
+                    if (task.future.isDone()) {
+                        collect(resource, task, fetched);
+                        iterator.remove();
+                    } else if (start != 0 && now - start >= timeoutNanos) {
+                        task.future.cancel(true);
+                        metrics.recordRefreshFailure(task.namespace, resource);
+                        circuitBreaker.onFailure(task.namespace, new TimeoutException());
+                        log.warn("Fetching {} timeout after {}ms, namespace: '{}'", resource, timeoutMillis,
+                                task.namespace);
+                        iterator.remove();
+                    } else if (start != 0) {
+                        wakeUp = Math.min(wakeUp, start + timeoutNanos);
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    // 有 namespace 完成或最早开始的 namespace 到期时醒来
+                    Future<T> done = completionService.poll(Math.max(0, wakeUp - System.nanoTime()),
+                            TimeUnit.NANOSECONDS);
+                    if (null != done && pending.containsKey(done)) {
+                        collect(resource, pending.remove(done), fetched);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            pending.values().forEach(task -> {
+                task.future.cancel(true);
+                // 没有结果，不能让半开状态的探测一直占着
+                circuitBreaker.onCancelled(task.namespace);
+            });
+            Thread.currentThread().interrupt();
+            log.warn("Fetching {} interrupted, namespaces: {}", resource, namespaces(pending.values()));
+        }
+
+        Map<String, T> result = new LinkedHashMap<>();
+        for (String namespace : namespaces) {
+            if (fetched.containsKey(namespace)) {
+                result.put(namespace, fetched.get(namespace));
+            }
+        }
+        return result;
+    }
+
+    private <T> void collect(String resource, Task<T> task, Map<String, T> fetched) throws InterruptedException {
+        try {
+            fetched.put(task.namespace, task.future.get());
+            circuitBreaker.onSuccess(task.namespace);
+        } catch (ExecutionException e) {
+            metrics.recordRefreshFailure(task.namespace, resource);
+            circuitBreaker.onFailure(task.namespace, e.getCause());
+            log.warn("Fetching {} failed, namespace: '{}'", resource, task.namespace, e.getCause());
+        }
+    }
+
+    private static <T> List<String> namespaces(Collection<Task<T>> tasks) {
+        List<String> namespaces = new ArrayList<>(tasks.size());
+        tasks.forEach(task -> namespaces.add(task.namespace));
+        return namespaces;
+    }
+
+    private <T> T fetchWithRetry(String resource, String namespace, Function<String, T> fetcher)
+            throws InterruptedException {
+        retryBudget.onRequest();
+        try {
+            return fetcher.apply(namespace);
+        } catch (RuntimeException e) {
+            if (!retryBudget.tryRetry()) {
+                throw e;
+            }
+            log.debug("Fetching {} failed, retry, namespace: '{}'", resource, namespace, e);
+            Thread.sleep((long) (retryBackoffMillis * (0.5 + ThreadLocalRandom.current().nextDouble())));
+            return fetcher.apply(namespace);
+        }
+    }
+
+    private static final class Task<T> {
+
+        private final String namespace;
+        private Future<T> future;
+        /**
+         * 拿到许可开始拉取的时间，0 表示还在排队
+         */
+        private volatile long startNanos;
+
+        private Task(String namespace) {
+            this.namespace = namespace;
+        }
+    }
+
+}
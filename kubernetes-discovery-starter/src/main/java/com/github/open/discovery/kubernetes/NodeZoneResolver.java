@@ -0,0 +1,137 @@
+package com.github.open.discovery.kubernetes;
+
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 通过 Node 标签查询节点所在可用区，按集群缓存，过期后重新 LIST
+ * <p>
+ * Endpoints 只带 nodeName 不带可用区，EndpointSlice 自带可用区不需要查询。
+ * 加载在拉取 namespace 之前由 {@link #refresh(Collection)} 完成，每个集群同时只有一个线程加载且有超时，
+ * {@link #zoneOf(KubernetesClient, String)} 只读缓存
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class NodeZoneResolver {
+
+    public static final String ZONE_LABEL = "topology.kubernetes.io/zone";
+    private static final String LEGACY_ZONE_LABEL = "failure-domain.beta.kubernetes.io/zone";
+
+    private final ExecutorService executor;
+    private final long ttlMillis;
+    private final long timeoutMillis;
+    /**
+     * key - api-server 地址
+     */
+    private final Map<String, Zones> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor 执行 LIST 的线程池，调用线程只等待 timeoutMillis
+     */
+    public NodeZoneResolver(ExecutorService executor, long ttlMillis, long timeoutMillis) {
+        this.executor = executor;
+        this.ttlMillis = ttlMillis;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 加载已过期集群的节点可用区；其他线程正在加载时不等待，沿用旧数据
+     *
+     * @param clients 同一集群的多个 client 只加载一次
+     */
+    public void refresh(Collection<KubernetesClient> clients) {
+        for (KubernetesClient client : clients) {
+            Zones zones = cache.computeIfAbsent(String.valueOf(client.getMasterUrl()), k -> new Zones());
+            if (System.currentTimeMillis() - zones.loadTime <= ttlMillis || !zones.loading.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                Map<String, String> loaded = load(client);
+                if (null != loaded) {
+                    zones.zones = loaded;
+                }
+                // 失败时过期前不再重试
+                zones.loadTime = System.currentTimeMillis();
+            } finally {
+                zones.loading.set(false);
+            }
+        }
+    }
+
+    /**
+     * @return 节点所在可用区，未知或还没加载时返回 null
+     */
+    public String zoneOf(KubernetesClient client, String nodeName) {
+        if (null == client || null == nodeName) {
+            return null;
+        }
+        Zones zones = cache.get(String.valueOf(client.getMasterUrl()));
+        return null != zones ? zones.zones.get(nodeName) : null;
+    }
+
+    /**
+     * @return 失败或超时返回 null
+     */
+    private Map<String, String> load(KubernetesClient client) {
+        Future<Map<String, String>> future = null;
+        try {
+            future = executor.submit(() -> list(client));
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Fetching Nodes timeout after {}ms, cluster: '{}'", timeoutMillis, client.getMasterUrl());
+        } catch (ExecutionException e) {
+            // 没有 nodes 权限时不影响服务发现
+            log.warn("Fetching Nodes failed, zone of instances will be unknown, cluster: '{}'",
+                    client.getMasterUrl(), e.getCause());
+        } catch (RejectedExecutionException e) {
+            log.warn("Fetching Nodes rejected, cluster: '{}'", client.getMasterUrl());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (null != future) {
+            future.cancel(true);
+        }
+        return null;
+    }
+
+    private static Map<String, String> list(KubernetesClient client) {
+        Map<String, String> zones = new HashMap<>();
+        for (Node node : client.nodes().list().getItems()) {
+            Map<String, String> labels = node.getMetadata().getLabels();
+            if (null == labels) {
+                continue;
+            }
+            String zone = labels.containsKey(ZONE_LABEL) ? labels.get(ZONE_LABEL) : labels.get(LEGACY_ZONE_LABEL);
+            if (null != zone) {
+                zones.put(node.getMetadata().getName(), zone);
+            }
+        }
+        return zones;
+    }
+
+    private static final class Zones {
+
+        private volatile Map<String, String> zones = Collections.emptyMap();
+        /**
+         * 0 表示还没加载过
+         */
+        private volatile long loadTime;
+        private final AtomicBoolean loading = new AtomicBoolean();
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按服务决定实例列表的刷新时机
+ * <p>
+ * 热点服务（每分钟 getInstances 次数达到阈值）从 minInterval 开始刷新，其余服务从 interval 开始；
+ * 刷新后实例列表没有变化则间隔翻倍，热点服务最多退避到 interval，其余服务最多退避到 maxInterval，有变化时恢复初始间隔。
+ * 配置了单独间隔的服务固定按该间隔刷新。
+ * 下次刷新时间在间隔上下随机浮动，新服务的首次刷新时间在一个间隔内随机，使刷新均匀分布。
+ * <p>
+ * 除 {@link #onAccess(String)} 外只在 scheduler 线程上调用。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class RefreshPlanner {
+
+    private static final long HOTNESS_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final long intervalMillis;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final double jitterRatio;
+    private final int hotRequestsPerMinute;
+    /**
+     * key - serviceId
+     */
+    private final Map<String, Long> overrides;
+
+    private final Map<String, AtomicInteger> accessCounts = new ConcurrentHashMap<>();
+    private final Map<String, State> states = new HashMap<>();
+    private Set<String> hotServices = new HashSet<>();
+    private long windowStart = System.currentTimeMillis();
+
+    /**
+     * @param overrides key - serviceId，value - 刷新间隔（毫秒）
+     */
+    public RefreshPlanner(long intervalMillis, long minIntervalMillis, long maxIntervalMillis, double jitterRatio,
+                          int hotRequestsPerMinute, Map<String, Long> overrides) {
+        this.intervalMillis = intervalMillis;
+        this.minIntervalMillis = Math.min(minIntervalMillis, intervalMillis);
+        this.maxIntervalMillis = Math.max(maxIntervalMillis, intervalMillis);
+        this.jitterRatio = jitterRatio;
+        this.hotRequestsPerMinute = hotRequestsPerMinute;
+        this.overrides = overrides;
+    }
+
+    /**
+     * 记录一次访问，getInstances 时调用
+     */
+    public void onAccess(String serviceId) {
+        AtomicInteger count = accessCounts.get(serviceId);
+        if (null == count) {
+            count = accessCounts.computeIfAbsent(serviceId, k -> new AtomicInteger());
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * @param serviceIds 当前需要维护实例列表的服务，其余服务的状态被清理
+     * @return 到期需要刷新的服务
+     */
+    public Set<String> due(Collection<String> serviceIds, long now) {
+        updateHotness(now);
+        states.keySet().retainAll(serviceIds);
+
+        Set<String> due = new HashSet<>();
+        for (String serviceId : serviceIds) {
+            State state = states.get(serviceId);
+            if (null == state) {
+                // 刚加载过，首次刷新时间在一个间隔内随机
+                long interval = initialInterval(serviceId);
+                states.put(serviceId, new State(interval, now + ThreadLocalRandom.current().nextLong(interval + 1)));
+            } else if (state.nextRefreshTime <= now) {
+                due.add(serviceId);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * 刷新成功后调用
+     *
+     * @param changed 实例列表是否有变化
+     */
+    public void onRefreshed(String serviceId, boolean changed, long now) {
+        State state = states.get(serviceId);
+        if (null == state) {
+            return;
+        }
+        Long override = overrides.get(serviceId);
+        if (null != override) {
+            state.interval = override;
+        } else if (changed) {
+            state.interval = initialInterval(serviceId);
+        } else {
+            state.interval = Math.min(state.interval * 2, maxInterval(serviceId));
+        }
+        state.nextRefreshTime = now + jitter(state.interval);
+    }
+
+    /**
+     * @return 当前的热点服务
+     */
+    public Set<String> getHotServices() {
+        return hotServices;
+    }
+
+    private void updateHotness(long now) {
+        long elapsed = now - windowStart;
+        if (elapsed < HOTNESS_WINDOW_MILLIS) {
+            return;
+        }
+        Set<String> hot = new HashSet<>();
+        accessCounts.forEach((serviceId, count) -> {
+            if (count.getAndSet(0) * HOTNESS_WINDOW_MILLIS / elapsed >= hotRequestsPerMinute) {
+                hot.add(serviceId);
+            }
+        });
+        accessCounts.keySet().retainAll(states.keySet());
+        windowStart = now;
+
+        for (String serviceId : hot) {
+            State state = states.get(serviceId);
+            if (null != state && !hotServices.contains(serviceId) && !overrides.containsKey(serviceId)) {
+                // 刚变热的服务立即按热点间隔重新排期
+                state.interval = minIntervalMillis;
+                state.nextRefreshTime = Math.min(state.nextRefreshTime, now + jitter(minIntervalMillis));
+            }
+        }
+        if (!hot.equals(hotServices)) {
+            log.debug("hot services: {}", hot);
+        }
+        hotServices = hot;
+    }
+
+    private long initialInterval(String serviceId) {
+        Long override = overrides.get(serviceId);
+        if (null != override) {
+            return override;
+        }
+        return hotServices.contains(serviceId) ? minIntervalMillis : intervalMillis;
+    }
+
+    private long maxInterval(String serviceId) {
+        return hotServices.contains(serviceId) ? intervalMillis : maxIntervalMillis;
+    }
+
+    private long jitter(long interval) {
+        long jitter = (long) (interval * jitterRatio);
+        return jitter > 0 ? interval - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1) : interval;
+    }
+
+    private static final class State {
+
+        private long interval;
+        private long nextRefreshTime;
+
+        private State(long interval, long nextRefreshTime) {
+            this.interval = interval;
+            this.nextRefreshTime = nextRefreshTime;
+        }
+    }
+
+}
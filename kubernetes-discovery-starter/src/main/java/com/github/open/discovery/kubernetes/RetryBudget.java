@@ -0,0 +1,36 @@
+package com.github.open.discovery.kubernetes;
+
+/**
+ * 重试预算：每次请求存入 ratio 个令牌，每次重试消耗一个，令牌数不超过 maxTokens。
+ * api-server 大面积故障时重试次数被限制在请求数的 ratio 倍以内，避免重试放大压力。
+ *
+ * @since 1.0 2026/10/18
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * @return true - 可以重试，已扣除一个令牌
+     */
+    public synchronized boolean tryRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+}
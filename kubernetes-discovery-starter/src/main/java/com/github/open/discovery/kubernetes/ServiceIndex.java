@@ -0,0 +1,269 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * serviceId → Service 索引，按 namespace 增量维护，每轮只重新解析有变化的 serviceId
+ * <p>
+ * 多个 Service 声明同一个 serviceId 时，按 namespace 顺序（即 includeNamespaces 的配置顺序）靠前的优先，
+ * 同一 namespace 内按 Service 名排序；其余 Service 记录在冲突表中，只在冲突首次出现时打印日志。
+ * <p>
+ * 只在 scheduler 线程上更新，{@link #getServices()}、{@link #getConflicts()} 可在任意线程读取，
+ * {@link #getServiceId(String, String)} 只能在 scheduler 线程上调用。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class ServiceIndex {
+
+    private final Set<String> excludeServices;
+
+    /**
+     * 每个 namespace 上一次的 Service，key - namespace，value - key 为 Service 名
+     */
+    private final Map<String, Map<String, KubernetesService>> byNamespace = new HashMap<>();
+    /**
+     * 声明了同一 serviceId 的全部 Service，key - serviceId
+     */
+    private final Map<String, List<KubernetesService>> candidates = new HashMap<>();
+    /**
+     * namespace 优先级，越小越优先
+     */
+    private Map<String, Integer> priorities = Collections.emptyMap();
+
+    private final Map<String, KubernetesService> resolved = new HashMap<>();
+    /**
+     * 生效的 Service 的 serviceId，key - namespace 标识，value - key 为 Service 名
+     */
+    private final Map<String, Map<String, String>> resolvedByName = new HashMap<>();
+    private final Map<String, Conflict> conflicts = new HashMap<>();
+
+    private volatile Map<String, KubernetesService> services = Collections.emptyMap();
+    private volatile Map<String, Conflict> conflictView = Collections.emptyMap();
+
+    public ServiceIndex(Set<String> excludeServices) {
+        this.excludeServices = excludeServices;
+    }
+
+    /**
+     * 用本轮拉取结果更新索引，没有出现在结果中的 namespace 被移除
+     *
+     * @param servicesByNamespace key - namespace 标识，按优先级排序
+     * @return 索引是否有变化
+     */
+    public boolean update(Map<String, List<KubernetesService>> servicesByNamespace) {
+        Set<String> dirty = new HashSet<>();
+
+        Map<String, Integer> newPriorities = new HashMap<>(servicesByNamespace.size() * 2);
+        for (String namespace : servicesByNamespace.keySet()) {
+            newPriorities.put(namespace, newPriorities.size());
+        }
+        if (!newPriorities.equals(priorities)) {
+            // namespace 顺序变化，所有冲突都要重新解析
+            dirty.addAll(conflicts.keySet());
+            priorities = newPriorities;
+        }
+
+        for (String namespace : new ArrayList<>(byNamespace.keySet())) {
+            if (!servicesByNamespace.containsKey(namespace)) {
+                updateNamespace(namespace, Collections.emptyList(), dirty);
+                byNamespace.remove(namespace);
+            }
+        }
+        servicesByNamespace.forEach((namespace, services) -> updateNamespace(namespace, services, dirty));
+
+        if (dirty.isEmpty()) {
+            return false;
+        }
+        boolean changed = false;
+        for (String serviceId : dirty) {
+            changed |= resolve(serviceId);
+        }
+        if (changed) {
+            services = Collections.unmodifiableMap(new HashMap<>(resolved));
+        }
+        conflictView = Collections.unmodifiableMap(new HashMap<>(conflicts));
+        return changed;
+    }
+
+    /**
+     * @return 当前的 serviceId → Service，没有变化时返回同一个对象
+     */
+    public Map<String, KubernetesService> getServices() {
+        return services;
+    }
+
+    /**
+     * @return 存在冲突的 serviceId，key - serviceId
+     */
+    public Map<String, Conflict> getConflicts() {
+        return conflictView;
+    }
+
+    /**
+     * @param namespace namespace 标识
+     * @param name      Service 名
+     * @return 该 Service 生效时的 serviceId，不存在或被同名 serviceId 的其他 Service 覆盖时返回 null
+     */
+    public String getServiceId(String namespace, String name) {
+        Map<String, String> serviceIds = resolvedByName.get(namespace);
+        return null != serviceIds ? serviceIds.get(name) : null;
+    }
+
+    private void updateNamespace(String namespace, List<KubernetesService> services, Set<String> dirty) {
+        Map<String, KubernetesService> previous = byNamespace.getOrDefault(namespace, Collections.emptyMap());
+        Map<String, KubernetesService> current = new HashMap<>(services.size() * 2);
+        for (KubernetesService kubernetesService : services) {
+            if (excludeServices.contains(kubernetesService.getId())) {
+                continue;
+            }
+            current.put(kubernetesService.getName(), kubernetesService);
+            KubernetesService old = previous.get(kubernetesService.getName());
+            if (null == old) {
+                addCandidate(kubernetesService, dirty);
+            } else if (!Objects.equals(old.getId(), kubernetesService.getId())) {
+                removeCandidate(old, dirty);
+                addCandidate(kubernetesService, dirty);
+            }
+        }
+        for (KubernetesService old : previous.values()) {
+            if (!current.containsKey(old.getName())) {
+                removeCandidate(old, dirty);
+            }
+        }
+        if (current.isEmpty()) {
+            byNamespace.remove(namespace);
+        } else {
+            // serviceId 没变的沿用旧对象，已解析的结果不受影响
+            current.replaceAll((name, kubernetesService) -> {
+                KubernetesService old = previous.get(name);
+                return null != old && Objects.equals(old.getId(), kubernetesService.getId()) ? old : kubernetesService;
+            });
+            byNamespace.put(namespace, current);
+        }
+    }
+
+    private void addCandidate(KubernetesService kubernetesService, Set<String> dirty) {
+        candidates.computeIfAbsent(kubernetesService.getId(), k -> new ArrayList<>(1)).add(kubernetesService);
+        dirty.add(kubernetesService.getId());
+    }
+
+    private void removeCandidate(KubernetesService kubernetesService, Set<String> dirty) {
+        List<KubernetesService> list = candidates.get(kubernetesService.getId());
+        if (null != list) {
+            list.remove(kubernetesService);
+            if (list.isEmpty()) {
+                candidates.remove(kubernetesService.getId());
+            }
+        }
+        dirty.add(kubernetesService.getId());
+    }
+
+    /**
+     * @return 解析结果是否有变化
+     */
+    private boolean resolve(String serviceId) {
+        List<KubernetesService> list = candidates.get(serviceId);
+        if (null == list || list.isEmpty()) {
+            conflicts.remove(serviceId);
+            KubernetesService removed = resolved.remove(serviceId);
+            unindexName(removed);
+            return null != removed;
+        }
+
+        KubernetesService winner;
+        if (list.size() == 1) {
+            winner = list.get(0);
+            conflicts.remove(serviceId);
+        } else {
+            list.sort(Comparator
+                    .comparingInt((KubernetesService s) -> priorities.getOrDefault(s.getNamespaceKey(), Integer.MAX_VALUE))
+                    .thenComparing(KubernetesService::getName));
+            winner = list.get(0);
+            Conflict conflict = new Conflict(winner,
+                    Collections.unmodifiableList(new ArrayList<>(list.subList(1, list.size()))));
+            Conflict previous = conflicts.put(serviceId, conflict);
+            if (!conflict.equals(previous)) {
+                log.warn("duplicate serviceId '{}', use Service [{}]({}), ignored: {}", serviceId,
+                        winner.getNamespaceKey(), winner.getName(), conflict.describeShadowed());
+            }
+        }
+        KubernetesService previous = resolved.put(serviceId, winner);
+        if (previous == winner) {
+            return false;
+        }
+        unindexName(previous);
+        resolvedByName.computeIfAbsent(winner.getNamespaceKey(), k -> new HashMap<>()).put(winner.getName(), serviceId);
+        return true;
+    }
+
+    private void unindexName(KubernetesService kubernetesService) {
+        if (null == kubernetesService) {
+            return;
+        }
+        Map<String, String> serviceIds = resolvedByName.get(kubernetesService.getNamespaceKey());
+        // 同名 Service 改了 serviceId 时新 serviceId 可能先解析，只移除自己的映射
+        if (null != serviceIds && serviceIds.remove(kubernetesService.getName(), kubernetesService.getId())
+                && serviceIds.isEmpty()) {
+            resolvedByName.remove(kubernetesService.getNamespaceKey());
+        }
+    }
+
+    /**
+     * 一个 serviceId 的冲突：生效的 Service 及被忽略的 Service
+     */
+    @Getter
+    @ToString
+    public static final class Conflict {
+
+        private final KubernetesService winner;
+        private final List<KubernetesService> shadowed;
+
+        private Conflict(KubernetesService winner, List<KubernetesService> shadowed) {
+            this.winner = winner;
+            this.shadowed = shadowed;
+        }
+
+        private String describeShadowed() {
+            StringBuilder builder = new StringBuilder();
+            for (KubernetesService kubernetesService : shadowed) {
+                if (builder.length() > 0) {
+                    builder.append(", ");
+                }
+                builder.append('[').append(kubernetesService.getNamespaceKey()).append("](")
+                        .append(kubernetesService.getName()).append(')');
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Conflict)) {
+                return false;
+            }
+            Conflict that = (Conflict) o;
+            return winner == that.winner && shadowed.equals(that.shadowed);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(winner), shadowed);
+        }
+    }
+
+}
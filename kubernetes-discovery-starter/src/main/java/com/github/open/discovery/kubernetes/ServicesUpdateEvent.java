@@ -2,20 +2,57 @@ package com.github.open.discovery.kubernetes;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 public class ServicesUpdateEvent extends ApplicationEvent {
+
+    private final SnapshotDiff diff;
+
     /**
      * Create a new ApplicationEvent.
      *
      * @param source the object on which the event initially occurred (never {@code null})
      */
     public ServicesUpdateEvent(Set<String> source) {
+        this(source, new SnapshotDiff(source, Collections.emptySet(), Collections.emptySet(), Collections.emptyMap()));
+    }
+
+    /**
+     * @param source 当前全部 serviceId
+     * @param diff   与上一个快照的差异
+     */
+    public ServicesUpdateEvent(Set<String> source, SnapshotDiff diff) {
         super(source);
+        this.diff = diff;
     }
 
     @Override
     public Set<String> getSource() {
         return (Set<String>) super.getSource();
     }
+
+    public Set<String> getAdded() {
+        return diff.getAdded();
+    }
+
+    public Set<String> getRemoved() {
+        return diff.getRemoved();
+    }
+
+    public Set<String> getModified() {
+        return diff.getModified();
+    }
+
+    /**
+     * @return key - serviceId，只包含实例有增减的服务
+     */
+    public Map<String, SnapshotDiff.InstanceChange> getInstanceChanges() {
+        return diff.getInstanceChanges();
+    }
+
+    public SnapshotDiff getDiff() {
+        return diff;
+    }
 }
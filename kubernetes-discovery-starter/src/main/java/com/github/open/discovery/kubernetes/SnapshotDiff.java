@@ -0,0 +1,152 @@
+package com.github.open.discovery.kubernetes;
+
+import lombok.Getter;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 两个服务发现快照之间的差异
+ * <p>
+ * 实例列表没有替换（引用相同）的服务直接跳过，只有被替换的列表才按 instanceId 比较
+ *
+ * @since 1.0 2026/10/18
+ */
+@Getter
+public class SnapshotDiff {
+
+    private final Set<String> added;
+    private final Set<String> removed;
+    /**
+     * serviceId 不变，但对应的 Kubernetes Service 变了
+     */
+    private final Set<String> modified;
+    /**
+     * key - serviceId
+     */
+    private final Map<String, InstanceChange> instanceChanges;
+
+    public SnapshotDiff(Set<String> added,
+                        Set<String> removed,
+                        Set<String> modified,
+                        Map<String, InstanceChange> instanceChanges) {
+        this.added = Collections.unmodifiableSet(added);
+        this.removed = Collections.unmodifiableSet(removed);
+        this.modified = Collections.unmodifiableSet(modified);
+        this.instanceChanges = Collections.unmodifiableMap(instanceChanges);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && modified.isEmpty() && instanceChanges.isEmpty();
+    }
+
+    public static SnapshotDiff between(DiscoverySnapshot previous, DiscoverySnapshot next) {
+        Set<String> added = new HashSet<>();
+        Set<String> removed = new HashSet<>();
+        Set<String> modified = new HashSet<>();
+        Map<String, InstanceChange> instanceChanges = new HashMap<>();
+
+        next.getServices().forEach((serviceId, service) -> {
+            KubernetesService old = previous.getService(serviceId);
+            if (null == old) {
+                added.add(serviceId);
+            } else if (!Objects.equals(old.getNamespaceKey(), service.getNamespaceKey())
+                    || !Objects.equals(old.getName(), service.getName())) {
+                modified.add(serviceId);
+            }
+
+            List<ServiceInstance> oldInstances = previous.getInstances(serviceId);
+            List<ServiceInstance> newInstances = next.getInstances(serviceId);
+            if (oldInstances == newInstances || null == newInstances) {
+                return;
+            }
+            if (null == oldInstances) {
+                // 淘汰后重新加载的不算变化
+                if (null == old) {
+                    putIfChanged(instanceChanges, serviceId, InstanceChange.of(newInstances, Collections.emptyList()));
+                }
+                return;
+            }
+            putIfChanged(instanceChanges, serviceId, InstanceChange.between(oldInstances, newInstances));
+        });
+
+        previous.getServices().keySet().forEach(serviceId -> {
+            if (!next.getServices().containsKey(serviceId)) {
+                removed.add(serviceId);
+                List<ServiceInstance> oldInstances = previous.getInstances(serviceId);
+                if (null != oldInstances) {
+                    putIfChanged(instanceChanges, serviceId, InstanceChange.of(Collections.emptyList(), oldInstances));
+                }
+            }
+        });
+
+        return new SnapshotDiff(added, removed, modified, instanceChanges);
+    }
+
+    private static void putIfChanged(Map<String, InstanceChange> changes, String serviceId, InstanceChange change) {
+        if (!change.isEmpty()) {
+            changes.put(serviceId, change);
+        }
+    }
+
+    /**
+     * 单个服务的实例变化，按 instanceId 比较，就绪状态变化视为先移除再新增
+     */
+    @Getter
+    public static class InstanceChange {
+
+        private final List<ServiceInstance> added;
+        private final List<ServiceInstance> removed;
+
+        private InstanceChange(List<ServiceInstance> added, List<ServiceInstance> removed) {
+            this.added = Collections.unmodifiableList(added);
+            this.removed = Collections.unmodifiableList(removed);
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+
+        static InstanceChange of(List<ServiceInstance> added, List<ServiceInstance> removed) {
+            return new InstanceChange(added, removed);
+        }
+
+        static InstanceChange between(List<ServiceInstance> oldInstances, List<ServiceInstance> newInstances) {
+            Set<String> oldKeys = new HashSet<>(oldInstances.size() * 2);
+            for (ServiceInstance instance : oldInstances) {
+                oldKeys.add(key(instance));
+            }
+            Set<String> newKeys = new HashSet<>(newInstances.size() * 2);
+            List<ServiceInstance> added = new ArrayList<>();
+            for (ServiceInstance instance : newInstances) {
+                String key = key(instance);
+                newKeys.add(key);
+                if (!oldKeys.contains(key)) {
+                    added.add(instance);
+                }
+            }
+            List<ServiceInstance> removed = new ArrayList<>();
+            for (ServiceInstance instance : oldInstances) {
+                if (!newKeys.contains(key(instance))) {
+                    removed.add(instance);
+                }
+            }
+            return new InstanceChange(added, removed);
+        }
+
+        private static String key(ServiceInstance instance) {
+            if (instance instanceof KubernetesServiceInstance && !((KubernetesServiceInstance) instance).isReady()) {
+                return instance.getInstanceId() + "#not-ready";
+            }
+            return instance.getInstanceId();
+        }
+    }
+
+}
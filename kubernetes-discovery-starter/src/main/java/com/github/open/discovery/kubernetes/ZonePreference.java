@@ -0,0 +1,95 @@
+package com.github.open.discovery.kubernetes;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 同可用区优先的实例视图：只保留就绪实例，同可用区实例足够时只返回同可用区实例，
+ * 否则返回全部就绪实例（同可用区在前）。
+ * <p>
+ * 视图按服务缓存，实例列表没有替换时直接返回上次的结果
+ *
+ * @since 1.0 2026/10/18
+ */
+public class ZonePreference {
+
+    private final String localZone;
+    private final double threshold;
+    /**
+     * key - serviceId
+     */
+    private final Map<String, View> views = new ConcurrentHashMap<>();
+
+    /**
+     * @param localZone 本实例所在可用区
+     * @param threshold 同可用区就绪实例占全部就绪实例的比例不低于该值时，只返回同可用区实例
+     */
+    public ZonePreference(String localZone, double threshold) {
+        this.localZone = localZone;
+        this.threshold = threshold;
+    }
+
+    public List<ServiceInstance> apply(String serviceId, List<ServiceInstance> instances) {
+        View view = views.get(serviceId);
+        if (null != view && view.source == instances) {
+            return view.preferred;
+        }
+        List<ServiceInstance> preferred = prefer(instances);
+        views.put(serviceId, new View(instances, preferred));
+        return preferred;
+    }
+
+    /**
+     * 清理已不存在的服务的视图
+     */
+    public void retain(Collection<String> serviceIds) {
+        views.keySet().retainAll(serviceIds);
+    }
+
+    private List<ServiceInstance> prefer(List<ServiceInstance> instances) {
+        List<ServiceInstance> local = new ArrayList<>();
+        List<ServiceInstance> remote = new ArrayList<>();
+        for (ServiceInstance instance : instances) {
+            if (!(instance instanceof KubernetesServiceInstance)) {
+                remote.add(instance);
+                continue;
+            }
+            KubernetesServiceInstance kubernetesInstance = (KubernetesServiceInstance) instance;
+            if (!kubernetesInstance.isReady()) {
+                continue;
+            }
+            if (localZone.equals(kubernetesInstance.getZone())) {
+                local.add(instance);
+            } else {
+                remote.add(instance);
+            }
+        }
+
+        if (local.isEmpty()) {
+            return Collections.unmodifiableList(remote);
+        }
+        if (remote.isEmpty() || local.size() >= threshold * (local.size() + remote.size())) {
+            return Collections.unmodifiableList(local);
+        }
+        local.addAll(remote);
+        return Collections.unmodifiableList(local);
+    }
+
+    private static final class View {
+
+        private final List<ServiceInstance> source;
+        private final List<ServiceInstance> preferred;
+
+        private View(List<ServiceInstance> source, List<ServiceInstance> preferred) {
+            this.source = source;
+            this.preferred = preferred;
+        }
+    }
+
+}
@@ -1,8 +1,11 @@
 package com.github.open.discovery.kubernetes.client;
 
+import com.github.open.discovery.support.Constants;
 import io.fabric8.kubernetes.client.KubernetesClient;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * @author <a href="https://github.com/studeyang">studeyang</a>
@@ -10,8 +13,54 @@ import java.util.Collection;
  */
 public interface ClientManager {
 
+    /**
+     * @param namespace namespace 标识，见 {@link #namespaceKey(String, String)}
+     */
     KubernetesClient getClient(String namespace);
 
+    /**
+     * @return 每个 namespace 一个 client，{@link KubernetesClient#getNamespace()} 为对应的 namespace
+     */
     Collection<KubernetesClient> getClients();
 
+    /**
+     * 默认以 client 的 namespace 作为标识，只适用于单集群；多集群的实现需要覆盖，key 用 {@link #namespaceKey(String, String)}
+     *
+     * @return key - namespace 标识，顺序与 {@link #getClients()} 一致；value - 对应的 client
+     */
+    default Map<String, KubernetesClient> getClientMap() {
+        Map<String, KubernetesClient> clientMap = new LinkedHashMap<>();
+        for (KubernetesClient client : getClients()) {
+            clientMap.put(client.getNamespace(), client);
+        }
+        return clientMap;
+    }
+
+    /**
+     * @param namespace namespace 标识
+     * @return namespace 所在集群
+     */
+    default String getCluster(String namespace) {
+        return Constants.DEFAULT_CLUSTER;
+    }
+
+    /**
+     * 多集群时同名 namespace 需要区分：默认集群为 namespace 本身，其他集群为 "集群名/namespace"
+     */
+    static String namespaceKey(String cluster, String namespace) {
+        return null == cluster || Constants.DEFAULT_CLUSTER.equals(cluster) ? namespace : cluster + "/" + namespace;
+    }
+
+    /**
+     * 重新发现 namespace，按标签或全部发现 namespace 时才需要
+     */
+    default void refresh() {
+    }
+
+    /**
+     * 关闭全部 client 及其连接池
+     */
+    default void close() {
+    }
+
 }
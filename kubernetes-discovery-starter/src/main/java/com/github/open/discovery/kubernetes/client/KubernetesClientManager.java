@@ -1,42 +1,61 @@
 package com.github.open.discovery.kubernetes.client;
 
 import com.google.common.collect.Maps;
+import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.client.ConfigBuilder;
 import io.fabric8.kubernetes.client.DefaultKubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.NamespacedKubernetesClient;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author <a href="https://github.com/studeyang">studeyang</a>
  * @since 1.0 2022/3/22
  * <p>
- * KubernetesClient 实例管理器，每个 namespace 对应一个 KubernetesClient
+ * KubernetesClient 实例管理器，每个集群一个 KubernetesClient（一个连接池），
+ * 每个 namespace 对应一个由集群 client {@code inNamespace} 得到的 client，共用集群的连接池
  */
 @Slf4j
 public class KubernetesClientManager implements ClientManager {
 
     /**
-     * <p>key - namespace, 这里要求所有群集的 namespace 都不能重复</p>
+     * <p>key - namespace 标识，不同集群的同名 namespace 各自一个 client，见 {@link ClientManager#namespaceKey(String, String)}</p>
      * <p>这里保证配置在前面的 namespace 优先加载</p>
+     * <p>整体替换，不在原 Map 上修改</p>
      */
     @Getter
-    protected Map<String, KubernetesClient> clientMap = Maps.newLinkedHashMap();
+    protected volatile Map<String, KubernetesClient> clientMap = Collections.emptyMap();
+
+    /**
+     * key - 集群名
+     */
+    private final Map<String, KubernetesClientProperties.Cluster> clusters = Maps.newLinkedHashMap();
+    private final Map<String, NamespacedKubernetesClient> clusterClients = Maps.newLinkedHashMap();
+    /**
+     * key - namespace 标识，value - 集群名
+     */
+    private volatile Map<String, String> namespaceClusters = Collections.emptyMap();
 
     public KubernetesClientManager(KubernetesClientProperties kubernetesClientProperties) {
 
-        // 遍历 namespace
-        for (String namespace : kubernetesClientProperties.getIncludeNamespaces()) {
-            if (clientMap.containsKey(namespace)) {
-                log.error("namespace [{}] 已存在", namespace);
-                continue;
+        // 遍历集群
+        kubernetesClientProperties.toClusters().forEach((name, cluster) -> {
+            if (cluster.getIncludeNamespaces().isEmpty() && !cluster.isDynamicNamespaces()) {
+                return;
             }
-            clientMap.put(namespace, createKubernetesClient(kubernetesClientProperties, namespace));
-        }
+            clusters.put(name, cluster);
+            clusterClients.put(name, createKubernetesClient(cluster));
+        });
+
+        resolveNamespaces();
     }
 
     @Override
@@ -49,29 +68,115 @@ public class KubernetesClientManager implements ClientManager {
         return clientMap.values();
     }
 
-    protected KubernetesClient createKubernetesClient(KubernetesClientProperties properties, String namespace) {
-        ConfigBuilder builder = new ConfigBuilder();
+    @Override
+    public String getCluster(String namespace) {
+        return namespaceClusters.get(namespace);
+    }
+
+    @Override
+    public synchronized void close() {
+        clusterClients.forEach((name, client) -> {
+            try {
+                client.close();
+            } catch (Exception e) {
+                log.warn("close KubernetesClient failed, cluster: [{}]", name, e);
+            }
+        });
+        this.clientMap = Collections.emptyMap();
+    }
+
+    @Override
+    public void refresh() {
+        if (clusters.values().stream().anyMatch(KubernetesClientProperties.Cluster::isDynamicNamespaces)) {
+            resolveNamespaces();
+        }
+    }
+
+    private synchronized void resolveNamespaces() {
+        Map<String, KubernetesClient> current = this.clientMap;
+        Map<String, String> currentClusters = this.namespaceClusters;
+        Map<String, KubernetesClient> newClientMap = Maps.newLinkedHashMap();
+        Map<String, String> newNamespaceClusters = Maps.newHashMap();
+
+        clusterClients.forEach((name, clusterClient) -> {
+            // 遍历 namespace
+            for (String namespace : listNamespaces(name, clusters.get(name), clusterClient)) {
+                String key = ClientManager.namespaceKey(name, namespace);
+                KubernetesClient client = current.get(key);
+                if (null == client || !name.equals(currentClusters.get(key))) {
+                    client = clusterClient.inNamespace(namespace);
+                }
+                newClientMap.put(key, client);
+                newNamespaceClusters.put(key, name);
+            }
+        });
+
+        if (!newClientMap.keySet().equals(current.keySet())) {
+            log.info("kubernetes namespaces: {}", newClientMap.keySet());
+        }
+        this.namespaceClusters = Collections.unmodifiableMap(newNamespaceClusters);
+        this.clientMap = Collections.unmodifiableMap(newClientMap);
+    }
+
+    /**
+     * 配置的 namespace 在前，再加上按标签或全部发现的 namespace；发现失败时沿用上一次的结果
+     */
+    private List<String> listNamespaces(String name, KubernetesClientProperties.Cluster cluster,
+                                        NamespacedKubernetesClient clusterClient) {
+        List<String> namespaces = cluster.getIncludeNamespaces().stream()
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toList());
+        if (!cluster.isDynamicNamespaces()) {
+            return namespaces;
+        }
 
-        if (StringUtils.isNotBlank(properties.getApiServerUrl())) {
-            builder = builder.withMasterUrl(properties.getApiServerUrl());
+        try {
+            List<Namespace> items = cluster.isAllNamespaces()
+                    ? clusterClient.namespaces().list().getItems()
+                    : clusterClient.namespaces().withLabels(cluster.getNamespaceLabels()).list().getItems();
+            for (Namespace item : items) {
+                String namespace = item.getMetadata().getName();
+                if (!namespaces.contains(namespace)) {
+                    namespaces.add(namespace);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Fetching Namespaces failed, cluster: [{}]", name, e);
+            Map<String, KubernetesClient> current = this.clientMap;
+            namespaceClusters.forEach((key, owner) -> {
+                KubernetesClient client = current.get(key);
+                if (name.equals(owner) && null != client && !namespaces.contains(client.getNamespace())) {
+                    namespaces.add(client.getNamespace());
+                }
+            });
         }
+        return namespaces;
+    }
+
+    protected NamespacedKubernetesClient createKubernetesClient(KubernetesClientProperties.Cluster cluster) {
+        ConfigBuilder builder = new ConfigBuilder();
 
-        if (StringUtils.isNotBlank(properties.getCaCertFileUrl())) {
-            builder = builder.withCaCertFile(properties.getCaCertFileUrl());
+        if (StringUtils.isNotBlank(cluster.getApiServerUrl())) {
+            builder = builder.withMasterUrl(cluster.getApiServerUrl());
         }
 
-        if (StringUtils.isNotBlank(properties.getOauth2Token())) {
-            builder = builder.withOauthToken(properties.getOauth2Token());
+        if (StringUtils.isNotBlank(cluster.getCaCertFileUrl())) {
+            builder = builder.withCaCertFile(cluster.getCaCertFileUrl());
         }
 
-        if (StringUtils.isNotBlank(namespace)) {
-            builder = builder.withNamespace(namespace);
+        if (StringUtils.isNotBlank(cluster.getOauth2Token())) {
+            builder = builder.withOauthToken(cluster.getOauth2Token());
         }
 
-        if (properties.isInsecureSkipTlsVerify()) {
+        if (cluster.isInsecureSkipTlsVerify()) {
             builder = builder.withTrustCerts(true);
         }
 
+        // 同一集群的 namespace 共用连接池，默认每个 host 5 个并发不够用
+        builder = builder.withMaxConcurrentRequests(cluster.getMaxConcurrentRequests())
+                .withMaxConcurrentRequestsPerHost(cluster.getMaxConcurrentRequests());
+
         return new DefaultKubernetesClient(builder.build());
     }
 
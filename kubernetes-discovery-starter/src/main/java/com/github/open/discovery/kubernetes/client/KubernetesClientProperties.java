@@ -1,10 +1,13 @@
 package com.github.open.discovery.kubernetes.client;
 
+import com.github.open.discovery.support.Constants;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author jian.xu
@@ -19,10 +22,73 @@ public class KubernetesClientProperties {
     private String caCertFileUrl;
     private String oauth2Token;
     private List<String> includeNamespaces = Lists.newArrayList();
+    /**
+     * 发现集群中所有 namespace，需要 namespaces 的 list 权限
+     */
+    private boolean allNamespaces;
+    /**
+     * 发现集群中带有这些标签的 namespace，需要 namespaces 的 list 权限
+     */
+    private Map<String, String> namespaceLabels = Maps.newLinkedHashMap();
+    /**
+     * 同一集群的 namespace 共用一个连接池，这里是对 api-server 的最大并发请求数
+     */
+    private int maxConcurrentRequests = 64;
     /**
      * 手动排除的微服务名<br/>
      * 一般不配置，组件去维护这个列表成本太大，可通过 discovery.disabled: true 禁用服务发现
      */
     private List<String> excludeServices = Lists.newArrayList();
+    /**
+     * 其它集群，key - 集群名；上面的配置为默认集群 {@link Constants#DEFAULT_CLUSTER}
+     */
+    private Map<String, Cluster> clusters = Maps.newLinkedHashMap();
+
+    /**
+     * @return 默认集群在前的全部集群配置，key - 集群名
+     */
+    public Map<String, Cluster> toClusters() {
+        Cluster defaultCluster = new Cluster();
+        defaultCluster.setApiServerUrl(apiServerUrl);
+        defaultCluster.setInsecureSkipTlsVerify(insecureSkipTlsVerify);
+        defaultCluster.setCaCertFileUrl(caCertFileUrl);
+        defaultCluster.setOauth2Token(oauth2Token);
+        defaultCluster.setIncludeNamespaces(includeNamespaces);
+        defaultCluster.setAllNamespaces(allNamespaces);
+        defaultCluster.setNamespaceLabels(namespaceLabels);
+        defaultCluster.setMaxConcurrentRequests(maxConcurrentRequests);
+
+        Map<String, Cluster> result = Maps.newLinkedHashMap();
+        result.put(Constants.DEFAULT_CLUSTER, defaultCluster);
+        clusters.forEach((name, cluster) -> {
+            if (!Constants.DEFAULT_CLUSTER.equals(name)) {
+                result.put(name, cluster);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 一个集群的连接信息及要发现的 namespace
+     */
+    @Data
+    public static class Cluster {
+
+        private String apiServerUrl;
+        private boolean insecureSkipTlsVerify;
+        private String caCertFileUrl;
+        private String oauth2Token;
+        private List<String> includeNamespaces = Lists.newArrayList();
+        private boolean allNamespaces;
+        private Map<String, String> namespaceLabels = Maps.newLinkedHashMap();
+        private int maxConcurrentRequests = 64;
+
+        /**
+         * 是否需要通过 LIST namespaces 发现 namespace
+         */
+        public boolean isDynamicNamespaces() {
+            return allNamespaces || !namespaceLabels.isEmpty();
+        }
+    }
 
 }
@@ -0,0 +1,122 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一致性哈希，哈希键取请求头 hashHeader，没有请求头时取 hint；都没有时退化为轮询
+ * <p>
+ * 哈希环按实例列表缓存，实例列表没有替换时直接复用，选择时只做一次二分查找
+ *
+ * @since 1.0 2026/10/18
+ */
+public class ConsistentHashChooser implements InstanceChooser {
+
+    private final String hashHeader;
+    private final int virtualNodes;
+    private final RoundRobinChooser fallback = new RoundRobinChooser();
+
+    private volatile Ring ring;
+
+    public ConsistentHashChooser(String hashHeader, int virtualNodes) {
+        this.hashHeader = hashHeader;
+        this.virtualNodes = Math.max(1, virtualNodes);
+    }
+
+    @Override
+    public ServiceInstance choose(List<ServiceInstance> instances, Request<?> request) {
+        String key = hashKey(request);
+        if (null == key) {
+            return fallback.choose(instances, request);
+        }
+
+        Ring current = this.ring;
+        if (null == current || current.source != instances) {
+            current = buildRing(instances);
+            this.ring = current;
+        }
+
+        long[] hashes = current.hashes;
+        int index = Arrays.binarySearch(hashes, mix(key.hashCode()));
+        if (index < 0) {
+            index = -index - 1;
+            if (index == hashes.length) {
+                index = 0;
+            }
+        }
+        return instances.get(current.owners[index]);
+    }
+
+    private String hashKey(Request<?> request) {
+        if (null == request) {
+            return null;
+        }
+        Object context = request.getContext();
+        if (context instanceof RequestDataContext) {
+            RequestData clientRequest = ((RequestDataContext) context).getClientRequest();
+            if (null != clientRequest && null != clientRequest.getHeaders()) {
+                String value = clientRequest.getHeaders().getFirst(hashHeader);
+                if (null != value) {
+                    return value;
+                }
+            }
+        }
+        if (context instanceof DefaultRequestContext) {
+            return ((DefaultRequestContext) context).getHint();
+        }
+        return null;
+    }
+
+    private Ring buildRing(List<ServiceInstance> instances) {
+        int size = instances.size() * virtualNodes;
+        long[][] nodes = new long[size][];
+        int n = 0;
+        for (int i = 0; i < instances.size(); i++) {
+            long base = (long) instances.get(i).getInstanceId().hashCode() << 32;
+            for (int v = 0; v < virtualNodes; v++) {
+                nodes[n++] = new long[]{mix(base | v), i};
+            }
+        }
+        Arrays.sort(nodes, (a, b) -> Long.compare(a[0], b[0]));
+
+        long[] hashes = new long[size];
+        int[] owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            hashes[i] = nodes[i][0];
+            owners[i] = (int) nodes[i][1];
+        }
+        return new Ring(instances, hashes, owners);
+    }
+
+    /**
+     * murmur3 fmix64，把相近的输入打散到整个 long 范围
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Ring {
+
+        private final List<ServiceInstance> source;
+        private final long[] hashes;
+        private final int[] owners;
+
+        private Ring(List<ServiceInstance> source, long[] hashes, int[] owners) {
+            this.source = source;
+            this.hashes = hashes;
+            this.owners = owners;
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.util.List;
+
+/**
+ * 从实例列表中选出一个实例，每次请求都会调用，实现不能有锁和对象分配
+ *
+ * @since 1.0 2026/10/18
+ */
+public interface InstanceChooser {
+
+    /**
+     * @param instances 不可修改、非空的实例列表，实例列表没有变化时总是同一个对象
+     * @param request   负载均衡请求，可能为 null
+     */
+    ServiceInstance choose(List<ServiceInstance> instances, Request<?> request);
+
+    static InstanceChooser create(KubernetesLoadBalancerProperties properties, OutstandingRequests outstandingRequests) {
+        switch (properties.getStrategy()) {
+            case WEIGHTED:
+                return new WeightedChooser(properties.getWeightKey(), properties.getDefaultWeight());
+            case LEAST_REQUEST:
+                return new LeastRequestChooser(outstandingRequests);
+            case CONSISTENT_HASH:
+                return new ConsistentHashChooser(properties.getHashHeader(), properties.getVirtualNodes());
+            case ROUND_ROBIN:
+            default:
+                return new RoundRobinChooser();
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * 直接读取服务发现快照的负载均衡器，不经过 ServiceInstanceListSupplier，选择时不复制实例列表；
+ * 不等待被淘汰服务的加载，choose 可以在事件循环线程上调用
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class KubernetesLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Mono<Response<ServiceInstance>> EMPTY = Mono.just(new EmptyResponse());
+
+    private final String serviceId;
+    private final KubernetesDiscoveryClient discoveryClient;
+    private final InstanceChooser chooser;
+
+    public KubernetesLoadBalancer(String serviceId, KubernetesDiscoveryClient discoveryClient, InstanceChooser chooser) {
+        this.serviceId = serviceId;
+        this.discoveryClient = discoveryClient;
+        this.chooser = chooser;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        List<ServiceInstance> instances = discoveryClient.getCachedInstances(serviceId);
+        if (instances.isEmpty()) {
+            log.warn("No servers available for service: {}", serviceId);
+            return EMPTY;
+        }
+        return Mono.just(new DefaultResponse(chooser.choose(instances, request)));
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * 每个服务的 LoadBalancer 子容器中的配置，优先于 Spring Cloud LoadBalancer 默认配置
+ *
+ * @since 1.0 2026/10/18
+ */
+@Configuration(proxyBeanMethods = false)
+public class KubernetesLoadBalancerClientConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> kubernetesLoadBalancer(Environment environment,
+                                                                       KubernetesDiscoveryClient kubernetesDiscoveryClient,
+                                                                       KubernetesLoadBalancerProperties properties,
+                                                                       OutstandingRequests outstandingRequests) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new KubernetesLoadBalancer(serviceId, kubernetesDiscoveryClient,
+                InstanceChooser.create(properties, outstandingRequests));
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+@Data
+@ConfigurationProperties("icloud.kubernetes.loadbalancer")
+public class KubernetesLoadBalancerProperties {
+
+    /**
+     * 是否用 {@link KubernetesLoadBalancer} 替换 Spring Cloud LoadBalancer 默认的负载均衡器
+     */
+    private boolean enabled = false;
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+    /**
+     * WEIGHTED 策略下权重在实例 metadata（labels、annotations）中的 key
+     * <p>metadata 来自 Endpoints，同一服务的实例权重相同，不能按 Pod 区分</p>
+     */
+    private String weightKey = "weight";
+    /**
+     * WEIGHTED 策略下未配置或配置错误时的权重
+     */
+    private int defaultWeight = 100;
+    /**
+     * CONSISTENT_HASH 策略下哈希键所在的请求头
+     */
+    private String hashHeader = "X-Hash-Key";
+    /**
+     * CONSISTENT_HASH 策略下每个实例在哈希环上的虚拟节点数
+     */
+    private int virtualNodes = 160;
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        WEIGHTED,
+        /**
+         * 随机选两个实例，取在途请求少的一个
+         */
+        LEAST_REQUEST,
+        CONSISTENT_HASH
+    }
+
+}
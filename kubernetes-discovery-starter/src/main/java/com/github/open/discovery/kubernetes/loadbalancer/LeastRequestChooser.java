@@ -0,0 +1,39 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 随机选两个实例，取在途请求少的一个（power of two choices）
+ *
+ * @since 1.0 2026/10/18
+ */
+public class LeastRequestChooser implements InstanceChooser {
+
+    private final OutstandingRequests outstandingRequests;
+
+    public LeastRequestChooser(OutstandingRequests outstandingRequests) {
+        this.outstandingRequests = outstandingRequests;
+    }
+
+    @Override
+    public ServiceInstance choose(List<ServiceInstance> instances, Request<?> request) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return outstandingRequests.get(b) < outstandingRequests.get(a) ? b : a;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import com.github.open.discovery.kubernetes.DiscoveryListener;
+import com.github.open.discovery.kubernetes.DiscoverySnapshot;
+import com.github.open.discovery.kubernetes.SnapshotDiff;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 每个实例的在途请求数，通过 {@link LoadBalancerLifecycle} 在请求开始、结束时增减
+ * <p>
+ * 按 instanceId 计数，实例列表刷新后新的实例对象沿用原来的计数；实例下线后清理
+ *
+ * @since 1.0 2026/10/18
+ */
+public class OutstandingRequests implements LoadBalancerLifecycle<Object, Object, ServiceInstance>, DiscoveryListener {
+
+    /**
+     * key - serviceId，value - key 为 instanceId
+     */
+    private final Map<String, Map<String, AtomicInteger>> counters = new ConcurrentHashMap<>();
+
+    public int get(ServiceInstance instance) {
+        Map<String, AtomicInteger> serviceCounters = counters.get(instance.getServiceId());
+        if (null == serviceCounters) {
+            return 0;
+        }
+        AtomicInteger counter = serviceCounters.get(instance.getInstanceId());
+        return null != counter ? counter.get() : 0;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (null == lbResponse || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        counters.computeIfAbsent(instance.getServiceId(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(instance.getInstanceId(), k -> new AtomicInteger())
+                .incrementAndGet();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (null == lbResponse || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        Map<String, AtomicInteger> serviceCounters = counters.get(instance.getServiceId());
+        if (null == serviceCounters) {
+            return;
+        }
+        AtomicInteger counter = serviceCounters.get(instance.getInstanceId());
+        if (null != counter) {
+            counter.updateAndGet(count -> count > 0 ? count - 1 : 0);
+        }
+    }
+
+    @Override
+    public void onChange(DiscoverySnapshot snapshot, SnapshotDiff diff) {
+        diff.getRemoved().forEach(counters::remove);
+        diff.getInstanceChanges().forEach((serviceId, change) -> {
+            Map<String, AtomicInteger> serviceCounters = counters.get(serviceId);
+            if (null != serviceCounters) {
+                change.getRemoved().forEach(instance -> serviceCounters.remove(instance.getInstanceId()));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 轮询，起始位置随机，避免所有客户端同时从第一个实例开始
+ *
+ * @since 1.0 2026/10/18
+ */
+public class RoundRobinChooser implements InstanceChooser {
+
+    private final AtomicInteger position = new AtomicInteger(ThreadLocalRandom.current().nextInt(1000));
+
+    @Override
+    public ServiceInstance choose(List<ServiceInstance> instances, Request<?> request) {
+        int next = position.getAndIncrement() & Integer.MAX_VALUE;
+        return instances.get(next % instances.size());
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按权重随机，权重取自实例 metadata（labels、annotations）中的 weightKey
+ * <p>
+ * 实例 metadata 来自 Endpoints 对象，同一服务的所有实例相同，因此目前只支持服务级权重，
+ * 同一服务内各实例被选中的概率相同；按 Pod 区分权重尚不支持
+ * <p>
+ * 累计权重数组按实例列表缓存，实例列表没有替换时直接复用，选择时只做一次二分查找
+ *
+ * @since 1.0 2026/10/18
+ */
+public class WeightedChooser implements InstanceChooser {
+
+    private final String weightKey;
+    private final int defaultWeight;
+
+    private volatile Weights weights;
+
+    public WeightedChooser(String weightKey, int defaultWeight) {
+        this.weightKey = weightKey;
+        this.defaultWeight = defaultWeight;
+    }
+
+    @Override
+    public ServiceInstance choose(List<ServiceInstance> instances, Request<?> request) {
+        Weights current = this.weights;
+        if (null == current || current.source != instances) {
+            current = new Weights(instances, cumulativeWeights(instances));
+            this.weights = current;
+        }
+
+        int[] cumulative = current.cumulative;
+        int total = cumulative[cumulative.length - 1];
+        if (total <= 0) {
+            return instances.get(ThreadLocalRandom.current().nextInt(instances.size()));
+        }
+        int target = ThreadLocalRandom.current().nextInt(total);
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return instances.get(low);
+    }
+
+    private int[] cumulativeWeights(List<ServiceInstance> instances) {
+        int[] cumulative = new int[instances.size()];
+        int total = 0;
+        for (int i = 0; i < instances.size(); i++) {
+            String weight = instances.get(i).getMetadata().get(weightKey);
+            total += Math.max(0, NumberUtils.toInt(weight, defaultWeight));
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static final class Weights {
+
+        private final List<ServiceInstance> source;
+        private final int[] cumulative;
+
+        private Weights(List<ServiceInstance> source, int[] cumulative) {
+            this.source = source;
+            this.cumulative = cumulative;
+        }
+    }
+
+}
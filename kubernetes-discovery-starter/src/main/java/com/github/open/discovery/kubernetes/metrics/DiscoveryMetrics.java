@@ -0,0 +1,80 @@
+package com.github.open.discovery.kubernetes.metrics;
+
+import com.github.open.discovery.kubernetes.DiscoverySnapshot;
+
+/**
+ * 服务发现埋点，默认不记录；引入 micrometer 后由 {@link MicrometerDiscoveryMetrics} 实现
+ *
+ * @since 1.0 2026/10/18
+ */
+public interface DiscoveryMetrics {
+
+    DiscoveryMetrics NOOP = new DiscoveryMetrics() {
+    };
+
+    String RESOURCE_SERVICES = "services";
+    String RESOURCE_ENDPOINTS = "endpoints";
+    String RESOURCE_ENDPOINT_SLICES = "endpointslices";
+
+    /**
+     * getInstances 查询结果
+     */
+    enum Lookup {
+        HIT,
+        /**
+         * 服务不存在
+         */
+        MISS,
+        /**
+         * 服务存在，但实例列表已被淘汰
+         */
+        EVICTED
+    }
+
+    /**
+     * 一次 api-server 调用
+     *
+     * @param resource {@link #RESOURCE_SERVICES}、{@link #RESOURCE_ENDPOINTS} 或 {@link #RESOURCE_ENDPOINT_SLICES}
+     */
+    default void recordApiCall(String namespace, String resource, long nanos, boolean success) {
+    }
+
+    /**
+     * 一轮刷新
+     *
+     * @param type services 或 instances
+     */
+    default void recordRefresh(String type, long nanos) {
+    }
+
+    /**
+     * 一个 namespace 或一个服务刷新失败（含超时）
+     */
+    default void recordRefreshFailure(String namespace, String resource) {
+    }
+
+    /**
+     * 在 getInstances 中调用，实现不能有耗时操作
+     */
+    default void recordLookup(Lookup lookup) {
+    }
+
+    /**
+     * 一个服务的实例列表加载成功
+     */
+    default void recordInstancesLoaded(String serviceId) {
+    }
+
+    /**
+     * 本轮因 serviceId 重复而被丢弃的 Service 数
+     */
+    default void recordConflicts(int conflicts) {
+    }
+
+    /**
+     * 新快照发布
+     */
+    default void onSnapshot(DiscoverySnapshot snapshot) {
+    }
+
+}
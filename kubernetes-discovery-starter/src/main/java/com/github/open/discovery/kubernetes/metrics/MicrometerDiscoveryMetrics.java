@@ -0,0 +1,170 @@
+package com.github.open.discovery.kubernetes.metrics;
+
+import com.github.open.discovery.kubernetes.DiscoverySnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 micrometer 的服务发现埋点
+ * <ul>
+ *     <li>kubernetes.discovery.api.requests：api-server 调用耗时，按 namespace、resource、outcome 区分</li>
+ *     <li>kubernetes.discovery.refresh：每轮刷新耗时，按 type 区分</li>
+ *     <li>kubernetes.discovery.refresh.failures：刷新失败次数</li>
+ *     <li>kubernetes.discovery.lookups：getInstances 命中情况</li>
+ *     <li>kubernetes.discovery.services / instances / conflicts：当前服务数、实例数、重复 serviceId 数</li>
+ *     <li>kubernetes.discovery.snapshot.age / instances.age.max：快照及最旧实例列表的年龄（秒）</li>
+ *     <li>kubernetes.discovery.instances.age：每个服务实例列表的年龄（秒），开启 perServiceMetrics 时才有</li>
+ * </ul>
+ *
+ * @since 1.0 2026/10/18
+ */
+public class MicrometerDiscoveryMetrics implements DiscoveryMetrics {
+
+    private static final String PREFIX = "kubernetes.discovery";
+
+    private final MeterRegistry registry;
+    private final boolean perService;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evicted;
+
+    private final AtomicInteger services = new AtomicInteger();
+    private final AtomicInteger instances = new AtomicInteger();
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private final AtomicLong snapshotTime = new AtomicLong(System.currentTimeMillis());
+    /**
+     * 每个服务实例列表最近一次加载成功的时间；key - serviceId
+     */
+    private final Map<String, AtomicLong> refreshTimes = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> ageGauges = new ConcurrentHashMap<>();
+
+    public MicrometerDiscoveryMetrics(MeterRegistry registry, boolean perService) {
+        this.registry = registry;
+        this.perService = perService;
+
+        this.hits = lookupCounter("hit");
+        this.misses = lookupCounter("miss");
+        this.evicted = lookupCounter("evicted");
+
+        Gauge.builder(PREFIX + ".services", services, AtomicInteger::get).register(registry);
+        Gauge.builder(PREFIX + ".instances", instances, AtomicInteger::get).register(registry);
+        Gauge.builder(PREFIX + ".conflicts", conflicts, AtomicInteger::get).register(registry);
+        Gauge.builder(PREFIX + ".snapshot.age", snapshotTime, MicrometerDiscoveryMetrics::ageSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder(PREFIX + ".instances.age.max", refreshTimes, times -> times.values().stream()
+                        .mapToDouble(MicrometerDiscoveryMetrics::ageSeconds)
+                        .max()
+                        .orElse(0))
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @Override
+    public void recordApiCall(String namespace, String resource, long nanos, boolean success) {
+        Timer.builder(PREFIX + ".api.requests")
+                .tag("namespace", namespace)
+                .tag("resource", resource)
+                .tag("outcome", success ? "success" : "error")
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRefresh(String type, long nanos) {
+        Timer.builder(PREFIX + ".refresh")
+                .tag("type", type)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRefreshFailure(String namespace, String resource) {
+        Counter.builder(PREFIX + ".refresh.failures")
+                .tag("namespace", namespace)
+                .tag("resource", resource)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void recordLookup(Lookup lookup) {
+        switch (lookup) {
+            case HIT:
+                hits.increment();
+                break;
+            case MISS:
+                misses.increment();
+                break;
+            default:
+                evicted.increment();
+        }
+    }
+
+    @Override
+    public void recordInstancesLoaded(String serviceId) {
+        long now = System.currentTimeMillis();
+        AtomicLong refreshTime = refreshTimes.get(serviceId);
+        if (null != refreshTime) {
+            refreshTime.set(now);
+            return;
+        }
+        refreshTime = new AtomicLong(now);
+        if (null == refreshTimes.putIfAbsent(serviceId, refreshTime) && perService) {
+            ageGauges.put(serviceId, Gauge.builder(PREFIX + ".instances.age", refreshTime,
+                            MicrometerDiscoveryMetrics::ageSeconds)
+                    .tag("serviceId", serviceId)
+                    .baseUnit("seconds")
+                    .register(registry));
+        }
+    }
+
+    @Override
+    public void recordConflicts(int conflicts) {
+        this.conflicts.set(conflicts);
+    }
+
+    @Override
+    public void onSnapshot(DiscoverySnapshot snapshot) {
+        snapshotTime.set(snapshot.getTimestamp());
+        services.set(snapshot.getServices().size());
+        int total = 0;
+        for (List<ServiceInstance> serviceInstances : snapshot.getInstances().values()) {
+            total += serviceInstances.size();
+        }
+        instances.set(total);
+
+        refreshTimes.keySet().removeIf(serviceId -> {
+            if (snapshot.getServices().containsKey(serviceId)) {
+                return false;
+            }
+            Gauge gauge = ageGauges.remove(serviceId);
+            if (null != gauge) {
+                registry.remove(gauge);
+            }
+            return true;
+        });
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder(PREFIX + ".lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static double ageSeconds(AtomicLong time) {
+        return (System.currentTimeMillis() - time.get()) / 1000.0;
+    }
+
+}
@@ -1,25 +1,56 @@
 package com.github.open.discovery.kubernetes.reactive;
 
+import com.github.open.discovery.kubernetes.DiscoveryListener;
+import com.github.open.discovery.kubernetes.DiscoverySnapshot;
 import com.github.open.discovery.kubernetes.KubernetesDiscoveryClient;
+import com.github.open.discovery.kubernetes.SnapshotDiff;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 /**
  * Kubernetes Reactive Discovery Client implementation
+ * <p>
+ * 直接读取内存快照，不再切换线程；{@link #watchInstances(String)} 和 {@link #watchAllInstances()} 推送实例变化，
+ * 新订阅者先收到当前值，消费慢的订阅者只会收到最新值
  *
  * @author Hailong Chang
  * @version 1.0
  */
-public class KubernetesReactiveDiscoveryClient implements ReactiveDiscoveryClient {
+public class KubernetesReactiveDiscoveryClient implements ReactiveDiscoveryClient, DiscoveryListener {
 
+    /**
+     * 通知线程和首次订阅线程可能同时 emit，遇到并发冲突时重试
+     */
+    private static final Sinks.EmitFailureHandler RETRY_NON_SERIALIZED =
+            (signalType, emitResult) -> emitResult == Sinks.EmitResult.FAIL_NON_SERIALIZED;
+    /**
+     * 快照中的列表和 Map 都是不可变的，引用相同即内容相同
+     */
+    private static final BiPredicate<Object, Object> SAME_REFERENCE = (a, b) -> a == b;
 
     private KubernetesDiscoveryClient kubernetesDiscoveryClient;
 
+    /**
+     * key - serviceId，最后一个订阅者取消时移除
+     */
+    private final ConcurrentMap<String, InstanceSink> instanceSinks = new ConcurrentHashMap<>();
+    private final Sinks.Many<Map<String, List<ServiceInstance>>> allInstancesSink = Sinks.many().replay().latest();
+
     public KubernetesReactiveDiscoveryClient(KubernetesDiscoveryClient kubernetesDiscoveryClient) {
         this.kubernetesDiscoveryClient = kubernetesDiscoveryClient;
+        kubernetesDiscoveryClient.addListener(this);
+        allInstancesSink.emitNext(kubernetesDiscoveryClient.getSnapshot().getInstances(), RETRY_NON_SERIALIZED);
     }
 
     @Override
@@ -30,15 +61,85 @@ public class KubernetesReactiveDiscoveryClient implements ReactiveDiscoveryClien
     @Override
     public Flux<ServiceInstance> getInstances(String serviceId) {
         Assert.notNull(serviceId, "[Assertion failed] - the object argument must not be null");
-        return Flux.defer(() -> Flux.fromIterable(kubernetesDiscoveryClient.getInstances(serviceId)))
-                .subscribeOn(Schedulers.boundedElastic());
+        return Flux.defer(() -> Flux.fromIterable(kubernetesDiscoveryClient.getCachedInstances(serviceId)));
     }
 
 
     @Override
     public Flux<String> getServices() {
-        return Flux.defer(() -> Flux.fromIterable(kubernetesDiscoveryClient.getServices()))
-                .subscribeOn(Schedulers.boundedElastic());
+        return Flux.defer(() -> Flux.fromIterable(kubernetesDiscoveryClient.getServices()));
+    }
+
+    /**
+     * 订阅单个服务的实例列表，订阅时先收到当前值，之后每次变化推送一次完整列表
+     */
+    public Flux<List<ServiceInstance>> watchInstances(String serviceId) {
+        Assert.notNull(serviceId, "[Assertion failed] - the object argument must not be null");
+        return Flux.defer(() -> subscribe(serviceId).asFlux())
+                .doFinally(signalType -> unsubscribe(serviceId))
+                .onBackpressureLatest()
+                .distinctUntilChanged(Function.identity(), SAME_REFERENCE);
+    }
+
+    /**
+     * 订阅所有服务的实例列表，key - serviceId
+     */
+    public Flux<Map<String, List<ServiceInstance>>> watchAllInstances() {
+        return allInstancesSink.asFlux()
+                .onBackpressureLatest()
+                .distinctUntilChanged(Function.identity(), SAME_REFERENCE);
+    }
+
+    @Override
+    public void onChange(DiscoverySnapshot snapshot, SnapshotDiff diff) {
+        allInstancesSink.emitNext(snapshot.getInstances(), RETRY_NON_SERIALIZED);
+
+        if (instanceSinks.isEmpty()) {
+            return;
+        }
+        diff.getInstanceChanges().keySet().forEach(serviceId -> emitInstances(snapshot, serviceId));
+        diff.getModified().forEach(serviceId -> emitInstances(snapshot, serviceId));
+        diff.getRemoved().forEach(serviceId -> emitInstances(snapshot, serviceId));
+    }
+
+    private Sinks.Many<List<ServiceInstance>> subscribe(String serviceId) {
+        return instanceSinks.compute(serviceId, (key, existing) -> {
+            InstanceSink sink = existing;
+            if (null == sink) {
+                sink = new InstanceSink();
+                // 不等待加载，被淘汰的服务加载完成后由 onChange 推送
+                sink.sink.emitNext(kubernetesDiscoveryClient.getCachedInstances(serviceId), RETRY_NON_SERIALIZED);
+            }
+            sink.subscribers++;
+            return sink;
+        }).sink;
+    }
+
+    private void unsubscribe(String serviceId) {
+        instanceSinks.computeIfPresent(serviceId, (key, sink) -> --sink.subscribers > 0 ? sink : null);
+    }
+
+    private void emitInstances(DiscoverySnapshot snapshot, String serviceId) {
+        InstanceSink holder = instanceSinks.get(serviceId);
+        if (null == holder) {
+            return;
+        }
+        Sinks.Many<List<ServiceInstance>> sink = holder.sink;
+        List<ServiceInstance> instances = snapshot.getInstances(serviceId);
+        // 被淘汰的服务不推送空列表
+        if (null == instances && null != snapshot.getService(serviceId)) {
+            return;
+        }
+        sink.emitNext(null != instances ? instances : Collections.emptyList(), RETRY_NON_SERIALIZED);
+    }
+
+    private static final class InstanceSink {
+
+        private final Sinks.Many<List<ServiceInstance>> sink = Sinks.many().replay().latest();
+        /**
+         * 只在 instanceSinks 的 compute 中读写
+         */
+        private int subscribers;
     }
 
 }
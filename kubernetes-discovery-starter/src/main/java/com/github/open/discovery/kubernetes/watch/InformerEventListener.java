@@ -0,0 +1,14 @@
+package com.github.open.discovery.kubernetes.watch;
+
+/**
+ * informer 资源变化回调，在 watch 线程上执行，实现方不要做耗时操作
+ *
+ * @since 1.0 2026/10/18
+ */
+public interface InformerEventListener {
+
+    void onServicesChanged(String namespace);
+
+    void onEndpointsChanged(String namespace, String name);
+
+}
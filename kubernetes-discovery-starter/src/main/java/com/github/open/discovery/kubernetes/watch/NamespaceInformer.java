@@ -0,0 +1,190 @@
+package com.github.open.discovery.kubernetes.watch;
+
+import com.github.open.discovery.kubernetes.EndpointSliceMerger;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsList;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSliceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * 一个 namespace 下 Service 和 Endpoints（或 EndpointSlice）的 informer
+ *
+ * @since 1.0 2026/10/18
+ */
+public class NamespaceInformer {
+
+    @Getter
+    private final String namespace;
+    private final ResourceInformer<Service> serviceInformer;
+    /**
+     * 二选一，另一个为 null
+     */
+    private final ResourceInformer<Endpoints> endpointsInformer;
+    private final ResourceInformer<EndpointSlice> endpointSliceInformer;
+    private final InformerEventListener listener;
+
+    /**
+     * 按 Service 名索引的 EndpointSlice，随事件增量维护，读取时不用重新分组；value 整体替换
+     */
+    private final Map<String, List<EndpointSlice>> slicesByService = new ConcurrentHashMap<>();
+    /**
+     * key - EndpointSlice 名，value - 所属 Service 名，由 this 保护
+     */
+    private final Map<String, String> sliceOwners = new HashMap<>();
+
+    /**
+     * @param namespace         namespace 标识，回调 listener 时使用，多集群时带集群名
+     * @param endpointSlices    true - 监听 EndpointSlice，false - 监听 Endpoints
+     * @param serviceSelector   要监听的 Service，可带标签过滤
+     * @param endpointsSelector 要监听的 Endpoints，可带标签过滤
+     */
+    public NamespaceInformer(String namespace,
+                             KubernetesClient client,
+                             ScheduledExecutorService scheduler,
+                             long reconnectIntervalSeconds,
+                             boolean endpointSlices,
+                             Function<KubernetesClient, FilterWatchListDeletable<Service, ServiceList>> serviceSelector,
+                             Function<KubernetesClient, FilterWatchListDeletable<Endpoints, EndpointsList>> endpointsSelector,
+                             InformerEventListener listener) {
+        this.namespace = namespace;
+        this.listener = listener;
+        this.serviceInformer = new ResourceInformer<>("Service", namespace,
+                () -> {
+                    ServiceList list = serviceSelector.apply(client).list();
+                    return new ResourceInformer.ListResult<>(list.getItems(), list.getMetadata().getResourceVersion());
+                },
+                (resourceVersion, watcher) -> serviceSelector.apply(client).watch(listOptions(resourceVersion), watcher),
+                service -> listener.onServicesChanged(namespace),
+                scheduler,
+                reconnectIntervalSeconds);
+        if (endpointSlices) {
+            this.endpointsInformer = null;
+            this.endpointSliceInformer = new ResourceInformer<>("EndpointSlice", namespace,
+                    () -> {
+                        EndpointSliceList list = client.discovery().v1().endpointSlices().list();
+                        return new ResourceInformer.ListResult<>(list.getItems(), list.getMetadata().getResourceVersion());
+                    },
+                    (resourceVersion, watcher) -> client.discovery().v1().endpointSlices()
+                            .watch(listOptions(resourceVersion), watcher),
+                    this::onEndpointSliceChanged,
+                    scheduler,
+                    reconnectIntervalSeconds);
+        } else {
+            this.endpointSliceInformer = null;
+            this.endpointsInformer = new ResourceInformer<>("Endpoints", namespace,
+                    () -> {
+                        EndpointsList list = endpointsSelector.apply(client).list();
+                        return new ResourceInformer.ListResult<>(list.getItems(), list.getMetadata().getResourceVersion());
+                    },
+                    (resourceVersion, watcher) -> endpointsSelector.apply(client)
+                            .watch(listOptions(resourceVersion), watcher),
+                    endpoints -> listener.onEndpointsChanged(namespace, endpoints.getMetadata().getName()),
+                    scheduler,
+                    reconnectIntervalSeconds);
+        }
+    }
+
+    /**
+     * 更新索引并通知所属 Service；slice 的 Service 标签变化时原 Service 也要通知
+     */
+    private void onEndpointSliceChanged(EndpointSlice slice) {
+        String sliceName = slice.getMetadata().getName();
+        String previousOwner;
+        String owner;
+        synchronized (this) {
+            // informer 已先更新缓存，缓存中没有说明已删除
+            EndpointSlice current = endpointSliceInformer.get(sliceName);
+            owner = null != current ? EndpointSliceMerger.serviceNameOf(current) : null;
+            previousOwner = null != owner ? sliceOwners.put(sliceName, owner) : sliceOwners.remove(sliceName);
+            if (null != previousOwner) {
+                slicesByService.computeIfPresent(previousOwner, (serviceName, slices) -> without(slices, sliceName));
+            }
+            if (null != owner) {
+                slicesByService.compute(owner, (serviceName, slices) -> {
+                    List<EndpointSlice> others = without(slices, sliceName);
+                    List<EndpointSlice> next = null != others ? new ArrayList<>(others) : new ArrayList<>(1);
+                    next.add(current);
+                    return Collections.unmodifiableList(next);
+                });
+            }
+        }
+        if (null != previousOwner && !Objects.equals(previousOwner, owner)) {
+            listener.onEndpointsChanged(namespace, previousOwner);
+        }
+        if (null != owner) {
+            listener.onEndpointsChanged(namespace, owner);
+        }
+    }
+
+    /**
+     * @return 去掉 sliceName 后的列表，为空时返回 null 以便从索引中移除
+     */
+    private static List<EndpointSlice> without(List<EndpointSlice> slices, String sliceName) {
+        if (null == slices) {
+            return null;
+        }
+        List<EndpointSlice> result = new ArrayList<>(slices.size());
+        for (EndpointSlice slice : slices) {
+            if (!sliceName.equals(slice.getMetadata().getName())) {
+                result.add(slice);
+            }
+        }
+        return result.isEmpty() ? null : Collections.unmodifiableList(result);
+    }
+
+    private static ListOptions listOptions(String resourceVersion) {
+        return new ListOptionsBuilder().withResourceVersion(resourceVersion).build();
+    }
+
+    public void start() {
+        serviceInformer.start();
+        if (null != endpointsInformer) {
+            endpointsInformer.start();
+        } else {
+            endpointSliceInformer.start();
+        }
+    }
+
+    public void stop() {
+        serviceInformer.stop();
+        if (null != endpointsInformer) {
+            endpointsInformer.stop();
+        } else {
+            endpointSliceInformer.stop();
+        }
+    }
+
+    public Collection<Service> getServices() {
+        return serviceInformer.list();
+    }
+
+    public Endpoints getEndpoints(String name) {
+        return null != endpointsInformer ? endpointsInformer.get(name) : null;
+    }
+
+    /**
+     * @return key - Service 名，随 watch 事件变化的只读视图
+     */
+    public Map<String, List<EndpointSlice>> getEndpointSlices() {
+        return Collections.unmodifiableMap(slicesByService);
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.github.open.discovery.kubernetes.watch;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.WatcherException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 单个 namespace 下某一类资源的 informer：先 LIST 一次，再从 resourceVersion 开始 WATCH 增量，
+ * 断线后从最后的 resourceVersion 续上；resourceVersion 过期（410 Gone）时重新 LIST。
+ *
+ * @since 1.0 2026/10/18
+ */
+@Slf4j
+public class ResourceInformer<T extends HasMetadata> implements Watcher<T> {
+
+    private final String kind;
+    @Getter
+    private final String namespace;
+    private final Supplier<ListResult<T>> lister;
+    private final BiFunction<String, Watcher<T>, Watch> watcher;
+    /**
+     * 资源发生变化时回调，参数为变化后的资源，删除时为删除前的资源
+     */
+    private final Consumer<T> listener;
+    private final ScheduledExecutorService scheduler;
+    private final long reconnectIntervalSeconds;
+
+    /**
+     * key - 资源名
+     */
+    private final ConcurrentMap<String, T> store = new ConcurrentHashMap<>();
+
+    @Getter
+    private volatile String resourceVersion;
+    private volatile Watch watch;
+    private volatile boolean stopped = true;
+
+    public ResourceInformer(String kind,
+                            String namespace,
+                            Supplier<ListResult<T>> lister,
+                            BiFunction<String, Watcher<T>, Watch> watcher,
+                            Consumer<T> listener,
+                            ScheduledExecutorService scheduler,
+                            long reconnectIntervalSeconds) {
+        this.kind = kind;
+        this.namespace = namespace;
+        this.lister = lister;
+        this.watcher = watcher;
+        this.listener = listener;
+        this.scheduler = scheduler;
+        this.reconnectIntervalSeconds = reconnectIntervalSeconds;
+    }
+
+    public synchronized void start() {
+        stopped = false;
+        relist();
+        watch();
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (watch != null) {
+            watch.close();
+            watch = null;
+        }
+    }
+
+    public T get(String name) {
+        return store.get(name);
+    }
+
+    public Collection<T> list() {
+        return Collections.unmodifiableCollection(store.values());
+    }
+
+    @Override
+    public void eventReceived(Action action, T resource) {
+        if (resource == null || resource.getMetadata() == null) {
+            return;
+        }
+        String name = resource.getMetadata().getName();
+        switch (action) {
+            case ADDED:
+            case MODIFIED:
+                store.put(name, resource);
+                break;
+            case DELETED:
+                T removed = store.remove(name);
+                if (removed != null) {
+                    resource = removed;
+                }
+                break;
+            default:
+                log.warn("[{}] unexpected {} watch event: {}", namespace, kind, action);
+                return;
+        }
+        resourceVersion = resource.getMetadata().getResourceVersion();
+        listener.accept(resource);
+    }
+
+    @Override
+    public void onClose(WatcherException cause) {
+        if (stopped) {
+            return;
+        }
+        boolean gone = cause != null && cause.isHttpGone();
+        log.warn("[{}] {} watch closed, resourceVersion: {}, relist: {}", namespace, kind, resourceVersion, gone, cause);
+        scheduleReconnect(gone);
+    }
+
+    private void scheduleReconnect(boolean relist) {
+        scheduler.schedule(() -> reconnect(relist), reconnectIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private synchronized void reconnect(boolean relist) {
+        if (stopped) {
+            return;
+        }
+        try {
+            if (relist) {
+                relist();
+            }
+            watch();
+        } catch (Exception e) {
+            log.warn("[{}] {} watch reconnect failed", namespace, kind, e);
+            scheduleReconnect(true);
+        }
+    }
+
+    private void relist() {
+        ListResult<T> result = lister.get();
+
+        Map<String, T> latest = new HashMap<>();
+        for (T item : result.getItems()) {
+            latest.put(item.getMetadata().getName(), item);
+        }
+
+        // 找出和本地不一致的资源，LIST 之后逐个通知
+        List<T> changed = new ArrayList<>();
+        store.forEach((name, old) -> {
+            if (!latest.containsKey(name)) {
+                changed.add(old);
+            }
+        });
+        latest.forEach((name, item) -> {
+            T old = store.get(name);
+            if (old == null || !Objects.equals(old.getMetadata().getResourceVersion(),
+                    item.getMetadata().getResourceVersion())) {
+                changed.add(item);
+            }
+        });
+
+        store.keySet().retainAll(latest.keySet());
+        store.putAll(latest);
+        resourceVersion = result.getResourceVersion();
+        log.debug("[{}] {} listed, size: {}, resourceVersion: {}", namespace, kind, latest.size(), resourceVersion);
+
+        changed.forEach(listener);
+    }
+
+    private void watch() {
+        watch = watcher.apply(resourceVersion, this);
+    }
+
+    /**
+     * LIST 的结果
+     */
+    @Getter
+    public static class ListResult<T> {
+
+        private final List<T> items;
+        private final String resourceVersion;
+
+        public ListResult(List<T> items, String resourceVersion) {
+            this.items = items != null ? items : Collections.emptyList();
+            this.resourceVersion = resourceVersion;
+        }
+    }
+
+}
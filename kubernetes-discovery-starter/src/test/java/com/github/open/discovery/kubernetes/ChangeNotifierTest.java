@@ -0,0 +1,167 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class ChangeNotifierTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void changesInDebounceWindowAreMerged() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(scheduler, executor, 100, 1_000, 1_000);
+        BlockingQueue<Notification> notifications = new LinkedBlockingQueue<>();
+        notifier.addListener((snapshot, diff) -> notifications.add(new Notification(snapshot, diff)));
+
+        DiscoverySnapshot first = withServices(DiscoverySnapshot.EMPTY, "order");
+        DiscoverySnapshot second = withServices(first, "order", "user");
+        DiscoverySnapshot third = withServices(second, "order", "user", "pay");
+        notifier.submit(first);
+        notifier.submit(second);
+        notifier.submit(third);
+
+        Notification notification = notifications.poll(5, TimeUnit.SECONDS);
+        assertNotNull(notification);
+        assertSame(third, notification.snapshot);
+        assertEquals(new HashSet<>(Arrays.asList("order", "user", "pay")), notification.diff.getAdded());
+        assertNull(notifications.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void continuousChangesAreFlushedAfterMaxDelay() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(scheduler, executor, 100, 300, 1_000);
+        BlockingQueue<Notification> notifications = new LinkedBlockingQueue<>();
+        notifier.addListener((snapshot, diff) -> notifications.add(new Notification(snapshot, diff)));
+
+        // 每 20ms 一次变化，防抖窗口永远等不到安静期
+        DiscoverySnapshot snapshot = DiscoverySnapshot.EMPTY;
+        long deadline = System.currentTimeMillis() + 1_000;
+        Notification notification = null;
+        for (int i = 0; null == notification && System.currentTimeMillis() < deadline; i++) {
+            snapshot = withServices(snapshot, "service-" + i);
+            notifier.submit(snapshot);
+            notification = notifications.poll(20, TimeUnit.MILLISECONDS);
+        }
+
+        assertNotNull(notification);
+    }
+
+    @Test
+    void slowListenerDoesNotBlockOthersAndGetsMergedChanges() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(scheduler, executor, 10, 10, 1_000);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<Notification> slow = new LinkedBlockingQueue<>();
+        BlockingQueue<Notification> fast = new LinkedBlockingQueue<>();
+        notifier.addListener((snapshot, diff) -> {
+            slow.add(new Notification(snapshot, diff));
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        notifier.addListener((snapshot, diff) -> fast.add(new Notification(snapshot, diff)));
+
+        DiscoverySnapshot first = withServices(DiscoverySnapshot.EMPTY, "order");
+        notifier.submit(first);
+        assertSame(first, slow.poll(5, TimeUnit.SECONDS).snapshot);
+        assertSame(first, fast.poll(5, TimeUnit.SECONDS).snapshot);
+
+        // slow 还在回调中，fast 照常收到每次变化
+        DiscoverySnapshot second = withServices(first, "order", "user");
+        notifier.submit(second);
+        assertSame(second, fast.poll(5, TimeUnit.SECONDS).snapshot);
+        DiscoverySnapshot third = withServices(second, "order", "user", "pay");
+        notifier.submit(third);
+        assertSame(third, fast.poll(5, TimeUnit.SECONDS).snapshot);
+        assertTrue(slow.isEmpty());
+
+        // slow 返回后只收到一次合并的变化
+        release.countDown();
+        Notification merged = slow.poll(5, TimeUnit.SECONDS);
+        assertSame(third, merged.snapshot);
+        assertEquals(new HashSet<>(Arrays.asList("user", "pay")), merged.diff.getAdded());
+        assertNull(slow.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void failingListenerDoesNotAffectOthers() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(scheduler, executor, 10, 10, 1_000);
+        BlockingQueue<Notification> notifications = new LinkedBlockingQueue<>();
+        notifier.addListener((snapshot, diff) -> {
+            throw new IllegalStateException("listener failed");
+        });
+        notifier.addListener((snapshot, diff) -> notifications.add(new Notification(snapshot, diff)));
+
+        DiscoverySnapshot first = withServices(DiscoverySnapshot.EMPTY, "order");
+        notifier.submit(first);
+        assertSame(first, notifications.poll(5, TimeUnit.SECONDS).snapshot);
+
+        DiscoverySnapshot second = withServices(first, "order", "user");
+        notifier.submit(second);
+        assertSame(second, notifications.poll(5, TimeUnit.SECONDS).snapshot);
+    }
+
+    @Test
+    void removedListenerIsNotNotified() throws Exception {
+        ChangeNotifier notifier = new ChangeNotifier(scheduler, executor, 10, 10, 1_000);
+        BlockingQueue<Notification> notifications = new LinkedBlockingQueue<>();
+        DiscoveryListener listener = (snapshot, diff) -> notifications.add(new Notification(snapshot, diff));
+        notifier.addListener(listener);
+        notifier.removeListener(listener);
+
+        notifier.submit(withServices(DiscoverySnapshot.EMPTY, "order"));
+
+        assertNull(notifications.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static DiscoverySnapshot withServices(DiscoverySnapshot previous, String... serviceIds) {
+        Map<String, KubernetesService> services = new LinkedHashMap<>();
+        for (String serviceId : serviceIds) {
+            KubernetesService existing = previous.getService(serviceId);
+            services.put(serviceId, null != existing ? existing : new KubernetesService(serviceId, serviceId, "shop"));
+        }
+        return previous.next(services, Collections.emptyMap());
+    }
+
+    private static final class Notification {
+
+        private final DiscoverySnapshot snapshot;
+        private final SnapshotDiff diff;
+
+        private Notification(DiscoverySnapshot snapshot, SnapshotDiff diff) {
+            this.snapshot = snapshot;
+            this.diff = diff;
+        }
+    }
+
+}
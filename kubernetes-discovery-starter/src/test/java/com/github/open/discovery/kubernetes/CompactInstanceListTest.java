@@ -0,0 +1,132 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class CompactInstanceListTest {
+
+    private static final KubernetesServiceInstance.Metadata METADATA =
+            KubernetesServiceInstance.Metadata.of(Collections.singletonMap("serviceId", "order"), null);
+    private static final KubernetesServiceInstance.NamedPort HTTP =
+            KubernetesServiceInstance.NamedPort.of("http", 8080, null);
+    private static final KubernetesServiceInstance.NamedPort HTTPS =
+            KubernetesServiceInstance.NamedPort.of("https", 8443, null);
+    private static final List<KubernetesServiceInstance.NamedPort> PORTS = Arrays.asList(HTTP, HTTPS);
+
+    @Test
+    void instancesRoundTripThroughCompactStorage() {
+        List<ServiceInstance> instances = Arrays.asList(
+                instance("10.0.0.1", HTTP, true, "node-1", "zone-a"),
+                // 最高位为 1 的地址存成负数，读出时不能带符号
+                instance("255.255.255.254", HTTP, false, null, null),
+                instance("0.0.0.0", HTTP, true, "node-2", null));
+
+        List<ServiceInstance> compact = CompactInstanceList.compact(instances);
+
+        assertTrue(compact instanceof CompactInstanceList);
+        assertEquals(instances.size(), compact.size());
+        for (int i = 0; i < instances.size(); i++) {
+            assertSameInstance((KubernetesServiceInstance) instances.get(i), (KubernetesServiceInstance) compact.get(i));
+        }
+    }
+
+    @Test
+    void sharedValuesAreKeptByReference() {
+        String zone = new String("zone-a");
+        List<ServiceInstance> compact = CompactInstanceList.compact(Arrays.asList(
+                instance("10.0.0.1", HTTP, true, "node-1", zone),
+                instance("10.0.0.2", HTTP, true, "node-1", new String("zone-a"))));
+
+        KubernetesServiceInstance first = (KubernetesServiceInstance) compact.get(0);
+        KubernetesServiceInstance second = (KubernetesServiceInstance) compact.get(1);
+        assertSame(METADATA, first.getSharedMetadata());
+        assertSame(PORTS, first.getPorts());
+        // 相同的可用区字符串只保留一份
+        assertSame(first.getZone(), second.getZone());
+        assertSame(first.getNodeName(), second.getNodeName());
+    }
+
+    @Test
+    void compactIsIdempotentAndReadOnly() {
+        List<ServiceInstance> compact = CompactInstanceList.compact(
+                Collections.singletonList(instance("10.0.0.1", HTTP, true, null, null)));
+
+        assertSame(compact, CompactInstanceList.compact(compact));
+        assertSame(Collections.emptyList(), CompactInstanceList.compact(Collections.emptyList()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> compact.add(instance("10.0.0.2", HTTP, true, null, null)));
+        assertEquals(compact, compact);
+    }
+
+    @Test
+    void listsThatCannotBeCompactedAreReturnedReadOnly() {
+        List<List<ServiceInstance>> uncompactable = Arrays.asList(
+                Collections.singletonList(instance("fd00::1", HTTP, true, null, null)),
+                Collections.singletonList(instance("10.0.0.256", HTTP, true, null, null)),
+                Collections.singletonList(instance("10.0.0", HTTP, true, null, null)),
+                Collections.singletonList(instance("10..0.1", HTTP, true, null, null)),
+                // 主端口不同
+                Arrays.asList(instance("10.0.0.1", HTTP, true, null, null),
+                        instance("10.0.0.2", HTTPS, true, null, null)),
+                // 不同服务
+                Arrays.asList(instance("10.0.0.1", HTTP, true, null, null),
+                        new KubernetesServiceInstance("user", "10.0.0.2", HTTP, PORTS, "shop", METADATA,
+                                true, null, null)));
+
+        for (List<ServiceInstance> instances : uncompactable) {
+            List<ServiceInstance> result = CompactInstanceList.compact(instances);
+            assertFalse(result instanceof CompactInstanceList, instances.toString());
+            assertEquals(instances, result);
+            assertThrows(UnsupportedOperationException.class, () -> result.remove(0));
+        }
+    }
+
+    @Test
+    void estimateIsSmallerThanInstances() {
+        ServiceInstance[] instances = new ServiceInstance[1000];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = instance("10.0." + (i >> 8) + "." + (i & 0xFF), HTTP, true, null, null);
+        }
+
+        CompactInstanceList compact = (CompactInstanceList) CompactInstanceList.compact(Arrays.asList(instances));
+
+        // 只有地址数组随实例数增长
+        assertTrue(compact.estimateBytes() < 8L * instances.length, String.valueOf(compact.estimateBytes()));
+        assertNull(((KubernetesServiceInstance) compact.get(0)).getZone());
+    }
+
+    private static KubernetesServiceInstance instance(String host, KubernetesServiceInstance.NamedPort primaryPort,
+                                                      boolean ready, String nodeName, String zone) {
+        return new KubernetesServiceInstance("order", host, primaryPort, PORTS, "shop", METADATA,
+                ready, nodeName, zone);
+    }
+
+    private static void assertSameInstance(KubernetesServiceInstance expected, KubernetesServiceInstance actual) {
+        assertEquals(expected.getInstanceId(), actual.getInstanceId());
+        assertEquals(expected.getServiceId(), actual.getServiceId());
+        assertEquals(expected.getHost(), actual.getHost());
+        assertEquals(expected.getPrimaryPort(), actual.getPrimaryPort());
+        assertEquals(expected.getPorts(), actual.getPorts());
+        assertEquals(expected.getNamespace(), actual.getNamespace());
+        assertEquals(expected.getUri(), actual.getUri());
+        assertEquals(expected.isReady(), actual.isReady());
+        assertEquals(expected.getNodeName(), actual.getNodeName());
+        assertEquals(expected.getZone(), actual.getZone());
+        assertEquals(expected.getMetadata(), actual.getMetadata());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class DiscoverySnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws Exception {
+        KubernetesServiceInstance.Metadata metadata = KubernetesServiceInstance.Metadata.of(
+                Collections.singletonMap("app", "order"), Collections.singletonMap("version", "1.2.0"));
+        List<KubernetesServiceInstance.NamedPort> ports = Collections.unmodifiableList(Arrays.asList(
+                KubernetesServiceInstance.NamedPort.of("http", 8080, null),
+                KubernetesServiceInstance.NamedPort.of("grpc", 9090, "grpc")));
+
+        Map<String, KubernetesService> services = new LinkedHashMap<>();
+        services.put("order", new KubernetesService("order", "order-svc", "shop"));
+        services.put("user", new KubernetesService("user", "user-svc", "shop", "backup"));
+        services.put("evicted", new KubernetesService("evicted", "evicted-svc", "shop"));
+        Map<String, List<ServiceInstance>> instances = new HashMap<>();
+        instances.put("order", Arrays.asList(
+                new KubernetesServiceInstance("order", "10.0.0.1", ports.get(0), ports, "shop", metadata,
+                        true, "node-1", "zone-a"),
+                new KubernetesServiceInstance("order", "10.0.0.2", ports.get(0), ports, "shop", metadata,
+                        false, null, null)));
+        instances.put("user", Collections.emptyList());
+        DiscoverySnapshot snapshot = DiscoverySnapshot.EMPTY.next(services, instances);
+
+        DiscoverySnapshotStore store = new DiscoverySnapshotStore(dir.resolve("snapshot.bin"), null, 0);
+        store.write(snapshot);
+        DiscoverySnapshot loaded = store.load();
+
+        assertEquals(snapshot.getServiceIds(), loaded.getServiceIds());
+        assertEquals("backup", loaded.getService("user").getCluster());
+        assertEquals("backup/shop", loaded.getService("user").getNamespaceKey());
+        assertEquals("shop", loaded.getService("order").getNamespaceKey());
+        assertEquals(Collections.emptyList(), loaded.getInstances("user"));
+        // 保存时已淘汰的服务恢复后仍未加载
+        assertNull(loaded.getInstances("evicted"));
+
+        List<ServiceInstance> orderInstances = loaded.getInstances("order");
+        assertEquals(2, orderInstances.size());
+        KubernetesServiceInstance first = (KubernetesServiceInstance) orderInstances.get(0);
+        KubernetesServiceInstance second = (KubernetesServiceInstance) orderInstances.get(1);
+        assertEquals("10.0.0.1", first.getHost());
+        assertEquals(8080, first.getPort());
+        assertEquals(ports, first.getPorts());
+        assertEquals("node-1", first.getNodeName());
+        assertEquals("zone-a", first.getZone());
+        assertEquals("1.2.0", first.getMetadata().get("version"));
+        assertFalse(second.isReady());
+        assertNull(second.getZone());
+        // 共享的 metadata 与端口列表恢复后仍然共享
+        assertSame(first.getSharedMetadata(), second.getSharedMetadata());
+        assertSame(first.getPorts(), second.getPorts());
+    }
+
+    @Test
+    void unrecognizedFileIsIgnored() throws Exception {
+        Path file = dir.resolve("snapshot.bin");
+        Files.write(file, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(new DiscoverySnapshotStore(file, null, 0).load());
+        assertNull(new DiscoverySnapshotStore(dir.resolve("missing.bin"), null, 0).load());
+    }
+
+}
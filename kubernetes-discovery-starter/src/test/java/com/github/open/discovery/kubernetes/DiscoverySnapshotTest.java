@@ -0,0 +1,94 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class DiscoverySnapshotTest {
+
+    private final KubernetesService order = new KubernetesService("order", "order", "shop");
+    private final KubernetesService user = new KubernetesService("user", "user", "shop");
+
+    @Test
+    void nextPrecomputesServiceIdsAndIncrementsVersion() {
+        DiscoverySnapshot snapshot = DiscoverySnapshot.EMPTY.next(services(order, user), Collections.emptyMap());
+
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(Arrays.asList("order", "user"), snapshot.getServiceIds());
+        // 每次读取返回同一个列表，不再复制
+        assertSame(snapshot.getServiceIds(), snapshot.getServiceIds());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getServiceIds().add("pay"));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getServices().remove("order"));
+    }
+
+    @Test
+    void withInstancesKeepsServiceListAndReplacesOnlyChangedInstances() {
+        List<ServiceInstance> orderInstances = instances("order", "10.0.0.1");
+        List<ServiceInstance> userInstances = instances("user", "10.0.0.2");
+        Map<String, List<ServiceInstance>> initial = new HashMap<>();
+        initial.put("order", orderInstances);
+        initial.put("user", userInstances);
+        DiscoverySnapshot first = DiscoverySnapshot.EMPTY.next(services(order, user), initial);
+
+        List<ServiceInstance> changed = instances("order", "10.0.0.3");
+        DiscoverySnapshot second = first.withInstances(Collections.singletonMap("order", changed));
+
+        assertEquals(first.getVersion() + 1, second.getVersion());
+        assertSame(first.getServiceIds(), second.getServiceIds());
+        assertSame(first.getServices(), second.getServices());
+        assertSame(changed, second.getInstances("order"));
+        assertSame(userInstances, second.getInstances("user"));
+        // 旧快照不受影响
+        assertSame(orderInstances, first.getInstances("order"));
+    }
+
+    @Test
+    void withInstancesIgnoresUnknownServices() {
+        DiscoverySnapshot first = DiscoverySnapshot.EMPTY.next(services(order), Collections.emptyMap());
+
+        DiscoverySnapshot second = first.withInstances(Collections.singletonMap("pay", instances("pay", "10.0.0.4")));
+
+        assertNull(second.getInstances("pay"));
+        assertNull(second.getService("pay"));
+    }
+
+    @Test
+    void evictedServiceStaysListedWithoutInstances() {
+        DiscoverySnapshot first = DiscoverySnapshot.EMPTY.next(services(order, user),
+                Collections.singletonMap("order", instances("order", "10.0.0.1")));
+
+        DiscoverySnapshot second = first.withInstances(Collections.emptyMap(), Collections.singletonList("order"));
+
+        assertSame(order, second.getService("order"));
+        assertEquals(Arrays.asList("order", "user"), second.getServiceIds());
+        assertNull(second.getInstances("order"));
+    }
+
+    private static Map<String, KubernetesService> services(KubernetesService... services) {
+        Map<String, KubernetesService> result = new LinkedHashMap<>();
+        for (KubernetesService service : services) {
+            result.put(service.getId(), service);
+        }
+        return result;
+    }
+
+    private static List<ServiceInstance> instances(String serviceId, String host) {
+        return Collections.singletonList(new KubernetesServiceInstance(serviceId, host, 8080, "shop",
+                KubernetesServiceInstance.Metadata.EMPTY));
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.github.open.discovery.kubernetes;
+
+import io.fabric8.kubernetes.api.model.discovery.v1.Endpoint;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointBuilder;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSliceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class EndpointSliceMergerTest {
+
+    private final KubernetesService order = new KubernetesService("order", "order", "shop");
+    private final EndpointSliceMerger merger = new EndpointSliceMerger("service-port", false);
+
+    @Test
+    void addressInSeveralSlicesIsMergedOnce() {
+        // pod 在分片间迁移时短暂出现在两个分片中
+        EndpointSlice first = slice("order-a", "1", "IPv4", endpoint("10.0.0.1", true), endpoint("10.0.0.2", true));
+        EndpointSlice second = slice("order-b", "1", "IPv4", endpoint("10.0.0.2", true), endpoint("10.0.0.3", true));
+
+        List<ServiceInstance> instances = merger.merge(order, Arrays.asList(first, second));
+
+        assertEquals(3, instances.size());
+        assertEquals(hosts("10.0.0.1", "10.0.0.2", "10.0.0.3"), hostsOf(instances));
+    }
+
+    @Test
+    void notReadyEndpointsAreSkippedUnlessIncluded() {
+        Endpoint terminating = new EndpointBuilder()
+                .withAddresses("10.0.0.3")
+                .withNewConditions().withReady(false).withServing(true).withTerminating(true).endConditions()
+                .build();
+        Endpoint unknown = new EndpointBuilder().withAddresses("10.0.0.4").build();
+        EndpointSlice slice = slice("order-a", "1", "IPv4",
+                endpoint("10.0.0.1", true), endpoint("10.0.0.2", false), terminating, unknown);
+
+        // 未知状态按就绪处理；终止中的 pod ready 为 false，不再接收新流量
+        assertEquals(hosts("10.0.0.1", "10.0.0.4"), hostsOf(merger.merge(order, Collections.singletonList(slice))));
+
+        EndpointSliceMerger includeNotReady = new EndpointSliceMerger("service-port", true);
+        Map<String, Boolean> readiness = includeNotReady.merge(order, Collections.singletonList(slice)).stream()
+                .collect(Collectors.toMap(ServiceInstance::getHost, i -> ((KubernetesServiceInstance) i).isReady()));
+        assertTrue(readiness.get("10.0.0.1"));
+        assertFalse(readiness.get("10.0.0.2"));
+        assertFalse(readiness.get("10.0.0.3"));
+        assertTrue(readiness.get("10.0.0.4"));
+    }
+
+    @Test
+    void unchangedSliceIsNotConvertedAgain() {
+        EndpointSlice a = slice("order-a", "1", "IPv4", endpoint("10.0.0.1", true));
+        EndpointSlice b = slice("order-b", "1", "IPv4", endpoint("10.0.0.2", true));
+        List<ServiceInstance> first = merger.merge(order, Arrays.asList(a, b));
+
+        EndpointSlice changedB = slice("order-b", "2", "IPv4", endpoint("10.0.0.3", true));
+        List<ServiceInstance> second = merger.merge(order, Arrays.asList(a, changedB));
+
+        assertSame(instanceOf(first, "10.0.0.1"), instanceOf(second, "10.0.0.1"));
+        assertEquals(hosts("10.0.0.1", "10.0.0.3"), hostsOf(second));
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void fqdnSlicesAndMissingSlicesHaveNoInstances() {
+        EndpointSlice fqdn = slice("order-a", "1", "FQDN", endpoint("order.example.com", true));
+
+        assertTrue(merger.merge(order, Collections.singletonList(fqdn)).isEmpty());
+        assertTrue(merger.merge(order, null).isEmpty());
+    }
+
+    @Test
+    void slicesAreGroupedByServiceLabel() {
+        EndpointSlice a = slice("order-a", "1", "IPv4", endpoint("10.0.0.1", true));
+        EndpointSlice unlabeled = new EndpointSliceBuilder()
+                .withNewMetadata().withName("orphan").endMetadata()
+                .withAddressType("IPv4")
+                .build();
+
+        Map<String, List<EndpointSlice>> groups = EndpointSliceMerger.groupByService(Arrays.asList(a, unlabeled));
+
+        assertEquals(Collections.singleton("order"), groups.keySet());
+        assertEquals(Collections.singletonList(a), groups.get("order"));
+    }
+
+    private static EndpointSlice slice(String name, String resourceVersion, String addressType, Endpoint... endpoints) {
+        return new EndpointSliceBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .withResourceVersion(resourceVersion)
+                .addToLabels(EndpointSliceMerger.SERVICE_NAME_LABEL, "order")
+                .endMetadata()
+                .withAddressType(addressType)
+                .withEndpoints(endpoints)
+                .addNewPort().withName("service-port").withPort(8080).endPort()
+                .build();
+    }
+
+    private static Endpoint endpoint(String address, boolean ready) {
+        return new EndpointBuilder()
+                .withAddresses(address)
+                .withNewConditions().withReady(ready).withServing(ready).endConditions()
+                .build();
+    }
+
+    private static ServiceInstance instanceOf(List<ServiceInstance> instances, String host) {
+        return instances.stream().filter(i -> host.equals(i.getHost())).findFirst().orElse(null);
+    }
+
+    private static Set<String> hosts(String... hosts) {
+        return new HashSet<>(Arrays.asList(hosts));
+    }
+
+    private static Set<String> hostsOf(List<ServiceInstance> instances) {
+        return instances.stream().map(ServiceInstance::getHost).collect(Collectors.toSet());
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class InstanceLoadCoalescerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Set<String>> batches = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void submitsInWindowAreLoadedInOneBatch() throws Exception {
+        InstanceLoadCoalescer coalescer = new InstanceLoadCoalescer(scheduler, 100, this::record);
+
+        CompletableFuture<Void> order = coalescer.submit("order");
+        CompletableFuture<Void> user = coalescer.submit("user");
+        assertSame(order, coalescer.submit("order"));
+
+        CompletableFuture.allOf(order, user).get(5, TimeUnit.SECONDS);
+        assertEquals(1, batches.size());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("order", "user")), batches.get(0));
+
+        // 下一个窗口重新攒批
+        coalescer.submit("order").get(5, TimeUnit.SECONDS);
+        assertEquals(2, batches.size());
+    }
+
+    @Test
+    void loaderFailureFailsWholeBatch() {
+        InstanceLoadCoalescer coalescer = new InstanceLoadCoalescer(scheduler, 0, serviceIds -> {
+            throw new IllegalStateException("api-server unavailable");
+        });
+
+        CompletableFuture<Void> future = coalescer.submit("order");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void rejectedScheduleDoesNotLeaveStaleFuture() {
+        InstanceLoadCoalescer coalescer = new InstanceLoadCoalescer(scheduler, 100, this::record);
+        scheduler.shutdown();
+
+        CompletableFuture<Void> first = coalescer.submit("order");
+        assertTrue(first.isCompletedExceptionally());
+        ExecutionException e = assertThrows(ExecutionException.class, first::get);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        CompletableFuture<Void> second = coalescer.submit("order");
+        assertNotSame(first, second);
+        assertTrue(second.isCompletedExceptionally());
+        assertTrue(batches.isEmpty());
+    }
+
+    private synchronized void record(Set<String> serviceIds) {
+        batches.add(new LinkedHashSet<>(serviceIds));
+    }
+
+}
@@ -0,0 +1,282 @@
+package com.github.open.discovery.kubernetes;
+
+import com.github.open.discovery.kubernetes.client.KubernetesClientManager;
+import com.github.open.discovery.kubernetes.client.KubernetesClientProperties;
+import com.github.open.discovery.kubernetes.fake.FakeKubernetesApiServer;
+import com.github.open.discovery.kubernetes.fake.Fixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 通过 {@link FakeKubernetesApiServer} 端到端验证服务发现
+ *
+ * @since 1.0 2026/10/18
+ */
+class KubernetesDiscoveryClientTest {
+
+    private static final List<String> NAMESPACES = Arrays.asList("shop", "pay");
+    private static final int SERVICES = 3;
+    private static final int INSTANCES = 2;
+
+    private FakeKubernetesApiServer server;
+    private GenericApplicationContext applicationContext;
+    private KubernetesClientManager clientManager;
+    private KubernetesDiscoveryClient discoveryClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeKubernetesApiServer();
+        for (String namespace : NAMESPACES) {
+            server.putNamespace(namespace,
+                    Fixtures.services(namespace, SERVICES),
+                    Fixtures.endpointsList(namespace, SERVICES, INSTANCES),
+                    Fixtures.endpointSliceList(namespace, SERVICES, INSTANCES));
+        }
+        applicationContext = new GenericApplicationContext();
+        applicationContext.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (null != discoveryClient) {
+            discoveryClient.stop();
+        }
+        if (null != clientManager) {
+            clientManager.close();
+        }
+        applicationContext.close();
+        server.close();
+    }
+
+    @Test
+    void firstReadStartsDiscoveryAndWaitsForInitialSync() {
+        KubernetesDiscoveryClient client = createClient(pollingProperties());
+
+        assertEquals(expectedServiceIds(), new HashSet<>(client.getServices()));
+        assertTrue(client.isRunning());
+        for (String namespace : NAMESPACES) {
+            for (int i = 0; i < SERVICES; i++) {
+                List<ServiceInstance> instances = client.getInstances(Fixtures.serviceId(namespace, i));
+                assertEquals(hosts(namespace, i, 0), hostsOf(instances));
+                for (ServiceInstance instance : instances) {
+                    assertEquals(Fixtures.PORT, instance.getPort());
+                    assertEquals(namespace, ((KubernetesServiceInstance) instance).getNamespace());
+                }
+            }
+        }
+    }
+
+    @Test
+    void readsReturnPublishedSnapshotWithoutCopying() {
+        KubernetesDiscoveryClient client = createClient(pollingProperties());
+        String serviceId = Fixtures.serviceId("shop", 0);
+
+        List<String> services = client.getServices();
+        List<ServiceInstance> instances = client.getInstances(serviceId);
+
+        assertSame(services, client.getServices());
+        assertSame(instances, client.getInstances(serviceId));
+        assertSame(client.getSnapshot().getInstances(serviceId), instances);
+        assertThrows(UnsupportedOperationException.class, () -> instances.remove(0));
+    }
+
+    @Test
+    void bulkModeListsEndpointsOncePerNamespace() {
+        KubernetesDiscoveryClient client = createClient(pollingProperties());
+        client.getServices();
+        assertEquals(NAMESPACES.size(), server.getRequestCount(FakeKubernetesApiServer.ENDPOINTS));
+
+        client.refresh();
+
+        assertEquals(2 * NAMESPACES.size(), server.getRequestCount(FakeKubernetesApiServer.ENDPOINTS));
+    }
+
+    @Test
+    void perServiceModeGetsEndpointsForEachService() {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setEndpointsFetchMode(KubernetesDiscoveryProperties.EndpointsFetchMode.PER_SERVICE);
+        KubernetesDiscoveryClient client = createClient(properties);
+        client.getServices();
+        long before = server.getRequestCount(FakeKubernetesApiServer.ENDPOINTS);
+
+        client.refresh();
+
+        assertEquals(NAMESPACES.size() * SERVICES, server.getRequestCount(FakeKubernetesApiServer.ENDPOINTS) - before);
+    }
+
+    @Test
+    void staleInstancesAreReturnedWhileRefreshingInBackground() throws Exception {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setMaxStalenessSeconds(1);
+        KubernetesDiscoveryClient client = createClient(properties);
+        String serviceId = Fixtures.serviceId("shop", 0);
+        assertEquals(hosts("shop", 0, 0), hostsOf(client.getInstances(serviceId)));
+
+        server.updateEndpoints("shop", Fixtures.endpoints("shop", 0, INSTANCES, 1));
+        TimeUnit.MILLISECONDS.sleep(1_200);
+
+        // 超过最大陈旧时间：本次仍返回旧值，后台刷新
+        assertEquals(hosts("shop", 0, 0), hostsOf(client.getInstances(serviceId)));
+        assertTrue(await(() -> hosts("shop", 0, 1).equals(hostsOf(client.getInstances(serviceId)))));
+    }
+
+    @Test
+    void instancesExpireAfterAccessAndReloadOnNextRead() throws Exception {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setExpireAfterAccessSeconds(1);
+        KubernetesDiscoveryClient client = createClient(properties);
+        String idle = Fixtures.serviceId("shop", 0);
+        String busy = Fixtures.serviceId("shop", 1);
+        client.getInstances(idle);
+        client.getInstances(busy);
+
+        TimeUnit.MILLISECONDS.sleep(1_200);
+        client.getInstances(busy);
+        client.refresh();
+
+        assertNull(client.getSnapshot().getInstances(idle));
+        assertNotNull(client.getSnapshot().getInstances(busy));
+        // 被淘汰的服务仍在服务列表中，再次访问时重新加载
+        assertTrue(client.getServices().contains(idle));
+        assertEquals(hosts("shop", 0, 0), hostsOf(client.getInstances(idle)));
+        assertNotNull(client.getSnapshot().getInstances(idle));
+    }
+
+    @Test
+    void endpointsChangesArriveThroughWatch() throws Exception {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setMode(KubernetesDiscoveryProperties.Mode.WATCH);
+        KubernetesDiscoveryClient client = createClient(properties);
+        String serviceId = Fixtures.serviceId("shop", 1);
+        assertEquals(hosts("shop", 1, 0), hostsOf(client.getInstances(serviceId)));
+        awaitWatch(FakeKubernetesApiServer.ENDPOINTS);
+
+        server.updateEndpoints("shop", Fixtures.endpoints("shop", 1, INSTANCES, 1));
+
+        // 定时刷新间隔为 1 小时，变化只能来自 watch
+        assertTrue(await(() -> hosts("shop", 1, 1).equals(hostsOf(client.getInstances(serviceId)))));
+    }
+
+    @Test
+    void servicesAddedThroughWatch() throws Exception {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setMode(KubernetesDiscoveryProperties.Mode.WATCH);
+        KubernetesDiscoveryClient client = createClient(properties);
+        client.getServices();
+        awaitWatch(FakeKubernetesApiServer.SERVICES);
+
+        server.updateEndpoints("pay", Fixtures.endpoints("pay", SERVICES, INSTANCES));
+        server.updateService("pay", Fixtures.service("pay", SERVICES));
+
+        String serviceId = Fixtures.serviceId("pay", SERVICES);
+        assertTrue(await(() -> client.getServices().contains(serviceId)));
+        assertTrue(await(() -> hosts("pay", SERVICES, 0).equals(hostsOf(client.getInstances(serviceId)))));
+    }
+
+    @Test
+    void endpointSlicesArePolledAndWatched() throws Exception {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setEndpointsSource(KubernetesDiscoveryProperties.EndpointsSource.ENDPOINT_SLICES);
+        properties.setMode(KubernetesDiscoveryProperties.Mode.WATCH);
+        KubernetesDiscoveryClient client = createClient(properties);
+        String serviceId = Fixtures.serviceId("pay", 2);
+        assertEquals(hosts("pay", 2, 0), hostsOf(client.getInstances(serviceId)));
+        awaitWatch(FakeKubernetesApiServer.ENDPOINT_SLICES);
+
+        // 新增一个分片，实例合并
+        server.updateEndpointSlice("pay", Fixtures.endpointSlice("pay", 2, INSTANCES, 1, "1"));
+
+        Set<String> merged = new HashSet<>(hosts("pay", 2, 0));
+        merged.addAll(hosts("pay", 2, 1));
+        assertTrue(await(() -> merged.equals(hostsOf(client.getInstances(serviceId)))));
+    }
+
+    @Test
+    void perServiceEndpointSlicesAreSelectedByServiceName() {
+        KubernetesDiscoveryProperties properties = pollingProperties();
+        properties.setEndpointsSource(KubernetesDiscoveryProperties.EndpointsSource.ENDPOINT_SLICES);
+        properties.setEndpointsFetchMode(KubernetesDiscoveryProperties.EndpointsFetchMode.PER_SERVICE);
+        KubernetesDiscoveryClient client = createClient(properties);
+
+        for (int i = 0; i < SERVICES; i++) {
+            assertEquals(hosts("shop", i, 0), hostsOf(client.getInstances(Fixtures.serviceId("shop", i))));
+        }
+    }
+
+    private KubernetesDiscoveryProperties pollingProperties() {
+        KubernetesDiscoveryProperties properties = new KubernetesDiscoveryProperties();
+        properties.setFetchServiceIntervalSeconds(3600);
+        properties.setFetchInstanceIntervalSeconds(3600);
+        properties.setInitialSyncTimeoutSeconds(10);
+        return properties;
+    }
+
+    private KubernetesDiscoveryClient createClient(KubernetesDiscoveryProperties properties) {
+        KubernetesClientProperties clientProperties = new KubernetesClientProperties();
+        clientProperties.setApiServerUrl(server.getUrl());
+        clientProperties.getIncludeNamespaces().addAll(NAMESPACES);
+        clientManager = new KubernetesClientManager(clientProperties);
+        discoveryClient = new KubernetesDiscoveryClient(clientManager, properties, Collections.emptySet(),
+                applicationContext);
+        return discoveryClient;
+    }
+
+    private void awaitWatch(String resource) throws InterruptedException {
+        for (String namespace : NAMESPACES) {
+            assertTrue(await(() -> server.getWatchCount(namespace, resource) > 0), "no watch on " + resource);
+        }
+    }
+
+    private static Set<String> expectedServiceIds() {
+        Set<String> serviceIds = new HashSet<>();
+        for (String namespace : NAMESPACES) {
+            for (int i = 0; i < SERVICES; i++) {
+                serviceIds.add(Fixtures.serviceId(namespace, i));
+            }
+        }
+        return serviceIds;
+    }
+
+    private static Set<String> hosts(String namespace, int index, int generation) {
+        Set<String> hosts = new HashSet<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            hosts.add(Fixtures.ip(namespace, index, (generation + i) % Fixtures.MAX_INSTANCES));
+        }
+        return hosts;
+    }
+
+    private static Set<String> hostsOf(List<ServiceInstance> instances) {
+        return instances.stream().map(ServiceInstance::getHost).collect(Collectors.toSet());
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+}
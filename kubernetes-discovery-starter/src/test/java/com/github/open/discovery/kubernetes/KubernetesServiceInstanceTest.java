@@ -0,0 +1,117 @@
+package com.github.open.discovery.kubernetes;
+
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class KubernetesServiceInstanceTest {
+
+    @Test
+    void metadataMergesLabelsAndAnnotationsOnce() {
+        Endpoints endpoints = new EndpointsBuilder()
+                .withNewMetadata()
+                .withName("order")
+                .addToLabels("serviceId", "order")
+                .addToLabels("owner", "label")
+                .addToAnnotations("owner", "annotation")
+                .endMetadata()
+                .build();
+        KubernetesServiceInstance.Metadata metadata = KubernetesServiceInstance.Metadata.of(endpoints);
+
+        KubernetesServiceInstance first = new KubernetesServiceInstance("order", "10.0.0.1", 8080, "shop", metadata);
+        KubernetesServiceInstance second = new KubernetesServiceInstance("order", "10.0.0.2", 8080, "shop", metadata);
+
+        // 同名时 annotations 优先
+        assertEquals("annotation", first.getMetadata().get("owner"));
+        assertEquals("order", first.getMetadata().get("serviceId"));
+        assertEquals("label", first.getLabels().get("owner"));
+        // 同一服务的实例共享同一个 Map，每次调用不再分配
+        assertSame(first.getMetadata(), second.getMetadata());
+        assertSame(first.getMetadata(), first.getMetadata());
+        assertThrows(UnsupportedOperationException.class, () -> first.getMetadata().put("k", "v"));
+    }
+
+    @Test
+    void metadataDoesNotKeepSourceMaps() {
+        Map<String, String> labels = new HashMap<>();
+        labels.put("serviceId", "order");
+
+        KubernetesServiceInstance.Metadata metadata = KubernetesServiceInstance.Metadata.of(labels, null);
+        labels.put("serviceId", "changed");
+
+        assertEquals("order", metadata.getMerged().get("serviceId"));
+        assertSame(KubernetesServiceInstance.Metadata.EMPTY, KubernetesServiceInstance.Metadata.of((Endpoints) null));
+        assertSame(KubernetesServiceInstance.Metadata.EMPTY, KubernetesServiceInstance.Metadata.of(null, null));
+    }
+
+    @Test
+    void uriIsBuiltOnceWithScheme() {
+        KubernetesServiceInstance instance = new KubernetesServiceInstance("order", "10.0.0.1", 8080, "shop",
+                KubernetesServiceInstance.Metadata.EMPTY);
+
+        assertEquals(URI.create("http://10.0.0.1:8080"), instance.getUri());
+        assertSame(instance.getUri(), instance.getUri());
+        assertEquals("10.0.0.1-8080", instance.getInstanceId());
+    }
+
+    @Test
+    void ipv6HostIsBracketedInUri() {
+        KubernetesServiceInstance instance = new KubernetesServiceInstance("order", "fd00::1", 8080, "shop",
+                KubernetesServiceInstance.Metadata.EMPTY);
+
+        assertEquals(URI.create("http://[fd00::1]:8080"), instance.getUri());
+        assertEquals("fd00::1", instance.getHost());
+    }
+
+    @Test
+    void schemeIsInferredFromAppProtocolThenPortName() {
+        assertTrue(KubernetesServiceInstance.NamedPort.of("https", 443, null).isSecure());
+        assertTrue(KubernetesServiceInstance.NamedPort.of("HTTPS-admin", 8443, null).isSecure());
+        assertTrue(KubernetesServiceInstance.NamedPort.of("grpcs", 9443, null).isSecure());
+        assertTrue(KubernetesServiceInstance.NamedPort.of("web", 443, "kubernetes.io/tls").isSecure());
+        assertFalse(KubernetesServiceInstance.NamedPort.of("http", 80, null).isSecure());
+        assertFalse(KubernetesServiceInstance.NamedPort.of("httpsx", 80, null).isSecure());
+        assertFalse(KubernetesServiceInstance.NamedPort.of(null, 80, null).isSecure());
+        // appProtocol 优先于端口名
+        assertFalse(KubernetesServiceInstance.NamedPort.of("https", 8443, "kubernetes.io/h2c").isSecure());
+
+        KubernetesServiceInstance instance = new KubernetesServiceInstance("order", "10.0.0.1",
+                KubernetesServiceInstance.NamedPort.of("https", 8443, null), null, "shop",
+                KubernetesServiceInstance.Metadata.EMPTY, true, null, null);
+        assertTrue(instance.isSecure());
+        assertEquals("https", instance.getScheme());
+        assertEquals(URI.create("https://10.0.0.1:8443"), instance.getUri());
+    }
+
+    @Test
+    void primaryPortFallsBackToFirstPortInsteadOfFailing() {
+        KubernetesServiceInstance.NamedPort http = KubernetesServiceInstance.NamedPort.of("http", 8080, null);
+        KubernetesServiceInstance.NamedPort grpc = KubernetesServiceInstance.NamedPort.of("grpc", 9090, null);
+        List<KubernetesServiceInstance.NamedPort> ports = Arrays.asList(http, grpc);
+
+        assertSame(grpc, KubernetesServiceInstance.NamedPort.primaryOf(ports, "GRPC"));
+        assertSame(http, KubernetesServiceInstance.NamedPort.primaryOf(ports, "service-port"));
+        assertSame(http, KubernetesServiceInstance.NamedPort.primaryOf(ports, null));
+        // 只有一个端口时不看名称
+        assertSame(grpc, KubernetesServiceInstance.NamedPort.primaryOf(Collections.singletonList(grpc), "http"));
+        assertNull(KubernetesServiceInstance.NamedPort.primaryOf(Collections.emptyList(), "http"));
+    }
+
+}
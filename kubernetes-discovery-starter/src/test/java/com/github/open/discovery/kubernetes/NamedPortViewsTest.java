@@ -0,0 +1,81 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class NamedPortViewsTest {
+
+    private static final KubernetesServiceInstance.NamedPort HTTP =
+            KubernetesServiceInstance.NamedPort.of("http", 8080, null);
+    private static final KubernetesServiceInstance.NamedPort GRPC =
+            KubernetesServiceInstance.NamedPort.of("grpc", 9090, "kubernetes.io/h2c");
+    private static final KubernetesServiceInstance.NamedPort METRICS =
+            KubernetesServiceInstance.NamedPort.of("metrics", 9100, null);
+
+    private final NamedPortViews views = new NamedPortViews();
+
+    @Test
+    void instancesAreViewedThroughNamedPort() {
+        List<ServiceInstance> instances = Arrays.asList(
+                instance("10.0.0.1", HTTP, GRPC, METRICS),
+                // 老版本实例没有 metrics 端口
+                instance("10.0.0.2", HTTP, GRPC));
+
+        List<ServiceInstance> metrics = views.apply("order", "METRICS", instances);
+
+        assertEquals(1, metrics.size());
+        assertEquals(9100, metrics.get(0).getPort());
+        assertEquals(URI.create("http://10.0.0.1:9100"), metrics.get(0).getUri());
+        assertEquals("10.0.0.1-9100", metrics.get(0).getInstanceId());
+        assertEquals(2, views.apply("order", "grpc", instances).size());
+        assertTrue(views.apply("order", "admin", instances).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> metrics.remove(0));
+    }
+
+    @Test
+    void primaryPortViewReturnsSameInstance() {
+        ServiceInstance instance = instance("10.0.0.1", HTTP, GRPC);
+
+        assertSame(instance, views.apply("order", "http", Collections.singletonList(instance)).get(0));
+    }
+
+    @Test
+    void viewIsReusedUntilInstancesAreReplaced() {
+        List<ServiceInstance> instances = Collections.singletonList(instance("10.0.0.1", HTTP, GRPC));
+        List<ServiceInstance> grpc = views.apply("order", "grpc", instances);
+
+        assertSame(grpc, views.apply("order", "GRPC", instances));
+        List<ServiceInstance> replaced = Collections.singletonList(instance("10.0.0.2", HTTP, GRPC));
+        assertNotSame(grpc, views.apply("order", "grpc", replaced));
+    }
+
+    @Test
+    void retainDropsViewsOfRemovedServices() {
+        List<ServiceInstance> instances = Collections.singletonList(instance("10.0.0.1", HTTP, GRPC));
+        List<ServiceInstance> grpc = views.apply("order", "grpc", instances);
+
+        views.retain(Collections.singleton("user"));
+
+        assertNotSame(grpc, views.apply("order", "grpc", instances));
+    }
+
+    private static ServiceInstance instance(String host, KubernetesServiceInstance.NamedPort... ports) {
+        return new KubernetesServiceInstance("order", host, ports[0], Arrays.asList(ports), "shop",
+                KubernetesServiceInstance.Metadata.EMPTY, true, null, null);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class NamespaceCircuitBreakerTest {
+
+    private static final String NAMESPACE = "shop";
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        NamespaceCircuitBreaker breaker = new NamespaceCircuitBreaker(3, 60_000, 60_000);
+
+        breaker.onFailure(NAMESPACE, new IllegalStateException());
+        breaker.onFailure(NAMESPACE, new IllegalStateException());
+        assertTrue(breaker.allowRequest(NAMESPACE));
+
+        breaker.onFailure(NAMESPACE, new IllegalStateException("boom"));
+        assertFalse(breaker.allowRequest(NAMESPACE));
+        NamespaceCircuitBreaker.Status status = breaker.getStatus().get(NAMESPACE);
+        assertEquals(NamespaceCircuitBreaker.State.OPEN, status.getState());
+        assertEquals(3, status.getConsecutiveFailures());
+        assertEquals("java.lang.IllegalStateException: boom", status.getLastError());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        NamespaceCircuitBreaker breaker = new NamespaceCircuitBreaker(2, 60_000, 60_000);
+
+        breaker.onFailure(NAMESPACE, null);
+        breaker.onSuccess(NAMESPACE);
+        breaker.onFailure(NAMESPACE, null);
+
+        assertTrue(breaker.allowRequest(NAMESPACE));
+        assertEquals(NamespaceCircuitBreaker.State.CLOSED, breaker.getStatus().get(NAMESPACE).getState());
+    }
+
+    @Test
+    void halfOpenAllowsSingleProbe() {
+        NamespaceCircuitBreaker breaker = openedWithZeroBackoff();
+
+        assertTrue(breaker.allowRequest(NAMESPACE));
+        assertEquals(NamespaceCircuitBreaker.State.HALF_OPEN, breaker.getStatus().get(NAMESPACE).getState());
+        assertFalse(breaker.allowRequest(NAMESPACE));
+
+        breaker.onSuccess(NAMESPACE);
+        assertEquals(NamespaceCircuitBreaker.State.CLOSED, breaker.getStatus().get(NAMESPACE).getState());
+        assertTrue(breaker.allowRequest(NAMESPACE));
+    }
+
+    @Test
+    void failedProbeOpensAgain() {
+        NamespaceCircuitBreaker breaker = new NamespaceCircuitBreaker(1, 0, 60_000);
+        breaker.onFailure(NAMESPACE, null);
+        assertTrue(breaker.allowRequest(NAMESPACE));
+
+        breaker.onFailure(NAMESPACE, null);
+
+        // 探测失败回到 OPEN，连续失败数继续累加
+        assertEquals(NamespaceCircuitBreaker.State.OPEN, breaker.getStatus().get(NAMESPACE).getState());
+        assertEquals(2, breaker.getStatus().get(NAMESPACE).getConsecutiveFailures());
+    }
+
+    @Test
+    void backoffIsBoundedByMax() {
+        NamespaceCircuitBreaker breaker = new NamespaceCircuitBreaker(1, 1_000, 2_000);
+        for (int i = 0; i < 10; i++) {
+            breaker.onFailure(NAMESPACE, null);
+        }
+
+        long remaining = breaker.getStatus().get(NAMESPACE).getOpenUntil() - System.currentTimeMillis();
+        // max * 1.5 的随机抖动上限
+        assertTrue(remaining <= 3_000, "remaining: " + remaining);
+    }
+
+    @Test
+    void cancelledProbeIsReleased() {
+        NamespaceCircuitBreaker breaker = openedWithZeroBackoff();
+        assertTrue(breaker.allowRequest(NAMESPACE));
+
+        breaker.onCancelled(NAMESPACE);
+
+        NamespaceCircuitBreaker.Status status = breaker.getStatus().get(NAMESPACE);
+        assertEquals(NamespaceCircuitBreaker.State.OPEN, status.getState());
+        // 取消不计入失败
+        assertEquals(1, status.getConsecutiveFailures());
+        assertTrue(breaker.allowRequest(NAMESPACE));
+    }
+
+    private static NamespaceCircuitBreaker openedWithZeroBackoff() {
+        NamespaceCircuitBreaker breaker = new NamespaceCircuitBreaker(1, 0, 0);
+        breaker.onFailure(NAMESPACE, null);
+        assertEquals(NamespaceCircuitBreaker.State.OPEN, breaker.getStatus().get(NAMESPACE).getState());
+        return breaker;
+    }
+
+}
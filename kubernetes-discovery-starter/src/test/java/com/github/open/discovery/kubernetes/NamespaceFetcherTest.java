@@ -0,0 +1,120 @@
+package com.github.open.discovery.kubernetes;
+
+import com.github.open.discovery.kubernetes.metrics.DiscoveryMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class NamespaceFetcherTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void queueTimeIsNotCountedAgainstTimeout() {
+        // 一个并发许可，每个 namespace 耗时 150ms，三个 namespace 排队总耗时超过 200ms 的超时时间
+        NamespaceFetcher fetcher = fetcher(1, 200);
+
+        Map<String, String> result = fetcher.fetch(DiscoveryMetrics.RESOURCE_SERVICES, Arrays.asList("a", "b", "c"),
+                namespace -> {
+                    sleep(150);
+                    return namespace;
+                });
+
+        assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList(result.keySet().toArray()));
+    }
+
+    @Test
+    void slowNamespaceTimesOutWithoutBlockingOthers() {
+        NamespaceCircuitBreaker circuitBreaker = new NamespaceCircuitBreaker(1, 60_000, 60_000);
+        NamespaceFetcher fetcher = new NamespaceFetcher(executor, 2, 200, DiscoveryMetrics.NOOP, circuitBreaker,
+                new RetryBudget(0, 0), 0);
+
+        long start = System.nanoTime();
+        Map<String, String> result = fetcher.fetch(DiscoveryMetrics.RESOURCE_SERVICES, Arrays.asList("slow", "fast"),
+                namespace -> {
+                    sleep("slow".equals(namespace) ? 5_000 : 10);
+                    return namespace;
+                });
+
+        assertEquals(1, result.size());
+        assertEquals("fast", result.get("fast"));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertEquals(NamespaceCircuitBreaker.State.OPEN, circuitBreaker.getStatus().get("slow").getState());
+    }
+
+    @Test
+    void failedNamespaceIsRetriedWithinBudget() {
+        NamespaceFetcher fetcher = new NamespaceFetcher(executor, 2, 1_000, DiscoveryMetrics.NOOP,
+                new NamespaceCircuitBreaker(3, 1_000, 1_000), new RetryBudget(0.1, 1), 0);
+        int[] calls = new int[1];
+
+        Map<String, String> result = fetcher.fetch(DiscoveryMetrics.RESOURCE_SERVICES, Arrays.asList("a"),
+                namespace -> {
+                    if (calls[0]++ == 0) {
+                        throw new IllegalStateException("api-server unavailable");
+                    }
+                    return namespace;
+                });
+
+        assertEquals("a", result.get("a"));
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    void interruptReleasesHalfOpenProbe() throws Exception {
+        NamespaceCircuitBreaker circuitBreaker = new NamespaceCircuitBreaker(1, 0, 0);
+        circuitBreaker.onFailure("a", null);
+        NamespaceFetcher fetcher = new NamespaceFetcher(executor, 1, 60_000, DiscoveryMetrics.NOOP, circuitBreaker,
+                new RetryBudget(0, 0), 0);
+        CountDownLatch started = new CountDownLatch(1);
+
+        Thread refresher = new Thread(() -> fetcher.fetch(DiscoveryMetrics.RESOURCE_SERVICES,
+                Collections.singletonList("a"), namespace -> {
+                    started.countDown();
+                    sleep(60_000);
+                    return namespace;
+                }));
+        refresher.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(NamespaceCircuitBreaker.State.HALF_OPEN, circuitBreaker.getStatus().get("a").getState());
+
+        refresher.interrupt();
+        refresher.join(5_000);
+
+        assertEquals(NamespaceCircuitBreaker.State.OPEN, circuitBreaker.getStatus().get("a").getState());
+        assertTrue(circuitBreaker.allowRequest("a"));
+    }
+
+    private NamespaceFetcher fetcher(int parallelism, long timeoutMillis) {
+        return new NamespaceFetcher(executor, parallelism, timeoutMillis, DiscoveryMetrics.NOOP,
+                new NamespaceCircuitBreaker(3, 1_000, 1_000), new RetryBudget(0, 0), 0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.github.open.discovery.kubernetes;
+
+import com.github.open.discovery.kubernetes.fake.FakeKubernetesApiServer;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.NodeBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class NodeZoneResolverTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private FakeKubernetesApiServer server;
+    private KubernetesClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeKubernetesApiServer();
+        server.updateNode(node("node-1", NodeZoneResolver.ZONE_LABEL, "zone-a"));
+        // 老版本集群只有 beta 标签
+        server.updateNode(node("node-2", "failure-domain.beta.kubernetes.io/zone", "zone-b"));
+        client = new DefaultKubernetesClient(new ConfigBuilder().withMasterUrl(server.getUrl()).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void zonesAreReadFromNodeLabels() {
+        NodeZoneResolver resolver = new NodeZoneResolver(executor, 60_000, 5_000);
+        assertNull(resolver.zoneOf(client, "node-1"));
+
+        resolver.refresh(Collections.singletonList(client));
+
+        assertEquals("zone-a", resolver.zoneOf(client, "node-1"));
+        assertEquals("zone-b", resolver.zoneOf(client, "node-2"));
+        assertNull(resolver.zoneOf(client, "node-3"));
+        assertNull(resolver.zoneOf(client, null));
+    }
+
+    @Test
+    void nodesAreListedOncePerClusterUntilTtlExpires() throws Exception {
+        NodeZoneResolver resolver = new NodeZoneResolver(executor, 300, 5_000);
+
+        // 同一集群的多个 client 只加载一次
+        resolver.refresh(Arrays.asList(client, client));
+        resolver.refresh(Collections.singletonList(client));
+        assertEquals(1, server.getRequestCount(FakeKubernetesApiServer.NODES));
+
+        server.updateNode(node("node-1", NodeZoneResolver.ZONE_LABEL, "zone-c"));
+        TimeUnit.MILLISECONDS.sleep(400);
+        resolver.refresh(Collections.singletonList(client));
+
+        assertEquals(2, server.getRequestCount(FakeKubernetesApiServer.NODES));
+        assertEquals("zone-c", resolver.zoneOf(client, "node-1"));
+    }
+
+    @Test
+    void slowListTimesOutAndIsNotRetriedBeforeTtl() throws Exception {
+        NodeZoneResolver resolver = new NodeZoneResolver(executor, 60_000, 100);
+        // 预热 client，避免首次请求的初始化耗时算进超时
+        client.nodes().list();
+        server.setLatencyMillis(1_000);
+
+        long start = System.nanoTime();
+        resolver.refresh(Collections.singletonList(client));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 900, "refresh waited " + elapsedMillis + "ms");
+        assertNull(resolver.zoneOf(client, "node-1"));
+        // 失败后过期前不再重试
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(2, server.getRequestCount(FakeKubernetesApiServer.NODES));
+        resolver.refresh(Collections.singletonList(client));
+        assertEquals(2, server.getRequestCount(FakeKubernetesApiServer.NODES));
+    }
+
+    private static Node node(String name, String zoneLabel, String zone) {
+        return new NodeBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .addToLabels(zoneLabel, zone)
+                .endMetadata()
+                .build();
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class RefreshPlannerTest {
+
+    private static final long INTERVAL = 1_000;
+    private static final long MIN_INTERVAL = 250;
+    private static final long MAX_INTERVAL = 8_000;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private static final List<String> ORDER = Collections.singletonList("order");
+
+    @Test
+    void firstRefreshIsSpreadWithinOneInterval() {
+        RefreshPlanner planner = planner(0, Collections.emptyMap());
+        long now = System.currentTimeMillis();
+
+        // 刚加载过的服务不会立即刷新
+        assertTrue(planner.due(ORDER, now).isEmpty());
+        assertEquals(Collections.singleton("order"), planner.due(ORDER, now + INTERVAL));
+    }
+
+    @Test
+    void unchangedServicesBackOffUntilMaxInterval() {
+        RefreshPlanner planner = planner(0, Collections.emptyMap());
+        long now = System.currentTimeMillis();
+        planner.due(ORDER, now);
+
+        // 1s -> 2s -> 4s -> 8s -> 8s
+        for (long expected : new long[]{2_000, 4_000, 8_000, 8_000}) {
+            planner.onRefreshed("order", false, now);
+            assertNextRefresh(planner, now, expected);
+        }
+
+        // 有变化时恢复初始间隔
+        planner.onRefreshed("order", true, now);
+        assertNextRefresh(planner, now, INTERVAL);
+    }
+
+    @Test
+    void overriddenServicesKeepTheirInterval() {
+        RefreshPlanner planner = planner(0, Collections.singletonMap("order", 3_000L));
+        long now = System.currentTimeMillis();
+        planner.due(ORDER, now);
+
+        planner.onRefreshed("order", false, now);
+        assertNextRefresh(planner, now, 3_000);
+        planner.onRefreshed("order", true, now);
+        assertNextRefresh(planner, now, 3_000);
+    }
+
+    @Test
+    void hotServicesAreRefreshedMoreOften() {
+        RefreshPlanner planner = planner(0, Collections.emptyMap());
+        long now = System.currentTimeMillis();
+        planner.due(ORDER, now);
+        // 退避到 4s，下次刷新在窗口结束之后
+        planner.onRefreshed("order", false, now + MINUTE - 1);
+        planner.onRefreshed("order", false, now + MINUTE - 1);
+
+        for (int i = 0; i < 20; i++) {
+            planner.onAccess("order");
+        }
+        // 一分钟窗口结束后变热，立即按热点间隔重新排期
+        now += MINUTE;
+        assertTrue(planner.due(ORDER, now).isEmpty());
+        assertEquals(Collections.singleton("order"), planner.getHotServices());
+        assertNextRefresh(planner, now, MIN_INTERVAL);
+
+        // 热点服务最多退避到 interval
+        planner.onRefreshed("order", false, now);
+        planner.onRefreshed("order", false, now);
+        planner.onRefreshed("order", false, now);
+        assertNextRefresh(planner, now, INTERVAL);
+
+        // 下一个窗口没有访问，不再是热点
+        now += MINUTE;
+        planner.due(ORDER, now);
+        assertTrue(planner.getHotServices().isEmpty());
+    }
+
+    @Test
+    void removedServicesAreForgotten() {
+        RefreshPlanner planner = planner(0, Collections.emptyMap());
+        long now = System.currentTimeMillis();
+        planner.due(ORDER, now);
+        planner.onRefreshed("order", false, now);
+
+        assertTrue(planner.due(Collections.emptyList(), now + MAX_INTERVAL).isEmpty());
+        // 重新出现时按新服务处理
+        assertTrue(planner.due(ORDER, now + MAX_INTERVAL).isEmpty());
+    }
+
+    @Test
+    void nextRefreshIsJittered() {
+        RefreshPlanner planner = planner(0.2, Collections.emptyMap());
+        long now = System.currentTimeMillis();
+        planner.due(ORDER, now);
+
+        for (int i = 0; i < 100; i++) {
+            planner.onRefreshed("order", true, now);
+            assertTrue(planner.due(ORDER, now + 799).isEmpty());
+            assertEquals(Collections.singleton("order"), planner.due(ORDER, now + 1_200));
+        }
+    }
+
+    private static RefreshPlanner planner(double jitterRatio, Map<String, Long> overrides) {
+        return new RefreshPlanner(INTERVAL, MIN_INTERVAL, MAX_INTERVAL, jitterRatio, 10, overrides);
+    }
+
+    /**
+     * 间隔没有抖动时，恰好在 now + interval 到期
+     */
+    private static void assertNextRefresh(RefreshPlanner planner, long now, long interval) {
+        Set<String> early = planner.due(ORDER, now + interval - 1);
+        assertTrue(early.isEmpty(), "due before " + interval + "ms");
+        assertEquals(Collections.singleton("order"), planner.due(ORDER, now + interval));
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class RetryBudgetTest {
+
+    @Test
+    void initialTokensAllowBurstOfRetries() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    void retriesAreBoundedByRequestRatio() {
+        RetryBudget budget = new RetryBudget(0.1, 1);
+        budget.tryRetry();
+
+        int retries = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.onRequest();
+            if (budget.tryRetry()) {
+                retries++;
+            }
+        }
+
+        // 每 10 次请求左右攒够一个令牌，重试数不超过请求数的 ratio 倍
+        assertTrue(retries <= 100 && retries >= 90, "retries: " + retries);
+    }
+
+    @Test
+    void tokensDoNotExceedMax() {
+        RetryBudget budget = new RetryBudget(1, 3);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        int retries = 0;
+        while (budget.tryRetry()) {
+            retries++;
+        }
+        assertEquals(3, retries);
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class ServiceIndexTest {
+
+    private final ServiceIndex index = new ServiceIndex(Collections.singleton("excluded"));
+
+    @Test
+    void earlierNamespaceWinsConflict() {
+        KubernetesService prod = new KubernetesService("order", "order", "prod");
+        KubernetesService test = new KubernetesService("order", "order", "test");
+
+        assertTrue(index.update(namespaces("prod", list(prod), "test", list(test))));
+
+        assertSame(prod, index.getServices().get("order"));
+        ServiceIndex.Conflict conflict = index.getConflicts().get("order");
+        assertSame(prod, conflict.getWinner());
+        assertEquals(list(test), conflict.getShadowed());
+    }
+
+    @Test
+    void sameNamespaceIsOrderedByServiceName() {
+        KubernetesService b = new KubernetesService("order", "order-b", "prod");
+        KubernetesService a = new KubernetesService("order", "order-a", "prod");
+
+        index.update(namespaces("prod", list(b, a)));
+
+        assertSame(a, index.getServices().get("order"));
+    }
+
+    @Test
+    void namespaceOrderChangeReresolvesConflicts() {
+        KubernetesService prod = new KubernetesService("order", "order", "prod");
+        KubernetesService test = new KubernetesService("order", "order", "test");
+        index.update(namespaces("prod", list(prod), "test", list(test)));
+
+        assertTrue(index.update(namespaces("test", list(test), "prod", list(prod))));
+
+        assertSame(test, index.getServices().get("order"));
+    }
+
+    @Test
+    void removingWinnerPromotesShadowedService() {
+        KubernetesService prod = new KubernetesService("order", "order", "prod");
+        KubernetesService test = new KubernetesService("order", "order", "test");
+        index.update(namespaces("prod", list(prod), "test", list(test)));
+
+        assertTrue(index.update(namespaces("prod", list(), "test", list(test))));
+
+        assertSame(test, index.getServices().get("order"));
+        assertNull(index.getConflicts().get("order"));
+
+        // namespace 从结果中消失时其服务全部移除
+        assertTrue(index.update(namespaces("prod", list())));
+        assertTrue(index.getServices().isEmpty());
+    }
+
+    @Test
+    void unchangedUpdateKeepsSameView() {
+        index.update(namespaces("prod", list(new KubernetesService("order", "order", "prod"))));
+        Map<String, KubernetesService> services = index.getServices();
+
+        // 每轮拉取得到的是新对象，serviceId 没变即视为没有变化
+        assertFalse(index.update(namespaces("prod", list(new KubernetesService("order", "order", "prod")))));
+
+        assertSame(services, index.getServices());
+    }
+
+    @Test
+    void serviceIdChangeMovesService() {
+        index.update(namespaces("prod", list(new KubernetesService("order", "order", "prod"))));
+
+        assertTrue(index.update(namespaces("prod", list(new KubernetesService("order-v2", "order", "prod")))));
+
+        assertNull(index.getServices().get("order"));
+        assertEquals("order", index.getServices().get("order-v2").getName());
+    }
+
+    @Test
+    void excludedServicesAreIgnored() {
+        index.update(namespaces("prod", list(new KubernetesService("excluded", "excluded", "prod"))));
+
+        assertTrue(index.getServices().isEmpty());
+    }
+
+    @Test
+    void sameNamespaceInTwoClustersConflictsByClusterOrder() {
+        KubernetesService primary = new KubernetesService("order", "order", "prod");
+        KubernetesService backup = new KubernetesService("order", "order", "prod", "backup");
+
+        index.update(namespaces(primary.getNamespaceKey(), list(primary), backup.getNamespaceKey(), list(backup)));
+
+        assertSame(primary, index.getServices().get("order"));
+        assertEquals(list(backup), index.getConflicts().get("order").getShadowed());
+    }
+
+    @Test
+    void serviceIdIsFoundByNamespaceAndName() {
+        KubernetesService prod = new KubernetesService("order", "order", "prod");
+        KubernetesService test = new KubernetesService("order", "order", "test");
+        index.update(namespaces("prod", list(prod), "test", list(test)));
+
+        assertEquals("order", index.getServiceId("prod", "order"));
+        // 被覆盖的 Service 不生效
+        assertNull(index.getServiceId("test", "order"));
+
+        index.update(namespaces("test", list(test)));
+        assertNull(index.getServiceId("prod", "order"));
+        assertEquals("order", index.getServiceId("test", "order"));
+    }
+
+    @Test
+    void serviceIdChangeUpdatesNameLookup() {
+        index.update(namespaces("prod", list(new KubernetesService("order", "order", "prod"))));
+
+        index.update(namespaces("prod", list(new KubernetesService("order-v2", "order", "prod"))));
+
+        assertEquals("order-v2", index.getServiceId("prod", "order"));
+    }
+
+    private static List<KubernetesService> list(KubernetesService... services) {
+        return Arrays.asList(services);
+    }
+
+    private static Map<String, List<KubernetesService>> namespaces(Object... namespaceAndServices) {
+        Map<String, List<KubernetesService>> result = new LinkedHashMap<>();
+        for (int i = 0; i < namespaceAndServices.length; i += 2) {
+            @SuppressWarnings("unchecked")
+            List<KubernetesService> services = (List<KubernetesService>) namespaceAndServices[i + 1];
+            result.put((String) namespaceAndServices[i], services);
+        }
+        return result;
+    }
+
+}
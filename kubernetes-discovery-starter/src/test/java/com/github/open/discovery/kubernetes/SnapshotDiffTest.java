@@ -0,0 +1,141 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class SnapshotDiffTest {
+
+    @Test
+    void servicesAreAddedRemovedAndModified() {
+        DiscoverySnapshot previous = snapshot(services(
+                new KubernetesService("order", "order", "shop"),
+                new KubernetesService("user", "user", "shop")), Collections.emptyMap());
+        // 数量不变：user 被 pay 替换，order 换了 Service
+        DiscoverySnapshot next = previous.next(services(
+                new KubernetesService("order", "order-v2", "shop"),
+                new KubernetesService("pay", "pay", "shop")), Collections.emptyMap());
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, next);
+
+        assertEquals(Collections.singleton("pay"), diff.getAdded());
+        assertEquals(Collections.singleton("user"), diff.getRemoved());
+        assertEquals(Collections.singleton("order"), diff.getModified());
+    }
+
+    @Test
+    void unchangedSnapshotHasEmptyDiff() {
+        KubernetesService order = new KubernetesService("order", "order", "shop");
+        DiscoverySnapshot previous = snapshot(services(order),
+                Collections.singletonMap("order", instances("order", "10.0.0.1")));
+        // 重新拉取得到的是新对象，内容相同
+        DiscoverySnapshot next = previous.withInstances(
+                Collections.singletonMap("order", instances("order", "10.0.0.1")));
+
+        assertTrue(SnapshotDiff.between(previous, next).isEmpty());
+    }
+
+    @Test
+    void instanceChangesAreComparedByInstanceId() {
+        KubernetesService order = new KubernetesService("order", "order", "shop");
+        DiscoverySnapshot previous = snapshot(services(order),
+                Collections.singletonMap("order", instances("order", "10.0.0.1", "10.0.0.2")));
+        DiscoverySnapshot next = previous.withInstances(
+                Collections.singletonMap("order", instances("order", "10.0.0.2", "10.0.0.3")));
+
+        SnapshotDiff.InstanceChange change = SnapshotDiff.between(previous, next).getInstanceChanges().get("order");
+
+        assertEquals(Collections.singletonList("10.0.0.3"), hostsOf(change.getAdded()));
+        assertEquals(Collections.singletonList("10.0.0.1"), hostsOf(change.getRemoved()));
+    }
+
+    @Test
+    void readinessChangeIsReportedAsRemovedAndAdded() {
+        KubernetesService order = new KubernetesService("order", "order", "shop");
+        DiscoverySnapshot previous = snapshot(services(order),
+                Collections.singletonMap("order", Collections.singletonList(instance("order", "10.0.0.1", true))));
+        DiscoverySnapshot next = previous.withInstances(
+                Collections.singletonMap("order", Collections.singletonList(instance("order", "10.0.0.1", false))));
+
+        SnapshotDiff.InstanceChange change = SnapshotDiff.between(previous, next).getInstanceChanges().get("order");
+
+        assertEquals(1, change.getAdded().size());
+        assertEquals(1, change.getRemoved().size());
+    }
+
+    @Test
+    void addedAndRemovedServicesCarryTheirInstances() {
+        DiscoverySnapshot previous = snapshot(services(new KubernetesService("user", "user", "shop")),
+                Collections.singletonMap("user", instances("user", "10.0.0.1")));
+        DiscoverySnapshot next = previous.next(services(new KubernetesService("pay", "pay", "shop")),
+                Collections.singletonMap("pay", instances("pay", "10.0.0.2")));
+
+        SnapshotDiff diff = SnapshotDiff.between(previous, next);
+
+        assertEquals(Collections.singletonList("10.0.0.2"),
+                hostsOf(diff.getInstanceChanges().get("pay").getAdded()));
+        assertEquals(Collections.singletonList("10.0.0.1"),
+                hostsOf(diff.getInstanceChanges().get("user").getRemoved()));
+    }
+
+    @Test
+    void evictionAndReloadAreNotChanges() {
+        KubernetesService order = new KubernetesService("order", "order", "shop");
+        DiscoverySnapshot loaded = snapshot(services(order),
+                Collections.singletonMap("order", instances("order", "10.0.0.1")));
+        DiscoverySnapshot evicted = loaded.withInstances(Collections.emptyMap(), Collections.singletonList("order"));
+        DiscoverySnapshot reloaded = evicted.withInstances(
+                Collections.singletonMap("order", instances("order", "10.0.0.2")));
+
+        assertTrue(SnapshotDiff.between(loaded, evicted).isEmpty());
+        assertNull(SnapshotDiff.between(evicted, reloaded).getInstanceChanges().get("order"));
+    }
+
+    private static DiscoverySnapshot snapshot(Map<String, KubernetesService> services,
+                                              Map<String, List<ServiceInstance>> instances) {
+        return DiscoverySnapshot.EMPTY.next(services, new HashMap<>(instances));
+    }
+
+    private static Map<String, KubernetesService> services(KubernetesService... services) {
+        Map<String, KubernetesService> result = new LinkedHashMap<>();
+        for (KubernetesService service : services) {
+            result.put(service.getId(), service);
+        }
+        return result;
+    }
+
+    private static List<ServiceInstance> instances(String serviceId, String... hosts) {
+        ServiceInstance[] instances = new ServiceInstance[hosts.length];
+        for (int i = 0; i < hosts.length; i++) {
+            instances[i] = instance(serviceId, hosts[i], true);
+        }
+        return Collections.unmodifiableList(Arrays.asList(instances));
+    }
+
+    private static ServiceInstance instance(String serviceId, String host, boolean ready) {
+        return new KubernetesServiceInstance(serviceId, host, 8080, "shop",
+                KubernetesServiceInstance.Metadata.EMPTY, ready, null, null);
+    }
+
+    private static List<String> hostsOf(List<ServiceInstance> instances) {
+        String[] hosts = new String[instances.size()];
+        for (int i = 0; i < hosts.length; i++) {
+            hosts[i] = instances.get(i).getHost();
+        }
+        return Arrays.asList(hosts);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.open.discovery.kubernetes;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class ZonePreferenceTest {
+
+    private final ZonePreference preference = new ZonePreference("zone-a", 0.3);
+
+    @Test
+    void localInstancesOnlyWhenAboveThreshold() {
+        // 同可用区 2 / 5 = 0.4，不低于 0.3
+        List<ServiceInstance> instances = Arrays.asList(
+                instance("10.0.0.1", "zone-a", true),
+                instance("10.0.0.2", "zone-b", true),
+                instance("10.0.0.3", "zone-a", true),
+                instance("10.0.0.4", "zone-b", true),
+                instance("10.0.0.5", "zone-c", true));
+
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.3"), hostsOf(preference.apply("order", instances)));
+    }
+
+    @Test
+    void allInstancesLocalFirstWhenBelowThreshold() {
+        // 同可用区 1 / 4 = 0.25，低于 0.3
+        List<ServiceInstance> instances = Arrays.asList(
+                instance("10.0.0.1", "zone-b", true),
+                instance("10.0.0.2", "zone-a", true),
+                instance("10.0.0.3", "zone-b", true),
+                instance("10.0.0.4", null, true));
+
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.1", "10.0.0.3", "10.0.0.4"),
+                hostsOf(preference.apply("order", instances)));
+    }
+
+    @Test
+    void notReadyInstancesAreDroppedBeforeCounting() {
+        // 未就绪的同可用区实例不计入比例
+        List<ServiceInstance> instances = Arrays.asList(
+                instance("10.0.0.1", "zone-a", false),
+                instance("10.0.0.2", "zone-a", true),
+                instance("10.0.0.3", "zone-b", true),
+                instance("10.0.0.4", "zone-b", true),
+                instance("10.0.0.5", "zone-b", true));
+
+        assertEquals(Arrays.asList("10.0.0.2", "10.0.0.3", "10.0.0.4", "10.0.0.5"),
+                hostsOf(preference.apply("order", instances)));
+    }
+
+    @Test
+    void noLocalInstancesFallsBackToAll() {
+        List<ServiceInstance> instances = Arrays.asList(
+                instance("10.0.0.1", "zone-b", true),
+                instance("10.0.0.2", "zone-c", true));
+
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"), hostsOf(preference.apply("order", instances)));
+    }
+
+    @Test
+    void viewIsReusedUntilInstancesAreReplaced() {
+        List<ServiceInstance> instances = Collections.singletonList(instance("10.0.0.1", "zone-a", true));
+        List<ServiceInstance> view = preference.apply("order", instances);
+
+        assertSame(view, preference.apply("order", instances));
+        assertNotSame(view, preference.apply("order",
+                Collections.singletonList(instance("10.0.0.1", "zone-a", true))));
+    }
+
+    private static ServiceInstance instance(String host, String zone, boolean ready) {
+        return new KubernetesServiceInstance("order", host, 8080, "shop", KubernetesServiceInstance.Metadata.EMPTY,
+                ready, null, zone);
+    }
+
+    private static List<String> hostsOf(List<ServiceInstance> instances) {
+        List<String> hosts = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            hosts.add(instance.getHost());
+        }
+        return hosts;
+    }
+
+}
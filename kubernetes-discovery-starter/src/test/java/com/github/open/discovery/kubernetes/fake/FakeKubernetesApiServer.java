@@ -0,0 +1,707 @@
+package com.github.open.discovery.kubernetes.fake;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内的 Kubernetes api-server 替身，实现服务发现用到的 Service / Endpoints / EndpointSlice 的 LIST、GET 和 WATCH，
+ * 以及查询可用区用到的 Node LIST
+ * <p>
+ * 响应体在写入数据时就序列化好，压测时只统计客户端的开销；数据变化后，列表在下次 LIST 时才重新序列化。
+ * LIST 支持 labelSelector 的 {@code k}、{@code !k}、{@code k=v}、{@code k!=v}。
+ * <p>
+ * WATCH 走 websocket（与 fabric8 客户端一致），只推送建立连接之后的变化，不按 resourceVersion 回放。
+ * 为了接管 websocket 连接，直接在 socket 上实现了最简单的 HTTP/1.1。
+ * <p>
+ * 可注入延迟与错误（HTTP 500），按资源类型统计请求数。
+ *
+ * @since 1.0 2026/10/18
+ */
+public class FakeKubernetesApiServer implements Closeable {
+
+    public static final String SERVICES = "services";
+    public static final String ENDPOINTS = "endpoints";
+    public static final String ENDPOINT_SLICES = "endpointslices";
+    public static final String NODES = "nodes";
+
+    private static final String CORE_PREFIX = "/api/v1/namespaces/";
+    private static final String NODES_PATH = "/api/v1/nodes";
+    private static final String DISCOVERY_PREFIX = "/apis/discovery.k8s.io/v1/namespaces/";
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    /**
+     * key - namespace，value - key 为资源类型
+     */
+    private final Map<String, Map<String, Resources>> namespaces = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    /**
+     * key - 资源类型，如 services、endpoints
+     */
+    private final Map<String, LongAdder> requestCountByResource = new ConcurrentHashMap<>();
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong resourceVersion = new AtomicLong();
+    private final Resources nodes = new Resources("NodeList", "v1", Collections.emptyList());
+
+    private volatile long latencyMillis;
+    private volatile double errorRate;
+
+    public FakeKubernetesApiServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-kubernetes-api-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::accept);
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort();
+    }
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @param resource 资源类型，如 {@link #SERVICES}、{@link #ENDPOINTS}
+     */
+    public long getRequestCount(String resource) {
+        LongAdder count = requestCountByResource.get(resource);
+        return null == count ? 0 : count.sum();
+    }
+
+    /**
+     * @return 注入的错误响应数
+     */
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * @return 当前打开的 watch 连接数
+     */
+    public int getWatchCount(String namespace, String resource) {
+        Resources resources = resources(namespace, resource);
+        return null == resources ? 0 : resources.watches.size();
+    }
+
+    /**
+     * 每个请求在响应前等待的时间
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * 返回 HTTP 500 的请求比例，0 ~ 1
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public void putNamespace(String namespace, List<Service> services, List<Endpoints> endpoints) {
+        putNamespace(namespace, services, endpoints, Collections.emptyList());
+    }
+
+    public void putNamespace(String namespace, List<Service> services, List<Endpoints> endpoints,
+                             List<EndpointSlice> endpointSlices) {
+        Map<String, Resources> data = new HashMap<>();
+        data.put(SERVICES, new Resources("ServiceList", "v1", services));
+        data.put(ENDPOINTS, new Resources("EndpointsList", "v1", endpoints));
+        data.put(ENDPOINT_SLICES, new Resources("EndpointSliceList", "discovery.k8s.io/v1", endpointSlices));
+        Map<String, Resources> previous = namespaces.put(namespace, data);
+        if (null != previous) {
+            previous.values().forEach(Resources::closeWatches);
+        }
+    }
+
+    /**
+     * 新增或替换一个 Service
+     */
+    public void updateService(String namespace, Service service) {
+        update(namespace, SERVICES, service);
+    }
+
+    /**
+     * 新增或替换一个 Endpoints，模拟实例变化
+     */
+    public void updateEndpoints(String namespace, Endpoints endpoints) {
+        update(namespace, ENDPOINTS, endpoints);
+    }
+
+    /**
+     * 新增或替换一个 EndpointSlice
+     */
+    public void updateEndpointSlice(String namespace, EndpointSlice endpointSlice) {
+        update(namespace, ENDPOINT_SLICES, endpointSlice);
+    }
+
+    /**
+     * 新增或替换一个 Node
+     */
+    public void updateNode(Node node) {
+        update(nodes, node);
+    }
+
+    /**
+     * @param resource 资源类型，如 {@link #SERVICES}、{@link #ENDPOINTS}
+     */
+    public void delete(String namespace, String resource, String name) {
+        Resources resources = requireResources(namespace, resource);
+        HasMetadata removed;
+        synchronized (resources) {
+            removed = resources.items.remove(name);
+            if (null == removed) {
+                return;
+            }
+            resources.json.remove(name);
+            resources.lists.clear();
+        }
+        removed.getMetadata().setResourceVersion(String.valueOf(resourceVersion.incrementAndGet()));
+        resources.publish("DELETED", removed);
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+        namespaces.values().forEach(data -> data.values().forEach(Resources::closeWatches));
+        nodes.closeWatches();
+        for (Socket connection : connections) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        executor.shutdownNow();
+    }
+
+    private void update(String namespace, String resource, HasMetadata item) {
+        update(requireResources(namespace, resource), item);
+    }
+
+    private void update(Resources resources, HasMetadata item) {
+        item.getMetadata().setResourceVersion(String.valueOf(resourceVersion.incrementAndGet()));
+        String name = item.getMetadata().getName();
+        byte[] json = toJson(item);
+        boolean added;
+        synchronized (resources) {
+            added = null == resources.items.put(name, item);
+            resources.json.put(name, json);
+            resources.lists.clear();
+        }
+        resources.publish(added ? "ADDED" : "MODIFIED", item);
+    }
+
+    private Resources resources(String namespace, String resource) {
+        Map<String, Resources> data = namespaces.get(namespace);
+        return null == data ? null : data.get(resource);
+    }
+
+    private Resources requireResources(String namespace, String resource) {
+        Resources resources = resources(namespace, resource);
+        if (null == resources) {
+            throw new IllegalArgumentException("unknown namespace or resource: " + namespace + "/" + resource);
+        }
+        return resources;
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // close() 关闭了 serverSocket
+                return;
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 一个连接上依次处理多个请求（keep-alive），升级为 websocket 后不再处理请求
+     */
+    private void serve(Socket socket) {
+        try (Socket s = socket) {
+            InputStream in = new BufferedInputStream(s.getInputStream());
+            OutputStream out = new BufferedOutputStream(s.getOutputStream());
+            Request request;
+            while (null != (request = Request.read(in))) {
+                if (!handle(request, s, in, out) || "close".equalsIgnoreCase(request.headers.get("connection"))) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // 客户端断开
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * @return 连接能否继续处理下一个请求
+     */
+    private boolean handle(Request request, Socket socket, InputStream in, OutputStream out)
+            throws IOException, InterruptedException {
+        requestCount.incrementAndGet();
+        String path = request.path;
+        boolean nodesPath = NODES_PATH.equals(path);
+        String[] parts = nodesPath ? new String[]{"", NODES}
+                : path.startsWith(CORE_PREFIX) ? path.substring(CORE_PREFIX.length()).split("/")
+                : path.startsWith(DISCOVERY_PREFIX) ? path.substring(DISCOVERY_PREFIX.length()).split("/")
+                : new String[0];
+        requestCountByResource.computeIfAbsent(parts.length >= 2 ? parts[1] : "other", k -> new LongAdder())
+                .increment();
+
+        long latency = latencyMillis;
+        if (latency > 0) {
+            TimeUnit.MILLISECONDS.sleep(latency);
+        }
+        double rate = errorRate;
+        if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            errorCount.incrementAndGet();
+            writeResponse(out, 500, "Internal Server Error", null);
+            return true;
+        }
+
+        Resources resources = nodesPath ? nodes : parts.length >= 2 ? resources(parts[0], parts[1]) : null;
+        byte[] body = null;
+        if (null != resources && parts.length == 2 && "true".equals(request.query.get("watch"))) {
+            String key = request.headers.get("sec-websocket-key");
+            if (null == key) {
+                writeResponse(out, 400, "Bad Request", null);
+                return true;
+            }
+            out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + websocketAccept(key) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            WatchStream watch = new WatchStream(socket, out, request.query.get("labelSelector"));
+            resources.watches.add(watch);
+            try {
+                watch.readUntilClosed(in);
+            } finally {
+                resources.watches.remove(watch);
+            }
+            return false;
+        } else if (null != resources && parts.length == 2) {
+            body = resources.list(request.query.get("labelSelector"));
+        } else if (null != resources && parts.length == 3) {
+            body = resources.json.get(parts[2]);
+        }
+
+        if (null == body) {
+            writeResponse(out, 404, "Not Found", null);
+        } else {
+            writeResponse(out, 200, "OK", body);
+        }
+        return true;
+    }
+
+    private static void writeResponse(OutputStream out, int code, String reason, byte[] body) throws IOException {
+        int length = null == body ? 0 : body.length;
+        out.write(("HTTP/1.1 " + code + " " + reason + "\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: " + length + "\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        if (null != body) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    private static String websocketAccept(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key.trim() + WEBSOCKET_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] toWatchEvent(String type, HasMetadata item) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("object", item);
+        return toJson(event);
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        if (null == rawQuery || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> query = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int i = pair.indexOf('=');
+            query.put(decode(i < 0 ? pair : pair.substring(0, i)), i < 0 ? "" : decode(pair.substring(i + 1)));
+        }
+        return query;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param selector 逗号分隔的 {@code k}、{@code !k}、{@code k=v}、{@code k==v}、{@code k!=v}
+     */
+    private static boolean matches(Map<String, String> labels, String selector) {
+        Map<String, String> actual = null != labels ? labels : Collections.emptyMap();
+        for (String requirement : selector.split(",")) {
+            requirement = requirement.trim();
+            if (requirement.isEmpty()) {
+                continue;
+            }
+            boolean matched;
+            int i;
+            if (requirement.startsWith("!")) {
+                matched = !actual.containsKey(requirement.substring(1));
+            } else if ((i = requirement.indexOf("!=")) > 0) {
+                matched = !requirement.substring(i + 2).equals(actual.get(requirement.substring(0, i)));
+            } else if ((i = requirement.indexOf('=')) > 0) {
+                String value = requirement.substring(i + 1);
+                matched = (value.startsWith("=") ? value.substring(1) : value)
+                        .equals(actual.get(requirement.substring(0, i)));
+            } else {
+                matched = actual.containsKey(requirement);
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 一个 namespace 下的一类资源
+     */
+    private final class Resources {
+
+        private final String listKind;
+        private final String apiVersion;
+        /**
+         * key - 资源名，由 this 保护
+         */
+        private final Map<String, HasMetadata> items = new LinkedHashMap<>();
+        private final Map<String, byte[]> json = new ConcurrentHashMap<>();
+        /**
+         * 序列化好的列表，key - labelSelector，由 this 保护，有变化时清空
+         */
+        private final Map<String, byte[]> lists = new HashMap<>();
+        private final List<WatchStream> watches = new CopyOnWriteArrayList<>();
+
+        private Resources(String listKind, String apiVersion, List<? extends HasMetadata> initial) {
+            this.listKind = listKind;
+            this.apiVersion = apiVersion;
+            for (HasMetadata item : initial) {
+                items.put(item.getMetadata().getName(), item);
+                json.put(item.getMetadata().getName(), toJson(item));
+            }
+        }
+
+        private synchronized byte[] list(String selector) {
+            String key = null != selector ? selector : "";
+            byte[] list = lists.get(key);
+            if (null == list) {
+                List<HasMetadata> selected = new ArrayList<>(items.size());
+                for (HasMetadata item : items.values()) {
+                    if (key.isEmpty() || matches(item.getMetadata().getLabels(), key)) {
+                        selected.add(item);
+                    }
+                }
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("resourceVersion", String.valueOf(resourceVersion.incrementAndGet()));
+                Map<String, Object> body = new LinkedHashMap<>();
+                body.put("apiVersion", apiVersion);
+                body.put("kind", listKind);
+                body.put("metadata", metadata);
+                body.put("items", selected);
+                list = toJson(body);
+                lists.put(key, list);
+            }
+            return list;
+        }
+
+        private void publish(String type, HasMetadata item) {
+            byte[] event = null;
+            for (WatchStream watch : watches) {
+                if (!watch.accepts(item)) {
+                    continue;
+                }
+                if (null == event) {
+                    event = toWatchEvent(type, item);
+                }
+                if (!watch.send(event)) {
+                    watches.remove(watch);
+                }
+            }
+        }
+
+        private void closeWatches() {
+            watches.forEach(WatchStream::close);
+            watches.clear();
+        }
+    }
+
+    /**
+     * 只读的 HTTP 请求，fabric8 服务发现只发 GET
+     */
+    private static final class Request {
+
+        private final String path;
+        private final Map<String, String> query;
+        /**
+         * key - 小写的 header 名
+         */
+        private final Map<String, String> headers;
+
+        private Request(String path, Map<String, String> query, Map<String, String> headers) {
+            this.path = path;
+            this.query = query;
+            this.headers = headers;
+        }
+
+        /**
+         * @return 连接已关闭时返回 null
+         */
+        private static Request read(InputStream in) throws IOException {
+            String requestLine = readLine(in);
+            if (null == requestLine || requestLine.isEmpty()) {
+                return null;
+            }
+            Map<String, String> headers = new HashMap<>();
+            String line;
+            while (null != (line = readLine(in)) && !line.isEmpty()) {
+                int i = line.indexOf(':');
+                if (i > 0) {
+                    headers.put(line.substring(0, i).trim().toLowerCase(Locale.ROOT), line.substring(i + 1).trim());
+                }
+            }
+            String contentLength = headers.get("content-length");
+            if (null != contentLength) {
+                skipFully(in, Long.parseLong(contentLength));
+            }
+            String[] parts = requestLine.split(" ");
+            String target = parts.length > 1 ? parts[1] : "/";
+            int q = target.indexOf('?');
+            return new Request(q < 0 ? target : target.substring(0, q),
+                    parseQuery(q < 0 ? null : target.substring(q + 1)), headers);
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    int last = line.length() - 1;
+                    return last >= 0 && line.charAt(last) == '\r' ? line.substring(0, last) : line.toString();
+                }
+                line.append((char) b);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+
+        private static void skipFully(InputStream in, long n) throws IOException {
+            while (n > 0) {
+                long skipped = in.skip(n);
+                if (skipped <= 0) {
+                    if (in.read() == -1) {
+                        return;
+                    }
+                    skipped = 1;
+                }
+                n -= skipped;
+            }
+        }
+    }
+
+    /**
+     * 服务端一侧的 websocket 连接，每个事件一个文本帧
+     */
+    private static final class WatchStream {
+
+        private static final int OPCODE_TEXT = 0x1;
+        private static final int OPCODE_CLOSE = 0x8;
+        private static final int OPCODE_PING = 0x9;
+        private static final int OPCODE_PONG = 0xA;
+
+        private final Socket socket;
+        private final OutputStream out;
+        private final String selector;
+
+        private WatchStream(Socket socket, OutputStream out, String selector) {
+            this.socket = socket;
+            this.out = out;
+            this.selector = selector;
+        }
+
+        private boolean accepts(HasMetadata item) {
+            return null == selector || selector.isEmpty() || matches(item.getMetadata().getLabels(), selector);
+        }
+
+        /**
+         * @return 客户端已断开时返回 false
+         */
+        private boolean send(byte[] event) {
+            return sendFrame(OPCODE_TEXT, event);
+        }
+
+        /**
+         * 读客户端的帧直到断开：回应 ping，收到 close 时回应并结束
+         */
+        private void readUntilClosed(InputStream in) throws IOException {
+            while (true) {
+                int b0 = in.read();
+                int b1 = in.read();
+                if (b0 == -1 || b1 == -1) {
+                    return;
+                }
+                long length = b1 & 0x7F;
+                if (length == 126) {
+                    length = (readByte(in) << 8) | readByte(in);
+                } else if (length == 127) {
+                    length = 0;
+                    for (int i = 0; i < 8; i++) {
+                        length = (length << 8) | readByte(in);
+                    }
+                }
+                byte[] mask = new byte[4];
+                if ((b1 & 0x80) != 0) {
+                    readFully(in, mask);
+                }
+                byte[] payload = new byte[(int) length];
+                readFully(in, payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i % 4];
+                }
+                int opcode = b0 & 0x0F;
+                if (opcode == OPCODE_PING) {
+                    sendFrame(OPCODE_PONG, payload);
+                } else if (opcode == OPCODE_CLOSE) {
+                    sendFrame(OPCODE_CLOSE, payload);
+                    return;
+                }
+            }
+        }
+
+        private synchronized boolean sendFrame(int opcode, byte[] payload) {
+            try {
+                out.write(0x80 | opcode);
+                if (payload.length < 126) {
+                    out.write(payload.length);
+                } else if (payload.length <= 0xFFFF) {
+                    out.write(126);
+                    out.write(payload.length >>> 8);
+                    out.write(payload.length);
+                } else {
+                    out.write(127);
+                    for (int i = 7; i >= 0; i--) {
+                        out.write((int) ((long) payload.length >>> (8 * i)));
+                    }
+                }
+                out.write(payload);
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                close();
+                return false;
+            }
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+
+        private static int readByte(InputStream in) throws IOException {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        private static void readFully(InputStream in, byte[] buffer) throws IOException {
+            int offset = 0;
+            while (offset < buffer.length) {
+                int n = in.read(buffer, offset, buffer.length - offset);
+                if (n == -1) {
+                    throw new EOFException();
+                }
+                offset += n;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.github.open.discovery.kubernetes.fake;
+
+import com.github.open.discovery.kubernetes.EndpointSliceMerger;
+import io.fabric8.kubernetes.api.model.EndpointAddress;
+import io.fabric8.kubernetes.api.model.EndpointAddressBuilder;
+import io.fabric8.kubernetes.api.model.EndpointPortBuilder;
+import io.fabric8.kubernetes.api.model.EndpointSubset;
+import io.fabric8.kubernetes.api.model.EndpointSubsetBuilder;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.discovery.v1.Endpoint;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointBuilder;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSlice;
+import io.fabric8.kubernetes.api.model.discovery.v1.EndpointSliceBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 测试与压测用的 Service / Endpoints / EndpointSlice 数据，按下标生成，结果可复现
+ * <p>
+ * 地址的第一段由 namespace 决定（按首次使用的顺序分配），不同 namespace 的实例地址不重复
+ *
+ * @since 1.0 2026/10/18
+ */
+public final class Fixtures {
+
+    public static final String PORT_NAME = "service-port";
+    public static final int PORT = 8080;
+    /**
+     * 每个服务的地址段大小
+     */
+    public static final int MAX_INSTANCES = 64;
+
+    /**
+     * key - namespace，由 Fixtures.class 保护
+     */
+    private static final Map<String, Integer> NAMESPACE_INDEXES = new HashMap<>();
+
+    private Fixtures() {
+    }
+
+    public static String serviceId(String namespace, int index) {
+        return namespace + "-svc-" + index;
+    }
+
+    public static String serviceName(int index) {
+        return "service-" + index;
+    }
+
+    public static Service service(String namespace, int index) {
+        return new ServiceBuilder()
+                .withNewMetadata()
+                .withName(serviceName(index))
+                .withNamespace(namespace)
+                .withResourceVersion("1")
+                .addToLabels("serviceId", serviceId(namespace, index))
+                .addToLabels("app", "app-" + index)
+                .endMetadata()
+                .build();
+    }
+
+    public static Endpoints endpoints(String namespace, int index, int instances) {
+        return endpoints(namespace, index, instances, 0);
+    }
+
+    /**
+     * 每增加一代替换一个实例的地址，模拟滚动发布
+     *
+     * @param instances  实例数，不超过 {@link #MAX_INSTANCES}
+     * @param generation 第几代，0 为初始数据
+     */
+    public static Endpoints endpoints(String namespace, int index, int instances, int generation) {
+        List<EndpointAddress> addresses = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            addresses.add(new EndpointAddressBuilder()
+                    .withIp(ip(namespace, index, (generation + i) % MAX_INSTANCES))
+                    .build());
+        }
+        EndpointSubset subset = new EndpointSubsetBuilder()
+                .withAddresses(addresses)
+                .withPorts(new EndpointPortBuilder().withName(PORT_NAME).withPort(PORT).withProtocol("TCP").build())
+                .build();
+
+        return new EndpointsBuilder()
+                .withNewMetadata()
+                .withName(serviceName(index))
+                .withNamespace(namespace)
+                .withResourceVersion("1")
+                .addToLabels("serviceId", serviceId(namespace, index))
+                .addToAnnotations("owner", "team-" + (index % 16))
+                .endMetadata()
+                .withSubsets(subset)
+                .build();
+    }
+
+    /**
+     * 与 {@link #endpoints(String, int, int, int)} 地址相同的 EndpointSlice
+     *
+     * @param slice 分片名后缀，同一服务的多个分片用不同的值
+     */
+    public static EndpointSlice endpointSlice(String namespace, int index, int instances, int generation,
+                                              String slice) {
+        List<Endpoint> endpoints = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            endpoints.add(new EndpointBuilder()
+                    .withAddresses(ip(namespace, index, (generation + i) % MAX_INSTANCES))
+                    .withNewConditions().withReady(true).withServing(true).endConditions()
+                    .build());
+        }
+        return new EndpointSliceBuilder()
+                .withNewMetadata()
+                .withName(serviceName(index) + "-" + slice)
+                .withNamespace(namespace)
+                .withResourceVersion("1")
+                .addToLabels(EndpointSliceMerger.SERVICE_NAME_LABEL, serviceName(index))
+                .addToLabels("serviceId", serviceId(namespace, index))
+                .endMetadata()
+                .withAddressType("IPv4")
+                .withEndpoints(endpoints)
+                .addNewPort().withName(PORT_NAME).withPort(PORT).withProtocol("TCP").endPort()
+                .build();
+    }
+
+    public static List<Service> services(String namespace, int count) {
+        List<Service> services = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            services.add(service(namespace, i));
+        }
+        return services;
+    }
+
+    public static List<Endpoints> endpointsList(String namespace, int count, int instancesPerService) {
+        List<Endpoints> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            endpoints.add(endpoints(namespace, i, instancesPerService));
+        }
+        return endpoints;
+    }
+
+    /**
+     * 每个服务一个分片
+     */
+    public static List<EndpointSlice> endpointSliceList(String namespace, int count, int instancesPerService) {
+        List<EndpointSlice> slices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            slices.add(endpointSlice(namespace, i, instancesPerService, 0, "0"));
+        }
+        return slices;
+    }
+
+    /**
+     * @param service  服务下标，每个 namespace 最多 2^18 个服务
+     * @param instance 实例下标，小于 {@link #MAX_INSTANCES}
+     */
+    public static String ip(String namespace, int service, int instance) {
+        int first = 10 + namespaceIndex(namespace) % 240;
+        int n = service * MAX_INSTANCES + instance;
+        return first + "." + ((n >> 16) & 0xFF) + "." + ((n >> 8) & 0xFF) + "." + (n & 0xFF);
+    }
+
+    private static synchronized int namespaceIndex(String namespace) {
+        Integer index = NAMESPACE_INDEXES.get(namespace);
+        if (null == index) {
+            index = NAMESPACE_INDEXES.size();
+            NAMESPACE_INDEXES.put(namespace, index);
+        }
+        return index;
+    }
+
+}
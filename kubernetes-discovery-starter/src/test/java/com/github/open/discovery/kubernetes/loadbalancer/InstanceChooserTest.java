@@ -0,0 +1,136 @@
+package com.github.open.discovery.kubernetes.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @since 1.0 2026/10/18
+ */
+class InstanceChooserTest {
+
+    @Test
+    void roundRobinVisitsEveryInstanceEvenly() {
+        List<ServiceInstance> instances = instances(4);
+        RoundRobinChooser chooser = new RoundRobinChooser();
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 400; i++) {
+            counts.merge(chooser.choose(instances, null).getInstanceId(), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertEquals(100, count));
+    }
+
+    @Test
+    void weightedFollowsMetadataWeights() {
+        List<ServiceInstance> instances = Collections.unmodifiableList(Arrays.asList(
+                weighted("a", "300"), weighted("b", "100"), weighted("c", "0"), weighted("d", "invalid")));
+        WeightedChooser chooser = new WeightedChooser("weight", 100);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            counts.merge(chooser.choose(instances, null).getInstanceId(), 1, Integer::sum);
+        }
+
+        // 权重 300:100:0:100（配置错误时取默认值）
+        assertNull(counts.get("c"));
+        assertTrue(counts.get("a") > counts.get("b") * 2, "counts: " + counts);
+        assertTrue(counts.get("a") > counts.get("d") * 2, "counts: " + counts);
+    }
+
+    @Test
+    void consistentHashKeepsKeyOnSameInstance() {
+        List<ServiceInstance> instances = instances(5);
+        ConsistentHashChooser chooser = new ConsistentHashChooser("X-Hash-Key", 160);
+
+        ServiceInstance first = chooser.choose(instances, headerRequest("X-Hash-Key", "user-42"));
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, chooser.choose(instances, headerRequest("X-Hash-Key", "user-42")));
+        }
+        // 没有请求头时取 hint
+        assertSame(first, chooser.choose(instances, new DefaultRequest<>(new DefaultRequestContext(null, "user-42"))));
+    }
+
+    @Test
+    void consistentHashOnlyMovesKeysOfRemovedInstance() {
+        List<ServiceInstance> instances = instances(5);
+        ConsistentHashChooser chooser = new ConsistentHashChooser("X-Hash-Key", 160);
+
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "key-" + i;
+            before.put(key, chooser.choose(instances, hintRequest(key)).getInstanceId());
+        }
+
+        List<ServiceInstance> remaining = new ArrayList<>(instances);
+        ServiceInstance removed = remaining.remove(2);
+        remaining = Collections.unmodifiableList(remaining);
+        for (int i = 0; i < 1000; i++) {
+            String key = "key-" + i;
+            String previous = before.get(key);
+            if (!previous.equals(removed.getInstanceId())) {
+                assertEquals(previous, chooser.choose(remaining, hintRequest(key)).getInstanceId());
+            }
+        }
+    }
+
+    @Test
+    void leastRequestAvoidsBusyInstance() {
+        List<ServiceInstance> instances = instances(2);
+        OutstandingRequests outstandingRequests = new OutstandingRequests();
+        outstandingRequests.onStartRequest(null, new DefaultResponse(instances.get(0)));
+        LeastRequestChooser chooser = new LeastRequestChooser(outstandingRequests);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(instances.get(1), chooser.choose(instances, null));
+        }
+    }
+
+    private static List<ServiceInstance> instances(int size) {
+        List<ServiceInstance> instances = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            instances.add(new DefaultServiceInstance("10.0.0." + i + ":8080", "demo", "10.0.0." + i, 8080, false));
+        }
+        return Collections.unmodifiableList(instances);
+    }
+
+    private static ServiceInstance weighted(String id, String weight) {
+        return new DefaultServiceInstance(id, "demo", id, 8080, false, Collections.singletonMap("weight", weight));
+    }
+
+    private static Request<?> hintRequest(String hint) {
+        return new DefaultRequest<>(new DefaultRequestContext(null, hint));
+    }
+
+    private static Request<?> headerRequest(String name, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(name, value);
+        return new DefaultRequest<>(new RequestDataContext(new RequestData(HttpMethod.GET, URI.create("http://demo/"),
+                headers, new LinkedMultiValueMap<>(), new HashMap<>())));
+    }
+
+}